@@ -0,0 +1,46 @@
+package com.upgrad.FoodOrderingApp.api.config;
+
+import com.upgrad.FoodOrderingApp.service.businness.ContentVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConditionalGet answers the polling of an endpoint whose content carries a ContentVersion. Every response gets the
+ * Cache-Control of the endpoint and a strong ETag made from the version, plus Last-Modified when the version knows when
+ * the content changed. A request whose If-None-Match (or, without one, If-Modified-Since) still matches is answered
+ * with 304 Not Modified before the handler reads or serializes anything.
+ */
+public final class ConditionalGet {
+
+    private final String cacheControl;
+
+    /**
+     * @param maxAgeSeconds how long clients may reuse a response without asking again; 0 to have them revalidate every
+     *                      time.
+     */
+    public ConditionalGet(final int maxAgeSeconds) {
+        this.cacheControl = (maxAgeSeconds > 0 ? CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic()
+                : CacheControl.noCache()).getHeaderValue();
+    }
+
+    /**
+     * Sets the caching headers of the response, and the status 304 when the client's copy is current.
+     *
+     * @param request request being handled.
+     * @param version version of the content the handler would return, read before the content; null when unknown,
+     *                which never matches.
+     * @return true when the response is a 304 and the handler should return null without building a body.
+     */
+    public boolean isNotModified(final ServletWebRequest request, final ContentVersion version) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (version == null) {
+            return false;
+        }
+        final String etag = "\"" + version.getTag() + "\"";
+        return version.getModifiedMillis() > 0 ? request.checkNotModified(etag, version.getModifiedMillis())
+                : request.checkNotModified(etag);
+    }
+}
@@ -0,0 +1,56 @@
+package com.upgrad.FoodOrderingApp.api.config;
+
+import com.upgrad.FoodOrderingApp.service.businness.AuthorizationService;
+import com.upgrad.FoodOrderingApp.service.businness.CustomerSession;
+import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Injects the CustomerSession of the logged-in customer into any controller method that declares it as a parameter.
+ * The authorization header is resolved at most once per request; the outcome (session or failure) is memoized as a
+ * request attribute and reused for every later resolution within the same request.
+ */
+@Component
+public class CustomerSessionArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String AUTHORIZATION_HEADER = "authorization";
+
+    private static final String RESOLVED_ATTRIBUTE = CustomerSessionArgumentResolver.class.getName() + ".RESOLVED";
+
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Override
+    public boolean supportsParameter(final MethodParameter parameter) {
+        return CustomerSession.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(final MethodParameter parameter, final ModelAndViewContainer mavContainer,
+                                  final NativeWebRequest webRequest, final WebDataBinderFactory binderFactory) throws Exception {
+
+        final Object resolved = webRequest.getAttribute(RESOLVED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (resolved instanceof CustomerSession) {
+            return resolved;
+        }
+        if (resolved instanceof AuthorizationFailedException) {
+            throw (AuthorizationFailedException) resolved;
+        }
+
+        try {
+            final CustomerSession customerSession = authorizationService.authorize(webRequest.getHeader(AUTHORIZATION_HEADER));
+            webRequest.setAttribute(RESOLVED_ATTRIBUTE, customerSession, RequestAttributes.SCOPE_REQUEST);
+            return customerSession;
+        } catch (AuthorizationFailedException afe) {
+            webRequest.setAttribute(RESOLVED_ATTRIBUTE, afe, RequestAttributes.SCOPE_REQUEST);
+            throw afe;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.upgrad.FoodOrderingApp.api.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.FoodOrderingApp.service.common.GenericErrorCode;
+import com.upgrad.FoodOrderingApp.service.common.UnexpectedException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * PreSerializedJson keeps the serialized body of a response that is built from immutable, shared data, such as the
+ * lists of a ReferenceData snapshot. The bytes are reused for as long as the service keeps returning the same source
+ * instance, and rebuilt once after the source is replaced by a reload.
+ */
+public final class PreSerializedJson<S> {
+
+    private final ObjectMapper objectMapper;
+
+    private final Function<S, Object> toModel;
+
+    private final AtomicReference<Entry<S>> entry = new AtomicReference<>();
+
+    public PreSerializedJson(final ObjectMapper objectMapper, final Function<S, Object> toModel) {
+        this.objectMapper = objectMapper;
+        this.toModel = toModel;
+    }
+
+    /**
+     * @param source data the response is built from.
+     * @return the JSON body for the given source.
+     */
+    public byte[] get(final S source) {
+        final Entry<S> current = entry.get();
+        if (current != null && current.source == source) {
+            return current.json;
+        }
+        final byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(toModel.apply(source));
+        } catch (JsonProcessingException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        }
+        entry.set(new Entry<>(source, json));
+        return json;
+    }
+
+    /**
+     * @param source data the response is built from.
+     * @return a 200 response with the JSON body for the given source.
+     */
+    public ResponseEntity<byte[]> toResponse(final S source) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(get(source));
+    }
+
+    private static final class Entry<S> {
+        private final S source;
+        private final byte[] json;
+
+        private Entry(final S source, final byte[] json) {
+            this.source = source;
+            this.json = json;
+        }
+    }
+}
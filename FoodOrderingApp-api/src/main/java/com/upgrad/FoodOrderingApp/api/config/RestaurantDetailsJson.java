@@ -0,0 +1,148 @@
+package com.upgrad.FoodOrderingApp.api.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.FoodOrderingApp.service.businness.RestaurantDetails;
+import com.upgrad.FoodOrderingApp.service.common.GenericErrorCode;
+import com.upgrad.FoodOrderingApp.service.common.UnexpectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * RestaurantDetailsJson keeps the serialized body of the details response of the most recently read restaurants, both
+ * as JSON and gzipped, and hands out whichever the client accepts without serializing or compressing again. An entry
+ * is kept for as long as the details read carry the same catalog version and number of rating changes: a rating of the
+ * restaurant, a flush of its ratings or a reload that changes its row, categories or items changes one of these, and
+ * the entry is rebuilt on the next read. Details read from the database rather than the catalog are never kept. The
+ * least recently read entries are evicted once the cache is full.
+ */
+public final class RestaurantDetailsJson {
+
+    private final ObjectMapper objectMapper;
+
+    private final Function<RestaurantDetails, Object> toModel;
+
+    //Access ordered, so iteration starts with the least recently read restaurant.
+    private final Map<String, Entry> entries;
+
+    public RestaurantDetailsJson(final ObjectMapper objectMapper, final Function<RestaurantDetails, Object> toModel, final int maxSize) {
+        this.objectMapper = objectMapper;
+        this.toModel = toModel;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param details        details of a restaurant as read by the RestaurantService.
+     * @param acceptEncoding Accept-Encoding header of the request, null when there is none.
+     * @return a 200 response with the details as JSON, gzipped when the client accepts gzip and it is smaller.
+     */
+    public ResponseEntity<byte[]> toResponse(final RestaurantDetails details, final String acceptEncoding) {
+        final Entry entry = get(details);
+        final boolean gzip = entry.gzip != null && acceptsGzip(acceptEncoding);
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? entry.gzip : entry.json);
+    }
+
+    private Entry get(final RestaurantDetails details) {
+        final String uuid = details.getRestaurant().getUuid();
+        if (details.getVersion() != 0L) {
+            final Entry current;
+            synchronized (entries) {
+                current = entries.get(uuid);
+            }
+            if (current != null && current.version == details.getVersion() && current.ratingChanges == details.getRatingChanges()) {
+                return current;
+            }
+        }
+        final byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(toModel.apply(details));
+        } catch (JsonProcessingException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        }
+        final byte[] gzip = gzip(json);
+        final Entry built = new Entry(details.getVersion(), details.getRatingChanges(), json, gzip.length < json.length ? gzip : null);
+        if (details.getVersion() != 0L) {
+            synchronized (entries) {
+                //A slower read of older details must not replace the entry of newer ones.
+                final Entry current = entries.get(uuid);
+                if (current == null || current.version < built.version
+                        || current.version == built.version && current.ratingChanges <= built.ratingChanges) {
+                    entries.put(uuid, built);
+                }
+            }
+        }
+        return built;
+    }
+
+    private static byte[] gzip(final byte[] json) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    //Whether gzip, x-gzip or * is listed with a quality other than 0.
+    private static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            final String[] parameters = coding.split(";");
+            final String name = parameters[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equalsIgnoreCase("x-gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean accepted = true;
+            for (int i = 1; i < parameters.length; i++) {
+                final String parameter = parameters[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        accepted = Double.parseDouble(parameter.substring(2).trim()) > 0;
+                    } catch (NumberFormatException e) {
+                        accepted = false;
+                    }
+                }
+            }
+            if (accepted) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final long ratingChanges;
+        private final byte[] json;
+        //Null when gzip does not make the body smaller.
+        private final byte[] gzip;
+
+        private Entry(final long version, final long ratingChanges, final byte[] json, final byte[] gzip) {
+            this.version = version;
+            this.ratingChanges = ratingChanges;
+            this.json = json;
+            this.gzip = gzip;
+        }
+    }
+}
@@ -1,20 +1,31 @@
 package com.upgrad.FoodOrderingApp.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.FoodOrderingApp.api.config.ConditionalGet;
+import com.upgrad.FoodOrderingApp.api.config.PreSerializedJson;
 import com.upgrad.FoodOrderingApp.api.model.*;
+import com.upgrad.FoodOrderingApp.service.businness.AddressImportResult;
+import com.upgrad.FoodOrderingApp.service.businness.AddressPage;
 import com.upgrad.FoodOrderingApp.service.businness.AddressService;
+import com.upgrad.FoodOrderingApp.service.businness.CustomerSession;
+import com.upgrad.FoodOrderingApp.service.businness.PincodeLocation;
 import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
 import com.upgrad.FoodOrderingApp.service.entity.StateEntity;
 import com.upgrad.FoodOrderingApp.service.exception.AddressNotFoundException;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.SaveAddressException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import sun.jvm.hotspot.debugger.Address;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import javax.annotation.PostConstruct;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import java.util.UUID;
@@ -22,13 +33,31 @@ import java.util.UUID;
 @RestController
 public class AddressController {
 
+    private static final String NEXT_CURSOR_HEADER = "next-cursor";
+
     @Autowired
     private AddressService addressBusinessService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${foodorderingapp.http-cache.states-max-age-seconds:86400}")
+    private int statesMaxAgeSeconds;
+
+    private PreSerializedJson<List<StateEntity>> statesJson;
+
+    private ConditionalGet statesConditionalGet;
+
+    @PostConstruct
+    public void init() {
+        statesJson = new PreSerializedJson<>(objectMapper, AddressController::toStatesListResponses);
+        statesConditionalGet = new ConditionalGet(statesMaxAgeSeconds);
+    }
+
     /**
      * A coltroller method to save address of a customer in the database.
      * @param saveAddressRequest - This argument contains all the attributes required to store customer address details in the database.
-     * @param authorization - This argument requests the access-token of already logged-in customer in @RequestHeader
+     * @param customerSession - Session of the logged-in customer, resolved from the access-token in the authorization header.
      * @return ResponseEntity<SaveAddressResponse>
      * @throws AuthorizationFailedException
      * @throws SaveAddressException
@@ -36,7 +65,7 @@ public class AddressController {
      */
     @CrossOrigin
     @RequestMapping(method = RequestMethod.POST , path = "/address" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE , consumes = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<SaveAddressResponse> saveAddress(final SaveAddressRequest saveAddressRequest , @RequestHeader("authorization") final String authorization) throws AuthorizationFailedException, SaveAddressException, AddressNotFoundException {
+    public ResponseEntity<SaveAddressResponse> saveAddress(final SaveAddressRequest saveAddressRequest , final CustomerSession customerSession) throws AuthorizationFailedException, SaveAddressException, AddressNotFoundException {
 
 
 
@@ -51,7 +80,7 @@ public class AddressController {
         StateEntity stateEntity = new StateEntity();
         stateEntity.setUuid(saveAddressRequest.getStateUuid());
 
-        AddressEntity createCustomerAddress = addressBusinessService.saveAddress(addressEntity , stateEntity,  authorization);
+        AddressEntity createCustomerAddress = addressBusinessService.saveAddress(addressEntity , stateEntity,  customerSession);
 
         SaveAddressResponse saveAddressResponse = new SaveAddressResponse().id(createCustomerAddress.getUuid()).status("ADDRESS SUCCESSFULLY REGISTERED");
         return new ResponseEntity<SaveAddressResponse>(saveAddressResponse , HttpStatus.CREATED);
@@ -59,45 +88,118 @@ public class AddressController {
     }
 
     /**
-     * A controller method to getAllSaved address of a specific customer.
-     * @param authorization - This argument requests the access-token of already logged-in customer in @RequestHeader
-     * @return ResponseEntity<List<AddressListResponse>> with Http status OK.
+     * A controller method to save many addresses of a customer in one request.
+     * @param bulkSaveAddressRequest - This argument contains the addresses to save.
+     * @param customerSession - Session of the logged-in customer, resolved from the access-token in the authorization header.
+     * @return ResponseEntity<BulkSaveAddressResponse> with the result of each address and Http status OK
      * @throws AuthorizationFailedException
+     * @throws SaveAddressException if there are no addresses, too many, or one of them is null
      */
-    @RequestMapping(method = RequestMethod.GET , path = "/address/customer" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE )
-    public ResponseEntity<List<AddressListResponse>> getAllSavedAddresses(@RequestHeader("authorization") final String authorization) throws AuthorizationFailedException {
+    @CrossOrigin
+    @RequestMapping(method = RequestMethod.POST , path = "/address/bulk" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE , consumes = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<BulkSaveAddressResponse> saveAddresses(@RequestBody final BulkSaveAddressRequest bulkSaveAddressRequest , final CustomerSession customerSession) throws AuthorizationFailedException, SaveAddressException {
+
+        List<SaveAddressRequest> saveAddressRequests = bulkSaveAddressRequest.getAddresses();
+
+        List<AddressEntity> addressEntityList = new ArrayList<>(saveAddressRequests == null ? 0 : saveAddressRequests.size());
+
+        if(saveAddressRequests != null) {
+            for(SaveAddressRequest saveAddressRequest : saveAddressRequests) {
+
+                //A null element of the list (e.g. "addresses":[null]) is rejected as a whole, before anything is saved.
+                if(saveAddressRequest == null) {
+                    throw new SaveAddressException("SAR-001" , "No field can be empty");
+                }
+
+                AddressEntity addressEntity = new AddressEntity();
+
+                addressEntity.setUuid(UUID.randomUUID().toString());
+                addressEntity.setFlatBuilNumber(saveAddressRequest.getFlatBuildingName());
+                addressEntity.setLocality(saveAddressRequest.getLocality());
+                addressEntity.setCity(saveAddressRequest.getCity());
+                addressEntity.setPincode(saveAddressRequest.getPincode());
+
+                StateEntity stateEntity = new StateEntity();
+                stateEntity.setUuid(saveAddressRequest.getStateUuid());
+                addressEntity.setStateId(stateEntity);
+
+                addressEntityList.add(addressEntity);
+
+            }
+        }
+
+        List<AddressImportResult> addressImportResults = addressBusinessService.saveAddresses(addressEntityList , customerSession);
+
+        List<BulkSaveAddressResult> bulkSaveAddressResults = new ArrayList<>(addressImportResults.size());
+        int saved = 0;
+
+        for(AddressImportResult addressImportResult : addressImportResults) {
+
+            BulkSaveAddressResult bulkSaveAddressResult = new BulkSaveAddressResult().index(addressImportResult.getIndex());
+            if(addressImportResult.isSaved()) {
+                bulkSaveAddressResult.setId(addressImportResult.getAddress().getUuid());
+                saved++;
+            } else {
+                bulkSaveAddressResult.code(addressImportResult.getErrorCode()).message(addressImportResult.getErrorMessage());
+            }
+            bulkSaveAddressResults.add(bulkSaveAddressResult);
+
+        }
+
+        BulkSaveAddressResponse bulkSaveAddressResponse = new BulkSaveAddressResponse().saved(saved)
+                .failed(addressImportResults.size() - saved).results(bulkSaveAddressResults);
+        return new ResponseEntity<BulkSaveAddressResponse>(bulkSaveAddressResponse , HttpStatus.OK);
 
-        List<AddressEntity> addressEntityList = addressBusinessService.getAllSavedAddresses(authorization);
+    }
 
-       // List<StateEntity> statesEntityList = addressBusinessService.getAllStates().getResultList();
+    /**
+     * A controller method to get the saved addresses of a specific customer, one page at a time.
+     * @param customerSession - Session of the logged-in customer, resolved from the access-token in the authorization header.
+     * @param cursor - Value of the "next-cursor" header of the previous page. Omitted for the first page.
+     * @param limit - Number of addresses per page. Omitted for the default page size.
+     * @return ResponseEntity<List<AddressListResponse>> with Http status OK, and a "next-cursor" header when there are more addresses.
+     * @throws AuthorizationFailedException
+     */
+    @RequestMapping(method = RequestMethod.GET , path = "/address/customer" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE )
+    public ResponseEntity<List<AddressListResponse>> getAllSavedAddresses(final CustomerSession customerSession ,
+                                                                          @RequestParam(value = "cursor" , required = false) final Integer cursor ,
+                                                                          @RequestParam(value = "limit" , required = false) final Integer limit) throws AuthorizationFailedException {
 
+        AddressPage addressPage = addressBusinessService.getSavedAddresses(customerSession , cursor , limit);
+        List<AddressEntity> addressEntityList = addressPage.getAddresses();
 
         List<AddressListResponse> addressListResponses = new ArrayList<>();
 
         List<AddressList> addressLists = new ArrayList<>();
-        List<StatesList> statesLists = new ArrayList<>();
 
 
+        //The states were fetched together with the addresses, so reading them here does not query the database.
         for(AddressEntity addressEntity : addressEntityList) {
 
             AddressList addressList = new AddressList();
 
             addressList.setId(UUID.fromString(addressEntity.getUuid()));
             addressList.setFlatBuildingName(addressEntity.getFlatBuilNumber());
-            addressEntity.setLocality(addressEntity.getLocality());
-            addressEntity.setCity(addressEntity.getCity());
-            addressEntity.setPincode(addressEntity.getPincode());
-            StateEntity stateEntity = addressBusinessService.getStatesByAddress(addressEntity.getStateId().getUuid());
-
-            addressEntity.setStateId(stateEntity);
+            addressList.setLocality(addressEntity.getLocality());
+            addressList.setCity(addressEntity.getCity());
+            addressList.setPincode(addressEntity.getPincode());
+
+            StateEntity stateEntity = addressEntity.getStateId();
+            if (stateEntity != null) {
+                addressList.setState(new AddressListState().id(UUID.fromString(stateEntity.getUuid())).stateName(stateEntity.getStateName()));
+            }
             addressLists.add(addressList);
 
         }
 
-        //AddressListResponse addressListResponse = new AddressListResponse().addresses(addressEntityList).addAddressesItem()
-
         addressListResponses.add(new AddressListResponse().addresses(addressLists));
-        return new ResponseEntity<List<AddressListResponse>>(addressListResponses, HttpStatus.OK);
+
+        HttpHeaders headers = new HttpHeaders();
+        if (addressPage.getNextCursor() != null) {
+            headers.add(NEXT_CURSOR_HEADER, String.valueOf(addressPage.getNextCursor()));
+        }
+        headers.setAccessControlExposeHeaders(Collections.singletonList(NEXT_CURSOR_HEADER));
+        return new ResponseEntity<List<AddressListResponse>>(addressListResponses, headers, HttpStatus.OK);
 
     }
 
@@ -105,29 +207,68 @@ public class AddressController {
     /**
      * A controller method to Delete saved address of a specific customer.
      * @param address_id - UUID of the customer to be deleted from Address Tables.
-     * @param authorization - This argument requests the access-token of already logged-in customer in @RequestHeader
+     * @param customerSession - Session of the logged-in customer, resolved from the access-token in the authorization header.
      * @return ResponseEntity<List<StatesListResponse>> with Http Status OK
      * @throws AuthorizationFailedException
      * @throws AddressNotFoundException
      */
    @RequestMapping(method = RequestMethod.DELETE , path = "/address/{address_id}" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-   public ResponseEntity<DeleteAddressResponse> deleteSavedAddress(@PathVariable("address_id") final String address_id , @RequestHeader("authorization") final String authorization) throws AuthorizationFailedException , AddressNotFoundException {
+   public ResponseEntity<DeleteAddressResponse> deleteSavedAddress(@PathVariable("address_id") final String address_id , final CustomerSession customerSession) throws AuthorizationFailedException , AddressNotFoundException {
 
-       AddressEntity deleteAddressEntity = addressBusinessService.deleteAddress(address_id , authorization);
+       addressBusinessService.deleteAddress(address_id , customerSession);
 
-       DeleteAddressResponse deleteAddressResponse = new DeleteAddressResponse().id(UUID.fromString(deleteAddressEntity.getUuid())).status("ADDRESS DELETED SUCCESSFULLY");
+       DeleteAddressResponse deleteAddressResponse = new DeleteAddressResponse().id(UUID.fromString(address_id)).status("ADDRESS DELETED SUCCESSFULLY");
        return new ResponseEntity<DeleteAddressResponse>(deleteAddressResponse , HttpStatus.OK);
    }
 
 
     /**
      * A controller method to get all states from States table.
-     * @return ResponseEntity<List<StatesListResponse>> with Http status OK
+     * @param webRequest - Request, answered with Not Modified when the client's copy is current.
+     * @return ResponseEntity with the List<StatesListResponse> as pre-serialized JSON and Http status OK, or null for Http status NOT_MODIFIED
      */
     @RequestMapping(method = RequestMethod.GET , path = "/states" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<List<StatesListResponse>> getAllStates() {
+    public ResponseEntity<byte[]> getAllStates(final ServletWebRequest webRequest) {
 
-        List<StateEntity> statesEntityList = addressBusinessService.getAllStates().getResultList();
+        if (statesConditionalGet.isNotModified(webRequest , addressBusinessService.getStatesVersion())) {
+            return null;
+        }
+
+        return statesJson.toResponse(addressBusinessService.getAllStates());
+    }
+
+    /**
+     * A controller method to suggest localities, cities and states for the pincodes starting with the given digits.
+     * The suggestions are served from the in-memory pincode index and the cached states, without querying the database.
+     * @param prefix - Leading digits of the pincode typed so far.
+     * @param limit - Maximum number of suggestions. Omitted for the default.
+     * @return ResponseEntity<PincodeSuggestionListResponse> with Http status OK
+     */
+    @RequestMapping(method = RequestMethod.GET , path = "/pincode" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<PincodeSuggestionListResponse> getPincodeSuggestions(@RequestParam(value = "prefix") final String prefix ,
+                                                                               @RequestParam(value = "limit" , required = false) final Integer limit) {
+
+        List<PincodeLocation> pincodeLocations = addressBusinessService.getPincodeSuggestions(prefix , limit);
+
+        List<PincodeSuggestion> pincodeSuggestions = new ArrayList<>(pincodeLocations.size());
+
+        for(PincodeLocation pincodeLocation : pincodeLocations) {
+
+            PincodeSuggestion pincodeSuggestion = new PincodeSuggestion().pincode(pincodeLocation.getPincode())
+                    .locality(pincodeLocation.getLocality()).city(pincodeLocation.getCity());
+
+            StateEntity stateEntity = addressBusinessService.getStateByUuid(pincodeLocation.getStateUuid());
+            if (stateEntity != null) {
+                pincodeSuggestion.setState(new StatesList().id(UUID.fromString(stateEntity.getUuid())).stateName(stateEntity.getStateName()));
+            }
+            pincodeSuggestions.add(pincodeSuggestion);
+
+        }
+
+        return new ResponseEntity<PincodeSuggestionListResponse>(new PincodeSuggestionListResponse().pincodes(pincodeSuggestions) , HttpStatus.OK);
+    }
+
+    private static List<StatesListResponse> toStatesListResponses(final List<StateEntity> statesEntityList) {
 
         List<StatesListResponse> statesListResponses = new ArrayList<>();
 
@@ -145,8 +286,7 @@ public class AddressController {
         }
 
         statesListResponses.add(new StatesListResponse().states(statesLists));
-        return new ResponseEntity<List<StatesListResponse>>(statesListResponses, HttpStatus.OK);
-
+        return statesListResponses;
 
     }
 
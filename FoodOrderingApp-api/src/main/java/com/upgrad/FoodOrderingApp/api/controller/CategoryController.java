@@ -0,0 +1,100 @@
+package com.upgrad.FoodOrderingApp.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.FoodOrderingApp.api.config.ConditionalGet;
+import com.upgrad.FoodOrderingApp.api.config.PreSerializedJson;
+import com.upgrad.FoodOrderingApp.api.model.CategoriesListResponse;
+import com.upgrad.FoodOrderingApp.api.model.CategoryDetailsResponse;
+import com.upgrad.FoodOrderingApp.api.model.CategoryListResponse;
+import com.upgrad.FoodOrderingApp.service.businness.CategoryService;
+import com.upgrad.FoodOrderingApp.service.businness.ItemService;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import com.upgrad.FoodOrderingApp.service.exception.CategoryNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+public class CategoryController {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${foodorderingapp.http-cache.category-max-age-seconds:3600}")
+    private int categoryMaxAgeSeconds;
+
+    private PreSerializedJson<List<CategoryEntity>> categoriesJson;
+
+    private ConditionalGet categoriesConditionalGet;
+
+    @PostConstruct
+    public void init() {
+        categoriesJson = new PreSerializedJson<>(objectMapper, CategoryController::toCategoriesListResponse);
+        categoriesConditionalGet = new ConditionalGet(categoryMaxAgeSeconds);
+    }
+
+    /**
+     * A controller method to get all the categories ordered by their name.
+     * @param webRequest - Request, answered with Not Modified when the client's copy is current.
+     * @return ResponseEntity with the CategoriesListResponse as pre-serialized JSON and Http status OK, or null for Http status NOT_MODIFIED.
+     */
+    @CrossOrigin
+    @RequestMapping(method = RequestMethod.GET , path = "/category" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<byte[]> getAllCategories(final ServletWebRequest webRequest) {
+
+        if (categoriesConditionalGet.isNotModified(webRequest , categoryService.getCategoriesVersion())) {
+            return null;
+        }
+
+        return categoriesJson.toResponse(categoryService.getAllCategoriesOrderedByName());
+    }
+
+    /**
+     * A controller method to get a category with all its items.
+     * @param categoryId - UUID of the category.
+     * @return ResponseEntity<CategoryDetailsResponse> with Http status OK
+     * @throws CategoryNotFoundException
+     */
+    @CrossOrigin
+    @RequestMapping(method = RequestMethod.GET , path = "/category/{category_id}" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<CategoryDetailsResponse> getCategoryById(@PathVariable("category_id") final String categoryId) throws CategoryNotFoundException {
+
+        CategoryEntity categoryEntity = categoryService.getCategoryById(categoryId);
+
+        CategoryDetailsResponse categoryDetailsResponse = new CategoryDetailsResponse().id(UUID.fromString(categoryEntity.getUuid()))
+                .categoryName(categoryEntity.getCategoryName());
+
+        for (ItemEntity itemEntity : itemService.getItemsByCategory(categoryEntity.getUuid())) {
+            categoryDetailsResponse.addItemListItem(RestaurantController.toItemList(itemEntity));
+        }
+
+        return new ResponseEntity<CategoryDetailsResponse>(categoryDetailsResponse , HttpStatus.OK);
+    }
+
+    //No categories are returned as a response without the "categories" field.
+    private static CategoriesListResponse toCategoriesListResponse(final List<CategoryEntity> categoryEntityList) {
+
+        CategoriesListResponse categoriesListResponse = new CategoriesListResponse();
+
+        for (CategoryEntity categoryEntity : categoryEntityList) {
+            categoriesListResponse.addCategoriesItem(new CategoryListResponse().id(UUID.fromString(categoryEntity.getUuid())).categoryName(categoryEntity.getCategoryName()));
+        }
+
+        return categoriesListResponse;
+    }
+}
@@ -2,10 +2,15 @@ package com.upgrad.FoodOrderingApp.api.controller;
 
 import com.upgrad.FoodOrderingApp.api.model.*;
 import com.upgrad.FoodOrderingApp.service.businness.CustomerService;
+import com.upgrad.FoodOrderingApp.service.businness.CustomerSession;
+import com.upgrad.FoodOrderingApp.service.businness.LoginAttemptLimiter;
+import com.upgrad.FoodOrderingApp.service.businness.PasswordHashingExecutor;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
 import com.upgrad.FoodOrderingApp.service.exception.AuthenticationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import com.upgrad.FoodOrderingApp.service.exception.LoginThrottledException;
+import com.upgrad.FoodOrderingApp.service.exception.ServiceBusyException;
 import com.upgrad.FoodOrderingApp.service.exception.SignUpRestrictedException;
 import com.upgrad.FoodOrderingApp.service.exception.UpdateCustomerException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +19,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
@@ -27,16 +34,23 @@ public class CustomerController {
     @Autowired
     private CustomerService customerBusinessService;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private LoginAttemptLimiter loginAttemptLimiter;
+
     /**
-     * A controller method for user signup.
+     * A controller method for user signup. The password is hashed on the PasswordHashingExecutor and the customer saved once it is done, so the request is completed asynchronously.
      * @param signupCustomerRequest - This argument contains all the attributes required to store user details in the database.
-     * @return - ResponseEntity<SignupUserResponse> type object along with Http status CREATED.
+     * @return - DeferredResult of ResponseEntity<SignupUserResponse> type object along with Http status CREATED.
      * @throws SignUpRestrictedException - The endpoint will throw this exception if any criteria doesn't match with the given endpoint definition.
+     * @throws ServiceBusyException - The endpoint will throw this exception when the hashing queue is full, or the request is not completed in time.
      */
 
     @CrossOrigin
     @RequestMapping(method = RequestMethod.POST , path = "/signup" , consumes = MediaType.APPLICATION_JSON_UTF8_VALUE , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<SignupCustomerResponse> signup(final SignupCustomerRequest signupCustomerRequest) throws SignUpRestrictedException {
+    public DeferredResult<ResponseEntity<SignupCustomerResponse>> signup(final SignupCustomerRequest signupCustomerRequest) throws SignUpRestrictedException, ServiceBusyException {
 
         final CustomerEntity customerEntity = new CustomerEntity();
 
@@ -52,25 +66,56 @@ public class CustomerController {
             throw new SignUpRestrictedException("SGR-005", "Except last name all fields should be filled");
         }
 
-        final CustomerEntity createdCustomerEntity = customerBusinessService.saveCustomer(customerEntity);
+        customerBusinessService.validateSignup(customerEntity);
+
+        final DeferredResult<ResponseEntity<SignupCustomerResponse>> result = newDeferredResult();
+
+        passwordHashingExecutor.execute(() -> {
+            //A request that has already timed out is neither hashed nor saved.
+            if (result.isSetOrExpired()) {
+                return;
+            }
+            try {
+                customerBusinessService.encryptPassword(customerEntity);
+            } catch (Exception e) {
+                result.setErrorResult(e);
+                return;
+            }
+
+            passwordHashingExecutor.afterHashing(() -> {
+                if (result.isSetOrExpired()) {
+                    return;
+                }
+                try {
+                    final CustomerEntity createdCustomerEntity = customerBusinessService.createCustomer(customerEntity);
 
-        SignupCustomerResponse customerResponse =  new SignupCustomerResponse().id(createdCustomerEntity.getUuid()).status("CUSTOMER SUCCESSFULLY REGISTERED");
+                    SignupCustomerResponse customerResponse =  new SignupCustomerResponse().id(createdCustomerEntity.getUuid()).status("CUSTOMER SUCCESSFULLY REGISTERED");
 
-        return new ResponseEntity<SignupCustomerResponse>(customerResponse, HttpStatus.CREATED);
+                    result.setResult(new ResponseEntity<SignupCustomerResponse>(customerResponse, HttpStatus.CREATED));
+                } catch (Exception e) {
+                    result.setErrorResult(e);
+                }
+            });
+        });
+
+        return result;
 
     }
 
     /**
-     * A controller method for customer login.
+     * A controller method for customer login. The password is verified on the PasswordHashingExecutor and the session saved once it is done, so the request is completed asynchronously.
      * @param authorization - This argument requests the authorization in Base64 encoded format. (username:password)
-     * @return ResponseEntity<LoginResponse> type object along with Http status CREATED.
+     * @param request - The client address of this request is used to throttle login attempts. Behind a proxy listed in server.tomcat.internal-proxies it is taken from X-Forwarded-For.
+     * @return DeferredResult of ResponseEntity<LoginResponse> type object along with Http status CREATED.
      * @throws AuthenticationFailedException
+     * @throws ServiceBusyException - The endpoint will throw this exception when the hashing queue is full, or the request is not completed in time.
+     * @throws LoginThrottledException - The endpoint will throw this exception when the email or client has made too many attempts.
      */
 
 
     @CrossOrigin
     @RequestMapping(method = RequestMethod.POST , path = "/login" , consumes = MediaType.APPLICATION_JSON_UTF8_VALUE , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<LoginResponse> login(@RequestHeader("authorization") final String authorization) throws AuthenticationFailedException {
+    public DeferredResult<ResponseEntity<LoginResponse>> login(@RequestHeader("authorization") final String authorization, final HttpServletRequest request) throws AuthenticationFailedException, ServiceBusyException, LoginThrottledException {
 
         byte[] decode = Base64.getDecoder().decode(authorization.split("Basic ")[1]);
         String decodedText = new String(decode);
@@ -83,23 +128,54 @@ public class CustomerController {
             throw new AuthenticationFailedException("ATH-003" , "Incorrect format of decoded customer name and password");
         }
 
-        CustomerAuthEntity createdCustomerAuthEntity = customerBusinessService.authenticate(decodedArray[0], decodedArray[1]);
-        CustomerEntity customer = createdCustomerAuthEntity.getCustomerId();
-
-        LoginResponse loginResponse = new LoginResponse().id(customer.getUuid()).firstName(customer.getFirstname()).lastName(customer.getLastname())
-                .emailAddress(customer.getEmail()).contactNumber(customer.getContactNumber()).message("LOGGED IN SUCCESSFULLY");
-
-        List<String> header = new ArrayList<>();
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("access-token", createdCustomerAuthEntity.getAccessToken());
-        headers.setAccessControlExposeHeaders(header);
-        return new ResponseEntity<LoginResponse>(loginResponse, headers, HttpStatus.OK);
+        loginAttemptLimiter.checkAttempt(decodedArray[0], request.getRemoteAddr());
+
+        final CustomerEntity customerEntity = customerBusinessService.getCustomerForLogin(decodedArray[0], decodedArray[1]);
+
+        final DeferredResult<ResponseEntity<LoginResponse>> result = newDeferredResult();
+
+        passwordHashingExecutor.execute(() -> {
+            //A request that has already timed out is neither verified nor logged in.
+            if (result.isSetOrExpired()) {
+                return;
+            }
+            final String[] rehash;
+            try {
+                rehash = customerBusinessService.verifyPassword(customerEntity, decodedArray[1]);
+            } catch (Exception e) {
+                result.setErrorResult(e);
+                return;
+            }
+
+            passwordHashingExecutor.afterHashing(() -> {
+                if (result.isSetOrExpired()) {
+                    return;
+                }
+                try {
+                    CustomerAuthEntity createdCustomerAuthEntity = customerBusinessService.createCustomerAuth(customerEntity, rehash);
+                    CustomerEntity customer = createdCustomerAuthEntity.getCustomerId();
+
+                    LoginResponse loginResponse = new LoginResponse().id(customer.getUuid()).firstName(customer.getFirstname()).lastName(customer.getLastname())
+                            .emailAddress(customer.getEmail()).contactNumber(customer.getContactNumber()).message("LOGGED IN SUCCESSFULLY");
+
+                    List<String> header = new ArrayList<>();
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.add("access-token", createdCustomerAuthEntity.getAccessToken());
+                    headers.setAccessControlExposeHeaders(header);
+                    result.setResult(new ResponseEntity<LoginResponse>(loginResponse, headers, HttpStatus.OK));
+                } catch (Exception e) {
+                    result.setErrorResult(e);
+                }
+            });
+        });
+
+        return result;
 
     }
 
     /**
      * A controller method for customer logout.
-     * @param authorization - This argument requests the access-token of already logged-in customer.
+     * @param customerSession - Session of the logged-in customer, resolved from the access-token in the authorization header.
      * @return ResponseEntity<LogoutResponse> type object along with Http status OK.
      * @throws AuthorizationFailedException - The endpoint will throw this exception when details entered are incorrect or customer already logged-out or session expired.
      */
@@ -107,10 +183,9 @@ public class CustomerController {
 
     @CrossOrigin
     @RequestMapping(method = RequestMethod.POST , path = "/logout" , consumes = MediaType.APPLICATION_JSON_UTF8_VALUE , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<LogoutResponse> logout(@RequestHeader("authorization") final String authorization) throws AuthorizationFailedException {
+    public ResponseEntity<LogoutResponse> logout(final CustomerSession customerSession) throws AuthorizationFailedException {
 
-        String auth = "Bearer" + " " + authorization;
-        CustomerAuthEntity customerAuthEntity = customerBusinessService.logout(auth);
+        CustomerAuthEntity customerAuthEntity = customerBusinessService.logout(customerSession);
 
         LogoutResponse logoutResponse = new LogoutResponse().id(customerAuthEntity.getCustomerId().getUuid()).message("LOGGED OUT SUCCESSFULLY");
         return new ResponseEntity<LogoutResponse>(logoutResponse, HttpStatus.OK);
@@ -120,7 +195,7 @@ public class CustomerController {
 
     /**
      * A controller method to update user details(Firstname , Lastname)
-     * @param authorization -This argument requests the access-token of already logged-in customer.
+     * @param customerSession - Session of the logged-in customer, resolved from the access-token in the authorization header.
      * @param updateCustomerRequest - This argument contains all the attributes required to update user details in the database.
      * @return ResponseEntity<UpdateCustomerResponse> type along with Http status OK.
      * @throws AuthorizationFailedException - The endpoint will throw this exception when details entered are incorrect or customer already logged-out or session expired.
@@ -128,14 +203,14 @@ public class CustomerController {
      */
     @CrossOrigin
     @RequestMapping(method = RequestMethod.PUT , path = "/" , consumes = MediaType.APPLICATION_JSON_UTF8_VALUE , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<UpdateCustomerResponse> update(@RequestHeader("authorization") final String authorization , UpdateCustomerRequest updateCustomerRequest) throws AuthorizationFailedException, UpdateCustomerException {
+    public ResponseEntity<UpdateCustomerResponse> update(final CustomerSession customerSession , UpdateCustomerRequest updateCustomerRequest) throws AuthorizationFailedException, UpdateCustomerException {
 
         CustomerEntity customerEntity = new CustomerEntity();
 
         customerEntity.setFirstname(updateCustomerRequest.getFirstName());
         customerEntity.setLastname(updateCustomerRequest.getLastName());
 
-        CustomerEntity updatedCustomerEntity = customerBusinessService.updateCustomer(authorization , customerEntity);
+        CustomerEntity updatedCustomerEntity = customerBusinessService.updateCustomer(customerSession , customerEntity);
 
         UpdateCustomerResponse updateResponse = new UpdateCustomerResponse().id(updatedCustomerEntity.getUuid()).firstName(updatedCustomerEntity.getFirstname()).lastName(updatedCustomerEntity.getLastname()).status("CUSTOMER DETAILS UPDATED SUCCESSFULLY");
         return new ResponseEntity<UpdateCustomerResponse>(updateResponse, HttpStatus.OK);
@@ -143,28 +218,63 @@ public class CustomerController {
     }
 
     /**
-     *
-     * @param authorization - This argument requests the access-token of already logged-in customer.
+     * A controller method to update the password. The old password is verified and the new one hashed on the PasswordHashingExecutor, and the password saved once it is done, so the request is completed asynchronously.
+     * @param customerSession - Session of the logged-in customer, resolved from the access-token in the authorization header.
      * @param updatePasswordRequest - This argument requests all the attributes required to update password in database.
-     * @return ResponseEntity<UpdatePasswordResponse> type along with Http status OK.
+     * @return DeferredResult of ResponseEntity<UpdatePasswordResponse> type along with Http status OK.
      * @throws AuthorizationFailedException - The endpoint will throw this exception when details entered are incorrect or customer already logged-out or session expired.
      * @throws UpdateCustomerException - The endpoint will throw this exception if any criteria doesn't match with the given endpoint definition.
+     * @throws ServiceBusyException - The endpoint will throw this exception when the hashing queue is full, or the request is not completed in time.
      */
     @CrossOrigin
     @RequestMapping(method = RequestMethod.PUT , path = "/password" , consumes = MediaType.APPLICATION_JSON_UTF8_VALUE , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<UpdatePasswordResponse> changePassword(@RequestHeader("authorization") final String authorization , UpdatePasswordRequest updatePasswordRequest) throws AuthorizationFailedException , UpdateCustomerException {
+    public DeferredResult<ResponseEntity<UpdatePasswordResponse>> changePassword(final CustomerSession customerSession , UpdatePasswordRequest updatePasswordRequest) throws AuthorizationFailedException , UpdateCustomerException, ServiceBusyException {
 
         CustomerEntity customerEntity = new CustomerEntity();
         customerEntity.setPassword(updatePasswordRequest.getNewPassword());
 
-        String oldPassword = updatePasswordRequest.getOldPassword();
-
-        CustomerEntity updatePassword = customerBusinessService.updateCustomerPassword(authorization , customerEntity , oldPassword);
-
-        UpdatePasswordResponse updatePasswordResponse = new UpdatePasswordResponse().id(updatePassword.getUuid()).status("CUSTOMER PASSWORD UPDATED SUCCESSFULLY");
-        return new ResponseEntity<UpdatePasswordResponse>(updatePasswordResponse , HttpStatus.OK);
+        final String oldPassword = updatePasswordRequest.getOldPassword();
+
+        final CustomerEntity customer = customerBusinessService.getCustomerForPasswordUpdate(customerSession , customerEntity , oldPassword);
+
+        final DeferredResult<ResponseEntity<UpdatePasswordResponse>> result = newDeferredResult();
+
+        passwordHashingExecutor.execute(() -> {
+            //A request that has already timed out is neither hashed nor saved.
+            if (result.isSetOrExpired()) {
+                return;
+            }
+            final String[] encrypted;
+            try {
+                encrypted = customerBusinessService.encryptNewPassword(customer, oldPassword, customerEntity.getPassword());
+            } catch (Exception e) {
+                result.setErrorResult(e);
+                return;
+            }
+
+            passwordHashingExecutor.afterHashing(() -> {
+                if (result.isSetOrExpired()) {
+                    return;
+                }
+                try {
+                    CustomerEntity updatePassword = customerBusinessService.changePassword(customer, encrypted);
+
+                    UpdatePasswordResponse updatePasswordResponse = new UpdatePasswordResponse().id(updatePassword.getUuid()).status("CUSTOMER PASSWORD UPDATED SUCCESSFULLY");
+                    result.setResult(new ResponseEntity<UpdatePasswordResponse>(updatePasswordResponse , HttpStatus.OK));
+                } catch (Exception e) {
+                    result.setErrorResult(e);
+                }
+            });
+        });
+
+        return result;
 
     }
 
-
-}
\ No newline at end of file
+    //A DeferredResult that answers SBE-001 when the hashing and database work is not done within the timeout.
+    private <T> DeferredResult<T> newDeferredResult() {
+        final DeferredResult<T> result = new DeferredResult<>(passwordHashingExecutor.getTimeoutMillis());
+        result.onTimeout(() -> result.setErrorResult(passwordHashingExecutor.timedOut()));
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package com.upgrad.FoodOrderingApp.api.controller;
+
+import com.upgrad.FoodOrderingApp.api.config.ConditionalGet;
+import com.upgrad.FoodOrderingApp.api.model.ItemListResponse;
+import com.upgrad.FoodOrderingApp.service.businness.ItemService;
+import com.upgrad.FoodOrderingApp.service.businness.RestaurantService;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.exception.RestaurantNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.annotation.PostConstruct;
+
+@RestController
+public class ItemController {
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Value("${foodorderingapp.http-cache.popular-items-max-age-seconds:300}")
+    private int popularItemsMaxAgeSeconds;
+
+    private ConditionalGet popularItemsConditionalGet;
+
+    @PostConstruct
+    public void init() {
+        popularItemsConditionalGet = new ConditionalGet(popularItemsMaxAgeSeconds);
+    }
+
+    /**
+     * A controller method to get the items most often ordered from a restaurant.
+     * @param restaurantId - UUID of the restaurant.
+     * @param webRequest - Request, answered with Not Modified when the client's copy is current.
+     * @return ResponseEntity<ItemListResponse> with Http status OK, or null for Http status NOT_MODIFIED
+     * @throws RestaurantNotFoundException
+     */
+    @CrossOrigin
+    @RequestMapping(method = RequestMethod.GET , path = "/item/restaurant/{restaurant_id}" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<ItemListResponse> getItemsByPopularity(@PathVariable("restaurant_id") final String restaurantId ,
+                                                                 final ServletWebRequest webRequest) throws RestaurantNotFoundException {
+
+        //An unknown restaurant has no version, and goes on to be reported as not found.
+        if (popularItemsConditionalGet.isNotModified(webRequest , itemService.getPopularItemsVersion(restaurantId))) {
+            return null;
+        }
+
+        RestaurantEntity restaurantEntity = restaurantService.restaurantByUUID(restaurantId);
+
+        ItemListResponse itemListResponse = new ItemListResponse();
+        for (ItemEntity itemEntity : itemService.getItemsByPopularity(restaurantEntity)) {
+            itemListResponse.add(RestaurantController.toItemList(itemEntity));
+        }
+
+        return new ResponseEntity<ItemListResponse>(itemListResponse , HttpStatus.OK);
+    }
+}
@@ -0,0 +1,41 @@
+package com.upgrad.FoodOrderingApp.api.controller;
+
+import com.upgrad.FoodOrderingApp.api.model.CouponDetailsResponse;
+import com.upgrad.FoodOrderingApp.service.businness.CustomerSession;
+import com.upgrad.FoodOrderingApp.service.businness.OrderService;
+import com.upgrad.FoodOrderingApp.service.entity.CouponEntity;
+import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import com.upgrad.FoodOrderingApp.service.exception.CouponNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+public class OrderController {
+
+    @Autowired
+    private OrderService orderService;
+
+    /**
+     * A controller method to get a coupon by its name.
+     * @param couponName - Name of the coupon.
+     * @param customerSession - Session of the logged-in customer, resolved from the access-token in the authorization header.
+     * @return ResponseEntity<CouponDetailsResponse> with Http status OK.
+     * @throws AuthorizationFailedException
+     * @throws CouponNotFoundException
+     */
+    @CrossOrigin
+    @RequestMapping(method = RequestMethod.GET , path = "/order/coupon/{coupon_name}" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<CouponDetailsResponse> getCouponByCouponName(@PathVariable("coupon_name") final String couponName , final CustomerSession customerSession) throws AuthorizationFailedException, CouponNotFoundException {
+
+        CouponEntity couponEntity = orderService.getCouponByCouponName(couponName);
+
+        CouponDetailsResponse couponDetailsResponse = new CouponDetailsResponse().id(UUID.fromString(couponEntity.getUuid()))
+                .couponName(couponEntity.getCouponName()).percent(couponEntity.getPercent());
+        return new ResponseEntity<CouponDetailsResponse>(couponDetailsResponse , HttpStatus.OK);
+    }
+}
@@ -0,0 +1,69 @@
+package com.upgrad.FoodOrderingApp.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.FoodOrderingApp.api.config.ConditionalGet;
+import com.upgrad.FoodOrderingApp.api.config.PreSerializedJson;
+import com.upgrad.FoodOrderingApp.api.model.PaymentListResponse;
+import com.upgrad.FoodOrderingApp.api.model.PaymentResponse;
+import com.upgrad.FoodOrderingApp.service.businness.PaymentService;
+import com.upgrad.FoodOrderingApp.service.entity.PaymentEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+public class PaymentController {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${foodorderingapp.http-cache.payment-max-age-seconds:3600}")
+    private int paymentMaxAgeSeconds;
+
+    private PreSerializedJson<List<PaymentEntity>> paymentMethodsJson;
+
+    private ConditionalGet paymentMethodsConditionalGet;
+
+    @PostConstruct
+    public void init() {
+        paymentMethodsJson = new PreSerializedJson<>(objectMapper, PaymentController::toPaymentListResponse);
+        paymentMethodsConditionalGet = new ConditionalGet(paymentMaxAgeSeconds);
+    }
+
+    /**
+     * A controller method to get all the payment methods.
+     * @param webRequest - Request, answered with Not Modified when the client's copy is current.
+     * @return ResponseEntity with the PaymentListResponse as pre-serialized JSON and Http status OK, or null for Http status NOT_MODIFIED.
+     */
+    @CrossOrigin
+    @RequestMapping(method = RequestMethod.GET , path = "/payment" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<byte[]> getAllPaymentMethods(final ServletWebRequest webRequest) {
+
+        if (paymentMethodsConditionalGet.isNotModified(webRequest , paymentService.getPaymentMethodsVersion())) {
+            return null;
+        }
+
+        return paymentMethodsJson.toResponse(paymentService.getAllPaymentMethods());
+    }
+
+    private static PaymentListResponse toPaymentListResponse(final List<PaymentEntity> paymentEntityList) {
+
+        PaymentListResponse paymentListResponse = new PaymentListResponse();
+
+        for (PaymentEntity paymentEntity : paymentEntityList) {
+            paymentListResponse.addPaymentMethodsItem(new PaymentResponse().id(UUID.fromString(paymentEntity.getUuid())).paymentName(paymentEntity.getPaymentName()));
+        }
+
+        return paymentListResponse;
+    }
+}
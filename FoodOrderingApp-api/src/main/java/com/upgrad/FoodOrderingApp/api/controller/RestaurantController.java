@@ -0,0 +1,358 @@
+package com.upgrad.FoodOrderingApp.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.FoodOrderingApp.api.config.ConditionalGet;
+import com.upgrad.FoodOrderingApp.api.config.RestaurantDetailsJson;
+import com.upgrad.FoodOrderingApp.api.model.*;
+import com.upgrad.FoodOrderingApp.service.businness.AddressService;
+import com.upgrad.FoodOrderingApp.service.businness.CategoryService;
+import com.upgrad.FoodOrderingApp.service.businness.CompletionService;
+import com.upgrad.FoodOrderingApp.service.businness.CustomerSession;
+import com.upgrad.FoodOrderingApp.service.businness.NearbyRestaurant;
+import com.upgrad.FoodOrderingApp.service.businness.PriceBand;
+import com.upgrad.FoodOrderingApp.service.businness.RestaurantDetails;
+import com.upgrad.FoodOrderingApp.service.businness.RestaurantFacets;
+import com.upgrad.FoodOrderingApp.service.businness.RestaurantFilter;
+import com.upgrad.FoodOrderingApp.service.businness.RestaurantService;
+import com.upgrad.FoodOrderingApp.service.common.ItemType;
+import com.upgrad.FoodOrderingApp.service.common.RestaurantSortOrder;
+import com.upgrad.FoodOrderingApp.service.common.SortDirection;
+import com.upgrad.FoodOrderingApp.service.entity.*;
+import com.upgrad.FoodOrderingApp.service.exception.AddressNotFoundException;
+import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import com.upgrad.FoodOrderingApp.service.exception.CategoryNotFoundException;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidRatingException;
+import com.upgrad.FoodOrderingApp.service.exception.RestaurantNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+public class RestaurantController {
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CompletionService completionService;
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${foodorderingapp.restaurant-details-cache.max-size:2000}")
+    private int restaurantDetailsCacheSize;
+
+    @Value("${foodorderingapp.http-cache.restaurant-max-age-seconds:0}")
+    private int restaurantMaxAgeSeconds;
+
+    private RestaurantDetailsJson restaurantDetailsJson;
+
+    private ConditionalGet restaurantsConditionalGet;
+
+    @PostConstruct
+    public void init() {
+        restaurantDetailsJson = new RestaurantDetailsJson(objectMapper, RestaurantController::toRestaurantDetailsResponse, restaurantDetailsCacheSize);
+        restaurantsConditionalGet = new ConditionalGet(restaurantMaxAgeSeconds);
+    }
+
+    /**
+     * A controller method to get all restaurants, highest rating first unless another order is asked for. Every order is
+     * kept sorted in the in-memory catalog, so no request sorts.
+     * @param sortBy - RATING, PRICE, CUSTOMERS_RATED or NAME. Omitted for RATING.
+     * @param order - ASC or DESC. Omitted for the usual direction of the sort: highest rating, lowest price, most
+     *              customers rated, or name from A to Z first.
+     * @param webRequest - Request, answered with Not Modified when the client's copy is current.
+     * @return ResponseEntity<RestaurantListResponse> with Http status OK, or null for Http status NOT_MODIFIED
+     */
+    @CrossOrigin
+    @RequestMapping(method = RequestMethod.GET , path = "/restaurant" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<RestaurantListResponse> getAllRestaurants(@RequestParam(value = "sort_by" , required = false) final RestaurantSortOrder sortBy ,
+                                                                    @RequestParam(value = "order" , required = false) final SortDirection order ,
+                                                                    final ServletWebRequest webRequest) {
+
+        if (restaurantsConditionalGet.isNotModified(webRequest , restaurantService.restaurantsVersion())) {
+            return null;
+        }
+
+        return new ResponseEntity<RestaurantListResponse>(toRestaurantListResponse(restaurantService.restaurantsSortedBy(sortBy , order)) , HttpStatus.OK);
+    }
+
+    /**
+     * A controller method to get the restaurants whose name contains the given text, in any case.
+     * @param restaurantName - Part of the name of the restaurant.
+     * @return ResponseEntity<RestaurantListResponse> with Http status OK
+     * @throws RestaurantNotFoundException
+     */
+    @CrossOrigin
+    @RequestMapping(method = RequestMethod.GET , path = "/restaurant/name/{restaurant_name}" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<RestaurantListResponse> getRestaurantsByName(@PathVariable("restaurant_name") final String restaurantName) throws RestaurantNotFoundException {
+
+        return new ResponseEntity<RestaurantListResponse>(toRestaurantListResponse(restaurantService.restaurantsByName(restaurantName)) , HttpStatus.OK);
+    }
+
+    /**
+     * A controller method to get the restaurants of a category.
+     * @param categoryId - UUID of the category.
+     * @return ResponseEntity<RestaurantListResponse> with Http status OK
+     * @throws CategoryNotFoundException
+     */
+    @CrossOrigin
+    @RequestMapping(method = RequestMethod.GET , path = "/restaurant/category/{category_id}" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<RestaurantListResponse> getRestaurantsByCategory(@PathVariable("category_id") final String categoryId) throws CategoryNotFoundException {
+
+        return new ResponseEntity<RestaurantListResponse>(toRestaurantListResponse(restaurantService.restaurantByCategory(categoryId)) , HttpStatus.OK);
+    }
+
+    /**
+     * A controller method to filter restaurants on any combination of categories, item types, price bands and a minimum
+     * rating, with the number of restaurants each value of each facet would match. Values of one facet are alternatives;
+     * the facets all apply.
+     * @param categoryIds - UUIDs of the categories.
+     * @param itemTypes - VEG or NON_VEG, for restaurants serving items of the type.
+     * @param priceBands - Indexes of the bands of average price for two, as listed in the response.
+     * @param minRating - Minimum customer rating.
+     * @return ResponseEntity<RestaurantFilterResponse> with Http status OK
+     * @throws CategoryNotFoundException
+     */
+    @CrossOrigin
+    @RequestMapping(method = RequestMethod.GET , path = "/restaurant/filter" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<RestaurantFilterResponse> getRestaurantsByFilter(@RequestParam(value = "category_id" , required = false) final List<String> categoryIds ,
+                                                                           @RequestParam(value = "item_type" , required = false) final List<ItemType> itemTypes ,
+                                                                           @RequestParam(value = "price_band" , required = false) final List<Integer> priceBands ,
+                                                                           @RequestParam(value = "min_rating" , required = false) final Double minRating) throws CategoryNotFoundException {
+
+        RestaurantFacets restaurantFacets = restaurantService.restaurantsByFilter(new RestaurantFilter(categoryIds , itemTypes , priceBands , minRating));
+
+        RestaurantFilterResponse restaurantFilterResponse = new RestaurantFilterResponse().restaurants(toRestaurantLists(restaurantFacets.getRestaurants()))
+                .categories(new ArrayList<>()).itemTypes(new ArrayList<>()).priceBands(new ArrayList<>()).ratings(new ArrayList<>());
+
+        for (Map.Entry<CategoryEntity, Integer> categoryCount : restaurantFacets.getCategoryCounts().entrySet()) {
+            restaurantFilterResponse.addCategoriesItem(new FacetCount().value(categoryCount.getKey().getUuid())
+                    .label(categoryCount.getKey().getCategoryName()).count(categoryCount.getValue()));
+        }
+        for (Map.Entry<ItemType, Integer> itemTypeCount : restaurantFacets.getItemTypeCounts().entrySet()) {
+            restaurantFilterResponse.addItemTypesItem(new FacetCount().value(itemTypeCount.getKey().name())
+                    .label(itemTypeCount.getKey().name()).count(itemTypeCount.getValue()));
+        }
+        for (Map.Entry<PriceBand, Integer> priceBandCount : restaurantFacets.getPriceBandCounts().entrySet()) {
+            PriceBand priceBand = priceBandCount.getKey();
+            String label = priceBand.getMaxPrice() == null ? priceBand.getMinPrice() + "+" : priceBand.getMinPrice() + "-" + (priceBand.getMaxPrice() - 1);
+            restaurantFilterResponse.addPriceBandsItem(new FacetCount().value(String.valueOf(priceBand.getIndex())).label(label).count(priceBandCount.getValue()));
+        }
+        for (Map.Entry<Double, Integer> ratingCount : restaurantFacets.getRatingCounts().entrySet()) {
+            restaurantFilterResponse.addRatingsItem(new FacetCount().value(String.valueOf(ratingCount.getKey()))
+                    .label(ratingCount.getKey() + "+").count(ratingCount.getValue()));
+        }
+
+        return new ResponseEntity<RestaurantFilterResponse>(restaurantFilterResponse , HttpStatus.OK);
+    }
+
+    /**
+     * A controller method to get the restaurants nearest to a saved address of the customer, nearest first. They are
+     * found in the grid of restaurant locations kept in the in-memory catalog, scanning only the cells around the address.
+     * @param addressId - UUID of the saved address.
+     * @param limit - Maximum number of restaurants. Omitted for the default.
+     * @param customerSession - Session of the logged-in customer, resolved from the access-token in the authorization header.
+     * @return ResponseEntity<NearbyRestaurantListResponse> with Http status OK
+     * @throws AuthorizationFailedException
+     * @throws AddressNotFoundException
+     */
+    @CrossOrigin
+    @RequestMapping(method = RequestMethod.GET , path = "/restaurant/nearby/{address_id}" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<NearbyRestaurantListResponse> getRestaurantsNearAddress(@PathVariable("address_id") final String addressId ,
+                                                                                  @RequestParam(value = "limit" , required = false) final Integer limit ,
+                                                                                  final CustomerSession customerSession) throws AuthorizationFailedException, AddressNotFoundException {
+
+        AddressEntity addressEntity = addressService.getAddressByUuid(addressId , customerSession);
+
+        List<NearbyRestaurant> nearbyRestaurants = restaurantService.restaurantsNear(addressEntity , limit);
+
+        List<RestaurantEntity> restaurantEntityList = new ArrayList<>(nearbyRestaurants.size());
+        for (NearbyRestaurant nearbyRestaurant : nearbyRestaurants) {
+            restaurantEntityList.add(nearbyRestaurant.getRestaurant());
+        }
+        List<RestaurantList> restaurantLists = toRestaurantLists(restaurantEntityList);
+
+        NearbyRestaurantListResponse nearbyRestaurantListResponse = new NearbyRestaurantListResponse().restaurants(new ArrayList<>());
+        for (int i = 0; i < restaurantLists.size(); i++) {
+            nearbyRestaurantListResponse.addRestaurantsItem(new NearbyRestaurantList().restaurant(restaurantLists.get(i))
+                    .distanceKm(BigDecimal.valueOf(nearbyRestaurants.get(i).getDistanceKm()).setScale(2 , RoundingMode.HALF_UP)));
+        }
+
+        return new ResponseEntity<NearbyRestaurantListResponse>(nearbyRestaurantListResponse , HttpStatus.OK);
+    }
+
+    /**
+     * A controller method to get a restaurant with its categories and the items it serves in each of them. The whole
+     * response comes from one RestaurantDetails, read from the catalog or, for a restaurant the catalog does not have
+     * yet, loaded from the database in three statements. The serialized response, plain and gzipped, is kept until the
+     * restaurant changes, and the gzipped form is sent to clients that accept it.
+     * @param restaurantId - UUID of the restaurant.
+     * @param acceptEncoding - Content codings the client accepts.
+     * @return ResponseEntity with the RestaurantDetailsResponse as pre-serialized JSON and Http status OK
+     * @throws RestaurantNotFoundException
+     */
+    @CrossOrigin
+    @RequestMapping(method = RequestMethod.GET , path = "/restaurant/{restaurant_id}" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<byte[]> getRestaurantById(@PathVariable("restaurant_id") final String restaurantId ,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING , required = false) final String acceptEncoding) throws RestaurantNotFoundException {
+
+        return restaurantDetailsJson.toResponse(restaurantService.restaurantDetails(restaurantId) , acceptEncoding);
+    }
+
+    private static RestaurantDetailsResponse toRestaurantDetailsResponse(final RestaurantDetails restaurantDetails) {
+
+        RestaurantEntity restaurantEntity = restaurantDetails.getRestaurant();
+
+        List<CategoryList> categoryLists = new ArrayList<>(restaurantDetails.getItemsByCategory().size());
+
+        for (Map.Entry<CategoryEntity, List<ItemEntity>> categoryItems : restaurantDetails.getItemsByCategory().entrySet()) {
+
+            CategoryEntity categoryEntity = categoryItems.getKey();
+            List<ItemList> itemLists = new ArrayList<>(categoryItems.getValue().size());
+            for (ItemEntity itemEntity : categoryItems.getValue()) {
+                itemLists.add(toItemList(itemEntity));
+            }
+
+            categoryLists.add(new CategoryList().id(UUID.fromString(categoryEntity.getUuid())).categoryName(categoryEntity.getCategoryName()).itemList(itemLists));
+        }
+
+        RestaurantDetailsResponse restaurantDetailsResponse = new RestaurantDetailsResponse()
+                .id(UUID.fromString(restaurantEntity.getUuid()))
+                .restaurantName(restaurantEntity.getRestaurantName())
+                .photoURL(restaurantEntity.getPhotoUrl())
+                .customerRating(BigDecimal.valueOf(restaurantEntity.getCustomerRating()))
+                .averagePrice(restaurantEntity.getAveragePriceForTwo())
+                .numberCustomersRated(restaurantEntity.getNumber0fCustomersRated())
+                .address(toRestaurantAddress(restaurantEntity.getAddressId()))
+                .categories(categoryLists);
+        return restaurantDetailsResponse;
+    }
+
+    /**
+     * A controller method to add a customer's rating to a restaurant.
+     * @param restaurantId - UUID of the restaurant.
+     * @param customerRating - Rating from 1 to 5.
+     * @param customerSession - Session of the logged-in customer, resolved from the access-token in the authorization header.
+     * @return ResponseEntity<RestaurantUpdatedResponse> with Http status OK
+     * @throws AuthorizationFailedException
+     * @throws RestaurantNotFoundException
+     * @throws InvalidRatingException
+     */
+    @CrossOrigin
+    @RequestMapping(method = RequestMethod.PUT , path = "/restaurant/{restaurant_id}" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<RestaurantUpdatedResponse> updateRestaurantRating(@PathVariable("restaurant_id") final String restaurantId ,
+                                                                            @RequestParam(value = "customer_rating" , required = false) final Double customerRating ,
+                                                                            final CustomerSession customerSession) throws AuthorizationFailedException, RestaurantNotFoundException, InvalidRatingException {
+
+        RestaurantEntity restaurantEntity = restaurantService.restaurantByUUID(restaurantId);
+
+        restaurantService.updateRestaurantRating(restaurantEntity , customerRating);
+
+        RestaurantUpdatedResponse restaurantUpdatedResponse = new RestaurantUpdatedResponse().id(UUID.fromString(restaurantEntity.getUuid()))
+                .status("RESTAURANT RATING UPDATED SUCCESSFULLY");
+        return new ResponseEntity<RestaurantUpdatedResponse>(restaurantUpdatedResponse , HttpStatus.OK);
+    }
+
+    /**
+     * A controller method to complete the restaurant and item names typed into the search box, sent on every keystroke.
+     * The completions are served from the in-memory catalog without querying the database.
+     * @param prefix - Text typed so far.
+     * @param limit - Maximum number of restaurants and of items. Omitted for the default.
+     * @return ResponseEntity<CompletionListResponse> with Http status OK
+     */
+    @CrossOrigin
+    @RequestMapping(method = RequestMethod.GET , path = "/autocomplete" , produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<CompletionListResponse> getCompletions(@RequestParam(value = "prefix") final String prefix ,
+                                                                 @RequestParam(value = "limit" , required = false) final Integer limit) {
+
+        CompletionListResponse completionListResponse = new CompletionListResponse()
+                .restaurants(new ArrayList<>()).items(new ArrayList<>());
+
+        for (RestaurantEntity restaurantEntity : completionService.getRestaurantCompletions(prefix , limit)) {
+            completionListResponse.addRestaurantsItem(new Completion().id(UUID.fromString(restaurantEntity.getUuid())).name(restaurantEntity.getRestaurantName()));
+        }
+        for (ItemEntity itemEntity : completionService.getItemCompletions(prefix , limit)) {
+            completionListResponse.addItemsItem(new Completion().id(UUID.fromString(itemEntity.getUuid())).name(itemEntity.getItemName()));
+        }
+
+        return new ResponseEntity<CompletionListResponse>(completionListResponse , HttpStatus.OK);
+    }
+
+    private RestaurantListResponse toRestaurantListResponse(final List<RestaurantEntity> restaurantEntityList) {
+
+        return new RestaurantListResponse().restaurants(toRestaurantLists(restaurantEntityList));
+    }
+
+    private List<RestaurantList> toRestaurantLists(final List<RestaurantEntity> restaurantEntityList) {
+
+        List<RestaurantList> restaurantLists = new ArrayList<>(restaurantEntityList.size());
+
+        for (RestaurantEntity restaurantEntity : restaurantEntityList) {
+
+            //The categories of a restaurant are listed by name, separated by commas.
+            StringBuilder categories = new StringBuilder();
+            for (CategoryEntity categoryEntity : categoryService.getCategoriesByRestaurant(restaurantEntity.getUuid())) {
+                if (categories.length() > 0) {
+                    categories.append(", ");
+                }
+                categories.append(categoryEntity.getCategoryName());
+            }
+
+            restaurantLists.add(new RestaurantList()
+                    .id(UUID.fromString(restaurantEntity.getUuid()))
+                    .restaurantName(restaurantEntity.getRestaurantName())
+                    .photoURL(restaurantEntity.getPhotoUrl())
+                    .customerRating(BigDecimal.valueOf(restaurantEntity.getCustomerRating()))
+                    .averagePrice(restaurantEntity.getAveragePriceForTwo())
+                    .numberCustomersRated(restaurantEntity.getNumber0fCustomersRated())
+                    .address(toRestaurantAddress(restaurantEntity.getAddressId()))
+                    .categories(categories.toString()));
+        }
+
+        return restaurantLists;
+    }
+
+    private static RestaurantDetailsResponseAddress toRestaurantAddress(final AddressEntity addressEntity) {
+
+        RestaurantDetailsResponseAddress address = new RestaurantDetailsResponseAddress()
+                .id(UUID.fromString(addressEntity.getUuid()))
+                .flatBuildingName(addressEntity.getFlatBuilNumber())
+                .locality(addressEntity.getLocality())
+                .city(addressEntity.getCity())
+                .pincode(addressEntity.getPincode());
+
+        StateEntity stateEntity = addressEntity.getStateId();
+        if (stateEntity != null) {
+            address.setState(new RestaurantDetailsResponseAddressState().id(UUID.fromString(stateEntity.getUuid())).stateName(stateEntity.getStateName()));
+        }
+        return address;
+    }
+
+    static ItemList toItemList(final ItemEntity itemEntity) {
+
+        ItemType itemType = ItemType.fromValue(itemEntity.getType());
+
+        return new ItemList().id(UUID.fromString(itemEntity.getUuid())).itemName(itemEntity.getItemName()).price(itemEntity.getPrice())
+                .itemType(itemType == null ? null : ItemList.ItemTypeEnum.fromValue(itemType.name()));
+    }
+}
@@ -487,3 +487,6 @@ INSERT INTO RESTAURANT_ITEM(item_id,restaurant_id) VALUES(99,8);
 INSERT INTO RESTAURANT_ITEM(item_id,restaurant_id) VALUES(100,5);
 INSERT INTO RESTAURANT_ITEM(item_id,restaurant_id) VALUES(101,6);
 INSERT INTO RESTAURANT_ITEM(item_id,restaurant_id) VALUES(102,7);
+-- ADDRESS and CUSTOMER_ADDRESS ids are allocated by the application 50 at a time. This runs after the rows above, which refer to the ids 1 to 12.
+ALTER SEQUENCE address_id_seq INCREMENT BY 50;
+ALTER SEQUENCE customer_address_id_seq INCREMENT BY 50;
@@ -0,0 +1,5 @@
+-- Adds the hashed access-token lookup column to an existing CUSTOMER_AUTH table and backfills it. Safe to run more than once.
+ALTER TABLE CUSTOMER_AUTH ADD COLUMN IF NOT EXISTS access_token_digest CHAR(64);
+UPDATE CUSTOMER_AUTH SET access_token_digest = encode(sha256(convert_to(access_token, 'UTF8')), 'hex') WHERE access_token IS NOT NULL AND access_token_digest IS NULL;
+CREATE INDEX IF NOT EXISTS CUSTOMER_AUTH_ACCESS_TOKEN_DIGEST_IDX ON CUSTOMER_AUTH(access_token_digest);
+DROP INDEX IF EXISTS CUSTOMER_AUTH_ACCESS_TOKEN_IDX;
@@ -0,0 +1,4 @@
+-- Adds the coordinates of addresses to an existing database; the address location job fills them in from the pincode centroids. Safe to run more than once.
+ALTER TABLE ADDRESS ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE ADDRESS ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+CREATE INDEX IF NOT EXISTS ADDRESS_UNLOCATED_PINCODE_IDX ON ADDRESS(pincode) WHERE latitude IS NULL;
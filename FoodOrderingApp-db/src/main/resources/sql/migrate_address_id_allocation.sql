@@ -0,0 +1,3 @@
+-- Lets the application allocate ADDRESS and CUSTOMER_ADDRESS ids 50 at a time, as their entities expect. Safe to run more than once.
+ALTER SEQUENCE address_id_seq INCREMENT BY 50;
+ALTER SEQUENCE customer_address_id_seq INCREMENT BY 50;
@@ -0,0 +1,5 @@
+-- Adds the indexes used by the soft delete and the background purge of addresses to an existing database. Safe to run more than once.
+UPDATE ADDRESS SET active = 1 WHERE active IS NULL;
+CREATE INDEX IF NOT EXISTS ADDRESS_INACTIVE_IDX ON ADDRESS(id) WHERE active = 0;
+CREATE INDEX IF NOT EXISTS ORDERS_ADDRESS_ID_IDX ON ORDERS(address_id);
+CREATE INDEX IF NOT EXISTS RESTAURANT_ADDRESS_ID_IDX ON RESTAURANT(address_id);
@@ -0,0 +1,24 @@
+-- Converts an existing, unpartitioned CUSTOMER_AUTH table into the table partitioned by day on login_at that tables.sql creates, keeping every row and the id sequence. Runs after migrate_access_token_digest.sql. Safe to run more than once: a table that is already partitioned is left alone.
+-- Every row lands in the default partition; CustomerAuthPartitionJob moves the rows of the days it creates partitions for and purges the expired rest.
+-- The script is a single DO block, so the migrate profile only ends statements at a line holding a single slash.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE relname = 'customer_auth' AND relkind = 'r') THEN
+        ALTER TABLE CUSTOMER_AUTH RENAME TO CUSTOMER_AUTH_UNPARTITIONED;
+        ALTER TABLE CUSTOMER_AUTH_UNPARTITIONED RENAME CONSTRAINT customer_auth_pkey TO customer_auth_unpartitioned_pkey;
+        ALTER TABLE CUSTOMER_AUTH_UNPARTITIONED RENAME CONSTRAINT customer_auth_uuid_key TO customer_auth_unpartitioned_uuid_key;
+        ALTER INDEX IF EXISTS CUSTOMER_AUTH_ACCESS_TOKEN_DIGEST_IDX RENAME TO CUSTOMER_AUTH_UNPARTITIONED_ACCESS_TOKEN_DIGEST_IDX;
+
+        CREATE TABLE CUSTOMER_AUTH(id INTEGER NOT NULL DEFAULT nextval('customer_auth_id_seq'),uuid VARCHAR(200) NOT NULL, customer_id INTEGER NOT NULL, access_token VARCHAR(500), access_token_digest CHAR(64), login_at TIMESTAMP NOT NULL, logout_at TIMESTAMP,expires_at TIMESTAMP, PRIMARY KEY (id, login_at), UNIQUE (uuid, login_at), FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE) PARTITION BY RANGE (login_at);
+        CREATE TABLE CUSTOMER_AUTH_DEFAULT PARTITION OF CUSTOMER_AUTH DEFAULT;
+        CREATE INDEX CUSTOMER_AUTH_ACCESS_TOKEN_DIGEST_IDX ON CUSTOMER_AUTH(access_token_digest);
+        ALTER SEQUENCE customer_auth_id_seq OWNED BY CUSTOMER_AUTH.id;
+
+        -- Rows without a login time are kept as logged in long ago, so they are purged with the other expired rows.
+        INSERT INTO CUSTOMER_AUTH(id, uuid, customer_id, access_token, access_token_digest, login_at, logout_at, expires_at)
+            SELECT id, uuid, customer_id, access_token, access_token_digest, COALESCE(login_at, TIMESTAMP 'epoch'), logout_at, expires_at FROM CUSTOMER_AUTH_UNPARTITIONED;
+        DROP TABLE CUSTOMER_AUTH_UNPARTITIONED;
+    END IF;
+END
+$$;
+/
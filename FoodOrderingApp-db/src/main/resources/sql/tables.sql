@@ -15,19 +15,29 @@ DROP TABLE IF EXISTS STATE CASCADE;
 CREATE TABLE STATE(id SERIAL,uuid VARCHAR(200) UNIQUE NOT NULL, state_name VARCHAR(30),PRIMARY KEY (id));
 
 DROP TABLE IF EXISTS ADDRESS CASCADE;
-CREATE TABLE ADDRESS(id SERIAL, uuid VARCHAR(200) UNIQUE NOT NULL,flat_buil_number VARCHAR(255), locality VARCHAR(255),city VARCHAR(30),pincode VARCHAR(30), state_id INTEGER, active INTEGER DEFAULT(1), PRIMARY KEY (id),FOREIGN KEY (state_id) REFERENCES STATE(id) ON DELETE CASCADE);
+CREATE TABLE ADDRESS(id SERIAL, uuid VARCHAR(200) UNIQUE NOT NULL,flat_buil_number VARCHAR(255), locality VARCHAR(255),city VARCHAR(30),pincode VARCHAR(30), state_id INTEGER, active INTEGER DEFAULT(1), latitude DOUBLE PRECISION, longitude DOUBLE PRECISION, PRIMARY KEY (id),FOREIGN KEY (state_id) REFERENCES STATE(id) ON DELETE CASCADE);
+-- Lets the address purge find the soft-deleted addresses without reading the active ones.
+CREATE INDEX ADDRESS_INACTIVE_IDX ON ADDRESS(id) WHERE active = 0;
+-- Lets the address location job find, by pincode, the addresses that have no coordinates yet.
+CREATE INDEX ADDRESS_UNLOCATED_PINCODE_IDX ON ADDRESS(pincode) WHERE latitude IS NULL;
 
 DROP TABLE IF EXISTS CUSTOMER_ADDRESS CASCADE;
 CREATE TABLE CUSTOMER_ADDRESS(id SERIAL,customer_id INTEGER NOT NULL,address_id INTEGER NOT NULL,PRIMARY KEY (id), FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE,FOREIGN KEY (address_id) REFERENCES ADDRESS(id) ON DELETE CASCADE);
+-- Serve the keyset-paginated listing of a customer's addresses, and the cascade when a purged address is deleted.
+CREATE INDEX CUSTOMER_ADDRESS_CUSTOMER_ID_IDX ON CUSTOMER_ADDRESS(customer_id, id);
+CREATE INDEX CUSTOMER_ADDRESS_ADDRESS_ID_IDX ON CUSTOMER_ADDRESS(address_id);
 
 DROP TABLE IF EXISTS ITEM CASCADE;
 CREATE TABLE ITEM(id SERIAL,uuid VARCHAR(200) UNIQUE NOT NULL, item_name VARCHAR(30) NOT NULL, price INTEGER NOT NULL, type VARCHAR(10) NOT NULL, PRIMARY KEY (id));
 
 DROP TABLE IF EXISTS RESTAURANT CASCADE;
 CREATE TABLE RESTAURANT(id SERIAL,uuid VARCHAR(200) UNIQUE NOT NULL, restaurant_name VARCHAR(50) NOT NULL, photo_url VARCHAR(255), customer_rating DECIMAL NOT NULL, average_price_for_two INTEGER NOT NULL, number_of_customers_rated INTEGER NOT NULL DEFAULT 0, address_id INTEGER NOT NULL , PRIMARY KEY(id), FOREIGN KEY (address_id) REFERENCES ADDRESS(id) ON DELETE CASCADE);
+CREATE INDEX RESTAURANT_ADDRESS_ID_IDX ON RESTAURANT(address_id);
 
 DROP TABLE IF EXISTS ORDERS CASCADE;
 CREATE TABLE ORDERS(id SERIAL,uuid VARCHAR(200) UNIQUE NOT NULL, bill DECIMAL NOT NULL, coupon_id INTEGER,discount DECIMAL DEFAULT 0, date TIMESTAMP NOT NULL , payment_id INTEGER,customer_id INTEGER NOT NULL, address_id INTEGER NOT NULL,PRIMARY KEY(id), restaurant_id INTEGER NOT NULL ,FOREIGN KEY (payment_id) REFERENCES PAYMENT(id),FOREIGN KEY (restaurant_id) REFERENCES RESTAURANT(id),FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE, FOREIGN KEY (address_id) REFERENCES ADDRESS(id),FOREIGN KEY (coupon_id) REFERENCES COUPON(id));
+-- Lets the address purge check that no order was delivered to an address.
+CREATE INDEX ORDERS_ADDRESS_ID_IDX ON ORDERS(address_id);
 
 DROP TABLE IF EXISTS CATEGORY_ITEM CASCADE;
 CREATE TABLE CATEGORY_ITEM(id SERIAL,item_id INTEGER NOT NULL,category_id INTEGER NOT NULL, PRIMARY KEY (id),FOREIGN KEY (item_id) REFERENCES item(id) ON DELETE CASCADE, FOREIGN KEY (category_id) REFERENCES CATEGORY(id) ON DELETE CASCADE);
@@ -42,4 +52,8 @@ DROP TABLE IF EXISTS RESTAURANT_CATEGORY CASCADE;
 CREATE TABLE RESTAURANT_CATEGORY(id SERIAL,restaurant_id INTEGER NOT NULL, category_id INTEGER NOT NULL,PRIMARY KEY (id), FOREIGN KEY (category_id) REFERENCES CATEGORY(id) ON DELETE CASCADE, FOREIGN KEY (restaurant_id) REFERENCES RESTAURANT(id) ON DELETE CASCADE);
 
 DROP TABLE IF EXISTS CUSTOMER_AUTH CASCADE;
-CREATE TABLE CUSTOMER_AUTH(id SERIAL,uuid VARCHAR(200) UNIQUE NOT NULL, customer_id INTEGER NOT NULL, access_token VARCHAR(500), login_at TIMESTAMP, logout_at TIMESTAMP,expires_at TIMESTAMP, PRIMARY KEY (id), FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE);
\ No newline at end of file
+-- CUSTOMER_AUTH is range-partitioned by day on login_at. Daily partitions are created ahead of time and dropped once every session in them has expired by the application (see CustomerAuthPartitionJob); the default partition only catches rows outside of the prepared days. The job moves a day's rows out of the default partition when it creates that day's partition, and purges the expired rows left in it.
+CREATE TABLE CUSTOMER_AUTH(id SERIAL,uuid VARCHAR(200) NOT NULL, customer_id INTEGER NOT NULL, access_token VARCHAR(500), access_token_digest CHAR(64), login_at TIMESTAMP NOT NULL, logout_at TIMESTAMP,expires_at TIMESTAMP, PRIMARY KEY (id, login_at), UNIQUE (uuid, login_at), FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE) PARTITION BY RANGE (login_at);
+CREATE TABLE CUSTOMER_AUTH_DEFAULT PARTITION OF CUSTOMER_AUTH DEFAULT;
+-- access_token_digest is the hex SHA-256 of access_token; tokens are looked up by digest so the index stays small.
+CREATE INDEX CUSTOMER_AUTH_ACCESS_TOKEN_DIGEST_IDX ON CUSTOMER_AUTH(access_token_digest);
@@ -3,12 +3,15 @@ package com.upgrad.FoodOrderingApp.service;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Enabling the component scan and entity scan of classes in the below mentioned "com.upgrad.FoodOrderingApp.service" and "com.upgrad.FoodOrderingApp.service.entity" packages respectively.
+ * Scheduling is enabled for the background housekeeping jobs of the service layer.
  */
 @Configuration
 @ComponentScan("com.upgrad.FoodOrderingApp.service")
 @EntityScan("com.upgrad.FoodOrderingApp.service.entity")
+@EnableScheduling
 public class ServiceConfiguration {
 }
@@ -0,0 +1,131 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * AccessTokenService issues access-tokens signed with a server-held secret and, when the "stateless" token verification
+ * mode is on, resolves them to a CustomerSession from the signature and claims alone. Tokens that fail verification
+ * (for example ones issued before the secret was configured) are left to the CUSTOMER_AUTH lookup.
+ * Logouts are tracked in the in-memory TokenRevocationList, so every instance sharing the secret has to see the logout
+ * (or be restarted) before a revoked token stops verifying there.
+ */
+@Service
+public class AccessTokenService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccessTokenService.class);
+
+    public static final String STATELESS_VERIFICATION = "stateless";
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    private final boolean stateless;
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    public AccessTokenService(@Value("${foodorderingapp.auth.token-verification:database}") final String tokenVerification,
+                              @Value("${foodorderingapp.auth.jwt-secret:}") final String secret) {
+        this.stateless = STATELESS_VERIFICATION.equalsIgnoreCase(tokenVerification);
+        if (secret.isEmpty()) {
+            LOG.warn("foodorderingapp.auth.jwt-secret is not set, access-tokens will only verify on this instance until it restarts");
+            this.jwtTokenProvider = new JwtTokenProvider(generateSecret());
+        } else {
+            this.jwtTokenProvider = new JwtTokenProvider(secret);
+        }
+    }
+
+    @PostConstruct
+    public void loadRevokedTokens() {
+        if (stateless) {
+            tokenRevocationList.rebuild();
+        }
+    }
+
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    public String generateToken(final CustomerAuthEntity customerAuthEntity) {
+        return jwtTokenProvider.generateToken(customerAuthEntity.getUuid(), customerAuthEntity.getCustomerId().getUuid(),
+                customerAuthEntity.getCustomerId().getId(), customerAuthEntity.getLoginAt(), customerAuthEntity.getExpiresAt());
+    }
+
+    /**
+     * Resolves the session from the token itself. An expired token still resolves, so that the caller reports
+     * the session as expired rather than unknown.
+     *
+     * @param accessToken access-token sent by the customer.
+     * @return CustomerSession or null if the token was not signed by this server or misses the expected claims.
+     */
+    public CustomerSession verify(final String accessToken) {
+        DecodedJWT jwt;
+        try {
+            jwt = jwtTokenProvider.verifyToken(accessToken);
+        } catch (TokenExpiredException tee) {
+            //Signature has been checked before the time claims, so the token is genuine.
+            jwt = JWT.decode(accessToken);
+        } catch (JWTVerificationException jve) {
+            return null;
+        }
+
+        final List<String> audience = jwt.getAudience();
+        final Claim customerId = jwt.getClaim(JwtTokenProvider.CUSTOMER_ID_CLAIM);
+        if (jwt.getId() == null || jwt.getExpiresAt() == null || audience == null || audience.size() != 1 || customerId.isNull()) {
+            return null;
+        }
+
+        final ZoneId zone = ZoneId.systemDefault();
+        final Long logoutAt = tokenRevocationList.getLogoutAt(jwt.getId());
+        return new CustomerSession(accessToken, jwt.getId(), customerId.asInt(), audience.get(0),
+                ZonedDateTime.ofInstant(jwt.getExpiresAt().toInstant(), zone),
+                logoutAt == null ? null : ZonedDateTime.ofInstant(Instant.ofEpochMilli(logoutAt), zone));
+    }
+
+    /**
+     * Revokes the access-token of the given session. When called inside a transaction the token is only revoked after
+     * commit, so a logout that rolls back leaves the token valid, as its row is.
+     *
+     * @param customerAuthEntity session logged out, with its logout time set.
+     */
+    public void revoke(final CustomerAuthEntity customerAuthEntity) {
+        final String uuid = customerAuthEntity.getUuid();
+        final ZonedDateTime logoutAt = customerAuthEntity.getLogoutAt();
+        final ZonedDateTime expiresAt = customerAuthEntity.getExpiresAt();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    tokenRevocationList.revoke(uuid, logoutAt, expiresAt);
+                }
+            });
+        } else {
+            tokenRevocationList.revoke(uuid, logoutAt, expiresAt);
+        }
+    }
+
+    private static String generateSecret() {
+        final byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+        return Base64.getEncoder().encodeToString(secret);
+    }
+}
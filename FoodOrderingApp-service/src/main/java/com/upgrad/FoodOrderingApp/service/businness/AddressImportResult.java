@@ -0,0 +1,56 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
+
+/**
+ * AddressImportResult is the outcome of one address of a bulk import: the saved address, or the code and message of
+ * the error that kept it from being saved.
+ */
+public final class AddressImportResult {
+
+    private final int index;
+
+    private final AddressEntity address;
+
+    private final String errorCode;
+
+    private final String errorMessage;
+
+    private AddressImportResult(final int index, final AddressEntity address, final String errorCode, final String errorMessage) {
+        this.index = index;
+        this.address = address;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+    }
+
+    static AddressImportResult saved(final int index, final AddressEntity address) {
+        return new AddressImportResult(index, address, null, null);
+    }
+
+    static AddressImportResult failed(final int index, final String errorCode, final String errorMessage) {
+        return new AddressImportResult(index, null, errorCode, errorMessage);
+    }
+
+    /**
+     * @return position of the address in the import, starting at 0.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public boolean isSaved() {
+        return address != null;
+    }
+
+    public AddressEntity getAddress() {
+        return address;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
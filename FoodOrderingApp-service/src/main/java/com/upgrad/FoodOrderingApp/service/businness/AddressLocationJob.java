@@ -0,0 +1,70 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AddressLocationJob fills in the coordinates of the addresses saved before they were kept, and of the ones whose
+ * pincode had no known centre when they were saved, from the pincode centroids of the PincodeIndex. Addresses are
+ * placed a pincode at a time, by one UPDATE each, with a batch of pincodes to a short transaction. Addresses of
+ * pincodes that still have no known centre are left without coordinates and are looked at again by the next run.
+ * Restaurants placed by a run show up in the nearby search from the next catalog reload.
+ */
+@Component
+@ManagedResource(objectName = "FoodOrderingApp:type=AddressLocationJob", description = "Backfill of address coordinates")
+public class AddressLocationJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AddressLocationJob.class);
+
+    @Autowired
+    private AddressService addressService;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    private final AtomicLong located = new AtomicLong();
+
+    public AddressLocationJob(@Value("${foodorderingapp.address-location.enabled:true}") final boolean enabled,
+                              @Value("${foodorderingapp.address-location.batch-size:100}") final int batchSize) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${foodorderingapp.address-location.initial-delay-millis:30000}",
+            fixedDelayString = "${foodorderingapp.address-location.interval-millis:3600000}")
+    @ManagedOperation(description = "Sets the coordinates of the addresses that have none from their pincode")
+    public void locateAddresses() {
+        if (!enabled) {
+            return;
+        }
+
+        long total = 0;
+        try {
+            final List<String> pincodes = addressService.getUnlocatedPincodes();
+            for (int from = 0; from < pincodes.size(); from += batchSize) {
+                total += addressService.locateAddresses(pincodes.subList(from, Math.min(from + batchSize, pincodes.size())));
+            }
+        } catch (RuntimeException e) {
+            //The remaining addresses are picked up by the next run.
+            LOG.warn("Could not locate addresses", e);
+        }
+        located.addAndGet(total);
+        LOG.info("Located {} addresses", total);
+    }
+
+    @ManagedAttribute(description = "Addresses located since startup")
+    public long getLocated() {
+        return located.get();
+    }
+}
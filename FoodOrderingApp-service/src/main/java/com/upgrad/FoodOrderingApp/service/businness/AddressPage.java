@@ -0,0 +1,29 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
+
+import java.util.List;
+
+/**
+ * AddressPage is one page of a customer's saved addresses. The next page is requested with the cursor of this page,
+ * which is null once the last page has been returned.
+ */
+public final class AddressPage {
+
+    private final List<AddressEntity> addresses;
+
+    private final Integer nextCursor;
+
+    public AddressPage(final List<AddressEntity> addresses, final Integer nextCursor) {
+        this.addresses = addresses;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<AddressEntity> getAddresses() {
+        return addresses;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+}
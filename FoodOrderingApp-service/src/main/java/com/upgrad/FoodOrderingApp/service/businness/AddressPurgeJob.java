@@ -0,0 +1,73 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AddressPurgeJob physically deletes the addresses customers have deleted, which are only marked inactive at the time.
+ * It runs off-peak and works in batches, each in its own short transaction, so locks are held on one batch at a time.
+ * Addresses that an order or a restaurant still refers to are kept.
+ */
+@Component
+@ManagedResource(objectName = "FoodOrderingApp:type=AddressPurgeJob", description = "Purge of deleted addresses")
+public class AddressPurgeJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AddressPurgeJob.class);
+
+    @Autowired
+    private AddressService addressService;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    private final int maxBatches;
+
+    private final AtomicLong purged = new AtomicLong();
+
+    public AddressPurgeJob(@Value("${foodorderingapp.address-purge.enabled:true}") final boolean enabled,
+                           @Value("${foodorderingapp.address-purge.batch-size:5000}") final int batchSize,
+                           @Value("${foodorderingapp.address-purge.max-batches:100}") final int maxBatches) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(cron = "${foodorderingapp.address-purge.cron:0 30 3 * * *}")
+    public void purgeInactiveAddresses() {
+        if (!enabled) {
+            return;
+        }
+
+        long total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            final int deleted;
+            try {
+                deleted = addressService.purgeInactiveAddresses(batchSize);
+            } catch (RuntimeException e) {
+                //The remaining addresses are picked up by the next run.
+                LOG.warn("Could not purge inactive addresses", e);
+                break;
+            }
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        purged.addAndGet(total);
+        LOG.info("Purged {} inactive addresses", total);
+    }
+
+    @ManagedAttribute(description = "Addresses purged since startup")
+    public long getPurged() {
+        return purged.get();
+    }
+}
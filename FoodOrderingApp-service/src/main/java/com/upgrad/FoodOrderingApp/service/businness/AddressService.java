@@ -7,15 +7,13 @@ import com.upgrad.FoodOrderingApp.service.exception.AddressNotFoundException;
 import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
 import com.upgrad.FoodOrderingApp.service.exception.SaveAddressException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.TypedQuery;
-import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
 
 @Service
 public class AddressService {
@@ -26,52 +24,57 @@ public class AddressService {
     @Autowired
     private CustomerDao customerDao;
 
-    @Transactional(propagation = Propagation.REQUIRED)
-    public AddressEntity saveAddress(AddressEntity addressEntity , StateEntity stateEntity , String authorization) throws AuthorizationFailedException, SaveAddressException, AddressNotFoundException{
+    @Autowired
+    private InputValidator inputValidator;
 
-        CustomerAuthEntity customerAuthEntity = customerDao.getCustomerByAccessToken(authorization);
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
 
-        if (customerAuthEntity == null) {
-            throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
-        }
+    @Autowired
+    private PincodeIndex pincodeIndex;
 
-        ZonedDateTime expireTime = customerAuthEntity.getExpiresAt();
-        ZonedDateTime currentTime = ZonedDateTime.now();
+    private final int defaultPageSize;
 
-        if (expireTime.isBefore(currentTime)) {
-            throw new AuthorizationFailedException("ATHR-003", "Your session is expired. Log in again to access this endpoint.");
-        }
+    private final int maxPageSize;
 
+    private final boolean rejectUnknownPincodes;
 
-        ZonedDateTime logoutAtTime = customerAuthEntity.getLogoutAt();
-        if (logoutAtTime != null) {
-            throw new AuthorizationFailedException("ATHR-002", "Customer is logged out. Log in again to access this endpoint.");
+    private final int defaultSuggestionLimit;
 
-        }
+    private final int maxSuggestionLimit;
 
-        if(addressEntity.getFlatBuilNumber() == null || addressEntity.getCity() == null || addressEntity.getLocality() == null || addressEntity.getPincode() == null) {
-            throw new SaveAddressException("SAR-001" , "No field can be empty");
-        }
+    private final int maxBulkSize;
 
-        String pincodeValidation = "[0-9]{6}";
-        java.util.regex.Pattern pattern1 = java.util.regex.Pattern.compile(pincodeValidation);
-        Matcher matcher1 = pattern1.matcher(addressEntity.getPincode());
-        if (!matcher1.matches()) {
-            throw new SaveAddressException("SAR-002", "Invalid pincode");
-        }
+    private final int batchSize;
 
-        StateEntity stateEntity1 = addressDao.getStateByUuid(stateEntity.getUuid());
+    public AddressService(@Value("${foodorderingapp.address.page-size:20}") final int defaultPageSize,
+                          @Value("${foodorderingapp.address.max-page-size:100}") final int maxPageSize,
+                          @Value("${foodorderingapp.pincode.reject-unknown:false}") final boolean rejectUnknownPincodes,
+                          @Value("${foodorderingapp.pincode.suggestion-limit:10}") final int defaultSuggestionLimit,
+                          @Value("${foodorderingapp.pincode.max-suggestion-limit:50}") final int maxSuggestionLimit,
+                          @Value("${foodorderingapp.address.max-bulk-size:1000}") final int maxBulkSize,
+                          @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") final int batchSize) {
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.rejectUnknownPincodes = rejectUnknownPincodes;
+        this.defaultSuggestionLimit = defaultSuggestionLimit;
+        this.maxSuggestionLimit = maxSuggestionLimit;
+        this.maxBulkSize = maxBulkSize;
+        this.batchSize = batchSize;
+    }
 
-        if(stateEntity1 == null) {
-            throw new AddressNotFoundException("ANF-002" , "No state by this id");
-        }
+    @Transactional(propagation = Propagation.REQUIRED)
+    public AddressEntity saveAddress(AddressEntity addressEntity , StateEntity stateEntity , CustomerSession customerSession) throws SaveAddressException, AddressNotFoundException{
+
+        StateEntity stateEntity1 = validateAddress(addressEntity , stateEntity.getUuid());
 
         CustomerAddressEntity customerAddressEntity = new CustomerAddressEntity();
-        customerAddressEntity.setCustomerId(customerAuthEntity.getCustomerId());
+        customerAddressEntity.setCustomerId(customerDao.getCustomerReference(customerSession.getCustomerId()));
         customerAddressEntity.setAddressId(addressEntity);
 
         addressEntity.setStateId(stateEntity1);
         addressEntity.setActive(1);
+        locate(addressEntity);
 
         addressDao.saveAddress(addressEntity);
         addressDao.createCustomerAddress(customerAddressEntity);
@@ -81,94 +84,266 @@ public class AddressService {
 
     }
 
-    public List<AddressEntity> getAllSavedAddresses(String authorization) throws AuthorizationFailedException {
+    /**
+     * This method saves many addresses of the customer at once. Each address is validated on its own against the cached
+     * states and the pincode index, and the valid ones are inserted together in JDBC batches.
+     *
+     * @param addressEntities addresses to save, each with a StateEntity that only carries the uuid of its state.
+     * @param customerSession session of the logged-in customer.
+     * @return the result of every address, in the order they were given.
+     * @throws SaveAddressException if there are no addresses, more than the maximum bulk size, or a null address.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public List<AddressImportResult> saveAddresses(List<AddressEntity> addressEntities , CustomerSession customerSession) throws SaveAddressException {
 
-        CustomerAuthEntity customerAuthEntity = addressDao.getCustomerByAccessToken(authorization);
+        if(addressEntities == null || addressEntities.isEmpty()) {
+            throw new SaveAddressException("SAR-001" , "No field can be empty");
+        }
 
-        if (customerAuthEntity == null) {
-            throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
+        if(addressEntities.size() > maxBulkSize) {
+            throw new SaveAddressException("SAR-005" , "No more than " + maxBulkSize + " addresses can be saved at once");
         }
 
-        ZonedDateTime expireTime = customerAuthEntity.getExpiresAt();
-        ZonedDateTime currentTime = ZonedDateTime.now();
+        if(addressEntities.contains(null)) {
+            throw new SaveAddressException("SAR-001" , "No field can be empty");
+        }
+
+        CustomerEntity customerEntity = customerDao.getCustomerReference(customerSession.getCustomerId());
+
+        List<AddressImportResult> results = new ArrayList<>(addressEntities.size());
+        List<CustomerAddressEntity> customerAddressEntities = new ArrayList<>(addressEntities.size());
+
+        for(int i = 0; i < addressEntities.size(); i++) {
+
+            AddressEntity addressEntity = addressEntities.get(i);
+            StateEntity stateEntity;
+            try {
+                stateEntity = validateAddress(addressEntity , addressEntity.getStateId() == null ? null : addressEntity.getStateId().getUuid());
+            } catch (SaveAddressException e) {
+                results.add(AddressImportResult.failed(i , e.getCode() , e.getErrorMessage()));
+                continue;
+            } catch (AddressNotFoundException e) {
+                results.add(AddressImportResult.failed(i , e.getCode() , e.getErrorMessage()));
+                continue;
+            }
+
+            addressEntity.setStateId(stateEntity);
+            addressEntity.setActive(1);
+            locate(addressEntity);
+
+            CustomerAddressEntity customerAddressEntity = new CustomerAddressEntity();
+            customerAddressEntity.setCustomerId(customerEntity);
+            customerAddressEntity.setAddressId(addressEntity);
+            customerAddressEntities.add(customerAddressEntity);
+
+            results.add(AddressImportResult.saved(i , addressEntity));
 
-        if (expireTime.isBefore(currentTime)) {
-            throw new AuthorizationFailedException("ATHR-003", "Your session is expired. Log in again to access this endpoint.");
         }
 
+        addressDao.saveCustomerAddresses(customerAddressEntities , batchSize);
+
+        return results;
+
+    }
+
+    //Checks the fields of the address and returns the cached state it is in.
+    private StateEntity validateAddress(AddressEntity addressEntity , String stateUuid) throws SaveAddressException, AddressNotFoundException {
 
-        ZonedDateTime logoutAtTime = customerAuthEntity.getLogoutAt();
-        if (logoutAtTime != null) {
-            throw new AuthorizationFailedException("ATHR-002", "Customer is logged out. Log in again to access this endpoint.");
+        if(addressEntity.getFlatBuilNumber() == null || addressEntity.getCity() == null || addressEntity.getLocality() == null || addressEntity.getPincode() == null) {
+            throw new SaveAddressException("SAR-001" , "No field can be empty");
         }
 
+        if (!inputValidator.isValidPincode(addressEntity.getPincode())) {
+            throw new SaveAddressException("SAR-002", "Invalid pincode");
+        }
 
-        CustomerEntity customerEntity = customerAuthEntity.getCustomerId();
+        StateEntity stateEntity = stateUuid == null ? null : referenceDataCache.get().getStateByUuid(stateUuid);
 
-        List<AddressEntity> customerAddressEntityList = new ArrayList<>();
+        if(stateEntity == null) {
+            throw new AddressNotFoundException("ANF-002" , "No state by this id");
+        }
 
-        List<CustomerAddressEntity> customerAddressEntity = addressDao.getCustomerAddress(customerEntity);
+        String pincodeStateUuid = pincodeIndex.getStateUuid(addressEntity.getPincode());
 
-        for(CustomerAddressEntity customerAddressEntity1 : customerAddressEntity) {
-            customerAddressEntityList.add(customerAddressEntity1.getAddressId());
+        //Pincodes missing from the reference data are accepted unless configured otherwise.
+        if(pincodeStateUuid == null && rejectUnknownPincodes) {
+            throw new SaveAddressException("SAR-003" , "No pincode by this value");
+        }
 
+        if(pincodeStateUuid != null && !pincodeStateUuid.equals(stateEntity.getUuid())) {
+            throw new SaveAddressException("SAR-004" , "Pincode does not belong to this state");
         }
 
-        return customerAddressEntityList;
+        return stateEntity;
 
     }
 
+    //Places the address at the centre of its pincode, when that is known.
+    private void locate(AddressEntity addressEntity) {
 
-    @Transactional(propagation = Propagation.REQUIRED)
-    public AddressEntity deleteAddress(String addressId , String authorization) throws AuthorizationFailedException , AddressNotFoundException {
+        double[] centroid = pincodeIndex.getCentroid(addressEntity.getPincode());
+
+        if (centroid != null) {
+            addressEntity.setLatitude(centroid[0]);
+            addressEntity.setLongitude(centroid[1]);
+        }
+
+    }
 
-        CustomerAuthEntity customerAuthEntity = addressDao.getCustomerByAccessToken(authorization);
+    /**
+     * This method returns a saved address of the customer.
+     *
+     * @param addressId       uuid of the address.
+     * @param customerSession session of the logged-in customer.
+     * @return the address.
+     * @throws AddressNotFoundException     if the id is empty or there is no active address by this id.
+     * @throws AuthorizationFailedException if the address belongs to another customer.
+     */
+    public AddressEntity getAddressByUuid(String addressId , CustomerSession customerSession) throws AddressNotFoundException, AuthorizationFailedException {
+
+        if(addressId == null || addressId.isEmpty()) {
+            throw new AddressNotFoundException("ANF-005", "Address id can not be empty");
+        }
+
+        CustomerAddressEntity customerAddressEntity = addressDao.getCustomerAddressByAddressUuid(addressId);
+
+        if(customerAddressEntity == null) {
+            throw new AddressNotFoundException("ANF-003" , "No address by this id");
+        }
 
-        if (customerAuthEntity == null) {
-            throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
+        if(!customerAddressEntity.getCustomerId().getId().equals(customerSession.getCustomerId())) {
+            throw new AuthorizationFailedException("ATHR-004" , "You are not authorized to view/update/delete any one else's address");
         }
 
-        ZonedDateTime expireTime = customerAuthEntity.getExpiresAt();
-        ZonedDateTime currentTime = ZonedDateTime.now();
+        return customerAddressEntity.getAddressId();
+
+    }
 
-        if (expireTime.isBefore(currentTime)) {
-            throw new AuthorizationFailedException("ATHR-003", "Your session is expired. Log in again to access this endpoint.");
+    /**
+     * This method returns one page of the customer's saved addresses, oldest first.
+     *
+     * @param customerSession session of the logged-in customer.
+     * @param cursor          cursor returned with the previous page, or null for the first page.
+     * @param pageSize        number of addresses wanted, or null for the default. It is capped at the maximum page size.
+     * @return the page and the cursor of the next page.
+     */
+    public AddressPage getSavedAddresses(CustomerSession customerSession, Integer cursor, Integer pageSize) {
+
+        int limit = pageSize == null || pageSize <= 0 ? defaultPageSize : Math.min(pageSize, maxPageSize);
+
+        //One row more than asked for tells whether there is a next page.
+        List<CustomerAddressEntity> customerAddressEntityList = addressDao.getCustomerAddressPage(customerSession.getCustomerId(),
+                cursor == null ? 0 : cursor, limit + 1);
+
+        boolean hasNextPage = customerAddressEntityList.size() > limit;
+        if (hasNextPage) {
+            customerAddressEntityList = customerAddressEntityList.subList(0, limit);
         }
 
-        ZonedDateTime logoutAtTime = customerAuthEntity.getLogoutAt();
-        if (logoutAtTime != null) {
-            throw new AuthorizationFailedException("ATHR-002", "Customer is logged out. Log in again to access this endpoint.");
+        List<AddressEntity> addressEntityList = new ArrayList<>(customerAddressEntityList.size());
+        for (CustomerAddressEntity customerAddressEntity : customerAddressEntityList) {
+            addressEntityList.add(customerAddressEntity.getAddressId());
         }
 
+        Integer nextCursor = hasNextPage ? customerAddressEntityList.get(limit - 1).getId() : null;
+        return new AddressPage(addressEntityList, nextCursor);
+
+    }
+
+
+    /**
+     * This method deletes a saved address of the customer. The address is only marked inactive, in one UPDATE, so that
+     * the orders delivered to it keep their reference. The AddressPurgeJob removes it later once nothing refers to it.
+     *
+     * @param addressId       uuid of the address.
+     * @param customerSession session of the logged-in customer.
+     * @throws AddressNotFoundException if the customer has no active address by this id.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void deleteAddress(String addressId , CustomerSession customerSession) throws AddressNotFoundException {
+
         if(addressId == null) {
             throw new AddressNotFoundException("ANF-005", "Address id can not be empty");
         }
 
-        AddressEntity addressEntity = addressDao.getAddressByUuid(addressId);
-
-        if(addressEntity == null) {
+        if(addressDao.deactivateAddress(addressId , customerSession.getCustomerId()) == 0) {
             throw new AddressNotFoundException("ANF-003" , "No address by this id");
         }
 
-        CustomerAddressEntity customerAddressEntity = addressDao.getCustomerAddress(customerAuthEntity.getCustomerId());
+    }
+
+    /**
+     * This method deletes one batch of inactive addresses that no order or restaurant refers to, in its own transaction.
+     *
+     * @param batchSize maximum number of addresses to delete.
+     * @return number of addresses deleted.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int purgeInactiveAddresses(int batchSize) {
+
+        return addressDao.purgeInactiveAddresses(batchSize);
+
+    }
 
-        if(customerAuthEntity.getCustomerId() == customerAddressEntity.getCustomerId()) {
-            return addressDao.deleteAddress(addressEntity);
-        } else {
-            throw new AddressNotFoundException("ANF-003", "No address by this id");
+    /**
+     * @return the distinct pincodes of the addresses that have no coordinates yet.
+     */
+    public List<String> getUnlocatedPincodes() {
+
+        return addressDao.getUnlocatedPincodes();
+
+    }
+
+    /**
+     * This method sets the coordinates of the addresses of the given pincodes that have none to the centre of their
+     * pincode, in its own transaction. Pincodes whose centre is not known are left alone.
+     *
+     * @param pincodes pincodes to place the addresses of.
+     * @return number of addresses placed.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int locateAddresses(List<String> pincodes) {
+
+        int located = 0;
+        for (String pincode : pincodes) {
+            double[] centroid = pincodeIndex.getCentroid(pincode);
+            if (centroid != null) {
+                located += addressDao.locateAddresses(pincode , centroid[0] , centroid[1]);
+            }
         }
+        return located;
 
     }
 
-    public TypedQuery<StateEntity> getAllStates() {
+    /**
+     * This method returns the localities of the pincodes starting with the given digits, to fill in an address.
+     *
+     * @param prefix leading digits of the pincode.
+     * @param limit  number of suggestions wanted, or null for the default. It is capped at the maximum.
+     * @return the matching localities, empty when the prefix is not made of one to six digits.
+     */
+    public List<PincodeLocation> getPincodeSuggestions(String prefix, Integer limit) {
 
-        return addressDao.getAllStates();
+        return pincodeIndex.search(prefix, limit == null || limit <= 0 ? defaultSuggestionLimit : Math.min(limit, maxSuggestionLimit));
 
     }
 
+    public StateEntity getStateByUuid(String stateUuid) {
+
+        return referenceDataCache.get().getStateByUuid(stateUuid);
+
+    }
+
+    public List<StateEntity> getAllStates() {
+
+        return referenceDataCache.get().getStates();
 
-    public StateEntity getStatesByAddress(String uuid) {
-        StateEntity stateEntity = addressDao.getStatesByAddress(uuid);
-        return stateEntity;
     }
+
+    public ContentVersion getStatesVersion() {
+
+        return referenceDataCache.get().getStatesVersion();
+
+    }
+
 }
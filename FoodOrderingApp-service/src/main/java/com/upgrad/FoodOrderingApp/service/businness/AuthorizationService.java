@@ -0,0 +1,54 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.exception.AuthorizationFailedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.ZonedDateTime;
+
+/**
+ * AuthorizationService is the single place where an authorization header is turned into the session of a logged-in customer.
+ */
+@Service
+public class AuthorizationService {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Autowired
+    private SessionCache sessionCache;
+
+    /**
+     * This method resolves the access-token and checks that its session is still active.
+     *
+     * @param authorization value of the authorization header, with or without the "Bearer " prefix.
+     * @return session of the logged-in customer.
+     * @throws AuthorizationFailedException ATHR-001 if the token is unknown, ATHR-003 if the session expired and ATHR-002 if the customer logged out.
+     */
+    public CustomerSession authorize(final String authorization) throws AuthorizationFailedException {
+
+        String accessToken = authorization;
+        if (accessToken != null && accessToken.startsWith(BEARER_PREFIX)) {
+            accessToken = accessToken.substring(BEARER_PREFIX.length());
+        }
+
+        CustomerSession customerSession = sessionCache.getSession(accessToken);
+
+        if (customerSession == null) {
+            throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
+        }
+
+        ZonedDateTime expireTime = customerSession.getExpiresAt();
+        ZonedDateTime currentTime = ZonedDateTime.now();
+
+        if (expireTime.isBefore(currentTime)) {
+            throw new AuthorizationFailedException("ATHR-003", "Your session is expired. Log in again to access this endpoint.");
+        }
+
+        ZonedDateTime logoutAtTime = customerSession.getLogoutAt();
+        if (logoutAtTime != null) {
+            throw new AuthorizationFailedException("ATHR-002", "Customer is logged out. Log in again to access this endpoint.");
+        }
+
+        return customerSession;
+    }
+}
@@ -0,0 +1,826 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.common.ItemType;
+import com.upgrad.FoodOrderingApp.service.common.RestaurantSortOrder;
+import com.upgrad.FoodOrderingApp.service.common.SortDirection;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Catalog is one immutable snapshot of the restaurants, categories and items and the links between them. Every
+ * restaurant, category and item is known by its ordinal, its position in an array sorted by name, and the links are
+ * arrays of ordinals in ascending order. Lists handed out are read-only views over these arrays, so they come out in
+ * name order without sorting and cost no copy. A snapshot is never changed after it is built and can be read by any
+ * number of threads without locking; the entities it holds are detached and shared, and must not be modified.
+ */
+public final class Catalog {
+
+    private static final int[] NONE = new int[0];
+
+    static final Catalog EMPTY = new Catalog(0L, new RestaurantEntity[0], new CategoryEntity[0], new ItemEntity[0],
+            Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), new int[0][], new int[0][], new int[0][], new int[0][], new int[0][],
+            RestaurantOrders.build(new RestaurantEntity[0]), NONE,
+            new RestaurantFacetIndex(new RestaurantEntity[0], new int[0][], new ItemEntity[0], new int[0][], new int[0], new double[0]),
+            new RestaurantGeoIndex(new RestaurantEntity[0], 1), new RestaurantNameIndex(new String[0]),
+            new NameCompletionIndex(new String[0], NONE), new NameCompletionIndex(new String[0], NONE), new long[0], 0L);
+
+    private final long version;
+
+    private final RestaurantEntity[] restaurants;
+    private final CategoryEntity[] categories;
+    private final ItemEntity[] items;
+
+    private final Map<String, Integer> restaurantOrdinals;
+    private final Map<Integer, Integer> restaurantIdOrdinals;
+    private final Map<String, Integer> categoryOrdinals;
+
+    //Indexed by restaurant ordinal.
+    private final int[][] categoriesOfRestaurant;
+    private final int[][] itemsOfRestaurant;
+    private final int[][] popularItemsOfRestaurant;
+
+    //Indexed by category ordinal.
+    private final int[][] restaurantsOfCategory;
+    private final int[][] itemsOfCategory;
+
+    //Version of the catalog in which the details of each restaurant last changed, by restaurant ordinal.
+    private final long[] restaurantVersions;
+
+    //Version of the catalog in which any restaurant was added, removed or changed.
+    private final long restaurantsVersion;
+
+    private final RestaurantOrders restaurantOrders;
+
+    //Position of each restaurant in the order of rating.
+    private final int[] ratingRanks;
+
+    private final RestaurantFacetIndex restaurantFacets;
+
+    private final RestaurantGeoIndex restaurantLocations;
+
+    private final RestaurantNameIndex restaurantNames;
+
+    //Restaurants weighted by rating and items by the number of times ordered, as of the last reload.
+    private final NameCompletionIndex restaurantCompletions;
+    private final NameCompletionIndex itemCompletions;
+
+    private Catalog(final long version, final RestaurantEntity[] restaurants, final CategoryEntity[] categories, final ItemEntity[] items,
+                    final Map<String, Integer> restaurantOrdinals, final Map<Integer, Integer> restaurantIdOrdinals,
+                    final Map<String, Integer> categoryOrdinals,
+                    final int[][] categoriesOfRestaurant, final int[][] itemsOfRestaurant, final int[][] popularItemsOfRestaurant,
+                    final int[][] restaurantsOfCategory, final int[][] itemsOfCategory, final RestaurantOrders restaurantOrders,
+                    final int[] ratingRanks, final RestaurantFacetIndex restaurantFacets, final RestaurantGeoIndex restaurantLocations, final RestaurantNameIndex restaurantNames,
+                    final NameCompletionIndex restaurantCompletions, final NameCompletionIndex itemCompletions,
+                    final long[] restaurantVersions, final long restaurantsVersion) {
+        this.version = version;
+        this.restaurants = restaurants;
+        this.categories = categories;
+        this.items = items;
+        this.restaurantOrdinals = restaurantOrdinals;
+        this.restaurantIdOrdinals = restaurantIdOrdinals;
+        this.categoryOrdinals = categoryOrdinals;
+        this.categoriesOfRestaurant = categoriesOfRestaurant;
+        this.itemsOfRestaurant = itemsOfRestaurant;
+        this.popularItemsOfRestaurant = popularItemsOfRestaurant;
+        this.restaurantsOfCategory = restaurantsOfCategory;
+        this.itemsOfCategory = itemsOfCategory;
+        this.restaurantOrders = restaurantOrders;
+        this.ratingRanks = ratingRanks;
+        this.restaurantFacets = restaurantFacets;
+        this.restaurantLocations = restaurantLocations;
+        this.restaurantNames = restaurantNames;
+        this.restaurantCompletions = restaurantCompletions;
+        this.itemCompletions = itemCompletions;
+        this.restaurantVersions = restaurantVersions;
+        this.restaurantsVersion = restaurantsVersion;
+    }
+
+    /**
+     * Builds a catalog from the rows read by the CatalogDao.
+     *
+     * @param restaurants          restaurants ordered by name.
+     * @param categories           categories ordered by name.
+     * @param items                items ordered by name.
+     * @param restaurantCategories rows of restaurant id and category id.
+     * @param restaurantItems      rows of restaurant id and item id.
+     * @param categoryItems        rows of category id and item id.
+     * @param itemOrderCounts      rows of restaurant id, item id and number of times ordered.
+     * @param priceBandBounds      ascending prices at which a new price band starts, after the one starting at 0.
+     * @param ratingFloors         ascending minimum ratings to count restaurants at when filtering.
+     * @param cellDegrees          side of the cells of the grid restaurants are located in, in degrees.
+     * @param previous             catalog being replaced; restaurants whose details or most ordered items are the same in
+     *                             it keep their versions, and the catalog keeps its version of the restaurants when
+     *                             every restaurant is the same.
+     */
+    static Catalog build(final long version, final List<RestaurantEntity> restaurants, final List<CategoryEntity> categories,
+                         final List<ItemEntity> items, final List<Object[]> restaurantCategories, final List<Object[]> restaurantItems,
+                         final List<Object[]> categoryItems, final List<Object[]> itemOrderCounts, final int[] priceBandBounds,
+                         final double[] ratingFloors, final double cellDegrees, final Catalog previous) {
+        final Map<Integer, Integer> restaurantIds = ids(restaurants, RestaurantEntity::getId);
+        final Map<Integer, Integer> categoryIds = ids(categories, CategoryEntity::getId);
+        final Map<Integer, Integer> itemIds = ids(items, ItemEntity::getId);
+
+        final int[][] categoriesOfRestaurant = links(restaurantCategories, 0, restaurantIds, 1, categoryIds);
+        final int[][] restaurantsOfCategory = links(restaurantCategories, 1, categoryIds, 0, restaurantIds);
+        final int[][] itemsOfRestaurant = links(restaurantItems, 0, restaurantIds, 1, itemIds);
+        final int[][] itemsOfCategory = links(categoryItems, 0, categoryIds, 1, itemIds);
+
+        //Most ordered first, then by name.
+        final int[][] popularItemsOfRestaurant = links(itemOrderCounts, 0, restaurantIds, 1, itemIds);
+        final Map<Long, Long> orderCounts = new HashMap<>(itemOrderCounts.size() * 2);
+        final long[] itemOrders = new long[items.size()];
+        for (Object[] row : itemOrderCounts) {
+            final Integer restaurant = restaurantIds.get(row[0]);
+            final Integer item = itemIds.get(row[1]);
+            if (restaurant != null && item != null) {
+                orderCounts.put(key(restaurant, item), ((Number) row[2]).longValue());
+                itemOrders[item] += ((Number) row[2]).longValue();
+            }
+        }
+        for (int restaurant = 0; restaurant < popularItemsOfRestaurant.length; restaurant++) {
+            final int r = restaurant;
+            popularItemsOfRestaurant[restaurant] = Arrays.stream(popularItemsOfRestaurant[restaurant]).boxed()
+                    .sorted(Comparator.<Integer>comparingLong(item -> orderCounts.get(key(r, item))).reversed().thenComparing(item -> item))
+                    .mapToInt(Integer::intValue).toArray();
+        }
+
+        final RestaurantEntity[] restaurantArray = restaurants.toArray(new RestaurantEntity[0]);
+        final String[] restaurantNameArray = restaurants.stream().map(RestaurantEntity::getRestaurantName).toArray(String[]::new);
+        final CategoryEntity[] categoryArray = categories.toArray(new CategoryEntity[0]);
+        final ItemEntity[] itemArray = items.toArray(new ItemEntity[0]);
+        final RestaurantOrders restaurantOrders = RestaurantOrders.build(restaurantArray);
+        final RestaurantFacetIndex restaurantFacets = new RestaurantFacetIndex(restaurantArray, restaurantsOfCategory, itemArray,
+                itemsOfRestaurant, priceBandBounds, ratingFloors);
+        final RestaurantGeoIndex restaurantLocations = new RestaurantGeoIndex(restaurantArray, cellDegrees);
+        final RestaurantNameIndex restaurantNames = new RestaurantNameIndex(restaurantNameArray);
+
+        final NameCompletionIndex restaurantCompletions = new NameCompletionIndex(restaurantNameArray, restaurantOrders.byRating);
+        final NameCompletionIndex itemCompletions = new NameCompletionIndex(
+                items.stream().map(ItemEntity::getItemName).toArray(String[]::new),
+                IntStream.range(0, itemOrders.length).boxed()
+                        .sorted(Comparator.<Integer>comparingLong(i -> itemOrders[i]).reversed().thenComparing(i -> i))
+                        .mapToInt(Integer::intValue).toArray());
+
+        //Restaurants that a reload leaves as they were keep their versions.
+        final long[] restaurantVersions = new long[restaurantArray.length];
+        boolean restaurantsChanged = previous.version == 0L || previous.restaurants.length != restaurantArray.length;
+        for (int restaurant = 0; restaurant < restaurantArray.length; restaurant++) {
+            final Integer before = previous.restaurantOrdinals.get(restaurantArray[restaurant].getUuid());
+            restaurantVersions[restaurant] = before != null && previous.getRestaurantDetails(before).sameAs(
+                    details(restaurantArray, categoryArray, itemArray, categoriesOfRestaurant, itemsOfRestaurant, itemsOfCategory, restaurant, 0L))
+                    ? previous.restaurantVersions[before] : version;
+            restaurantsChanged |= restaurantVersions[restaurant] == version;
+        }
+
+        return new Catalog(version, restaurantArray, categoryArray, itemArray, ordinals(restaurantArray, RestaurantEntity::getUuid),
+                restaurantIds, ordinals(categoryArray, CategoryEntity::getUuid), categoriesOfRestaurant, itemsOfRestaurant, popularItemsOfRestaurant,
+                restaurantsOfCategory, itemsOfCategory, restaurantOrders, ranks(restaurantOrders.byRating), restaurantFacets, restaurantLocations, restaurantNames, restaurantCompletions, itemCompletions,
+                restaurantVersions, restaurantsChanged ? version : previous.restaurantsVersion);
+    }
+
+    /**
+     * Copies this catalog with one restaurant replaced, like withRestaurants.
+     *
+     * @param restaurant new state of a restaurant of this catalog.
+     * @return the new catalog, or null if the restaurant is not in this catalog or was renamed, which takes a full rebuild.
+     */
+    Catalog withRestaurant(final long version, final RestaurantEntity restaurant) {
+        return withRestaurants(version, Collections.singletonList(restaurant));
+    }
+
+    /**
+     * Copies this catalog with some restaurants replaced, sharing the ordinal maps, the links and the facet, location and
+     * name indexes, which the change does not touch as long as no name changes. The restaurants are moved to their new
+     * places in the sort orders, each order in one pass, so replacing many restaurants at once costs about as much as one.
+     * Completions keep ranking the restaurants by their rating as of the last reload.
+     *
+     * @param changed new states of restaurants of this catalog; a later state of the same restaurant wins.
+     * @return the new catalog, or null if any restaurant is not in this catalog or was renamed, which takes a full rebuild.
+     */
+    Catalog withRestaurants(final long version, final List<RestaurantEntity> changed) {
+        final RestaurantEntity[] restaurants = this.restaurants.clone();
+        final long[] restaurantVersions = this.restaurantVersions.clone();
+        final long[] moved = new long[(restaurants.length + 63) >>> 6];
+        final int[] ordinals = new int[changed.size()];
+        int count = 0;
+        for (RestaurantEntity restaurant : changed) {
+            final Integer ordinal = restaurantOrdinals.get(restaurant.getUuid());
+            if (ordinal == null || !this.restaurants[ordinal].getRestaurantName().equals(restaurant.getRestaurantName())) {
+                return null;
+            }
+            restaurants[ordinal] = restaurant;
+            restaurantVersions[ordinal] = version;
+            if (!contains(moved, ordinal)) {
+                moved[ordinal >>> 6] |= 1L << ordinal;
+                ordinals[count++] = ordinal;
+            }
+        }
+        final RestaurantOrders restaurantOrders = this.restaurantOrders.withRestaurants(restaurants, Arrays.copyOf(ordinals, count), moved);
+        return new Catalog(version, restaurants, categories, items, restaurantOrdinals, restaurantIdOrdinals, categoryOrdinals, categoriesOfRestaurant,
+                itemsOfRestaurant, popularItemsOfRestaurant, restaurantsOfCategory, itemsOfCategory, restaurantOrders,
+                ranks(restaurantOrders.byRating), restaurantFacets, restaurantLocations, restaurantNames, restaurantCompletions,
+                itemCompletions, restaurantVersions, version);
+    }
+
+    private static boolean contains(final long[] bits, final int ordinal) {
+        return (bits[ordinal >>> 6] & 1L << ordinal) != 0;
+    }
+
+    //Position of each ordinal in the order.
+    private static int[] ranks(final int[] order) {
+        final int[] ranks = new int[order.length];
+        for (int rank = 0; rank < order.length; rank++) {
+            ranks[order[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    private static <T> Map<String, Integer> ordinals(final T[] entities, final Function<T, String> uuid) {
+        final Map<String, Integer> ordinals = new HashMap<>(entities.length * 2);
+        for (int i = 0; i < entities.length; i++) {
+            ordinals.put(uuid.apply(entities[i]), i);
+        }
+        return ordinals;
+    }
+
+    private static <T> Map<Integer, Integer> ids(final List<T> entities, final Function<T, Integer> id) {
+        final Map<Integer, Integer> ordinals = new HashMap<>(entities.size() * 2);
+        for (int i = 0; i < entities.size(); i++) {
+            ordinals.put(id.apply(entities.get(i)), i);
+        }
+        return ordinals;
+    }
+
+    //Groups the rows by the ordinal of one column into ascending, distinct arrays of the ordinal of another column.
+    private static int[][] links(final List<Object[]> rows, final int fromColumn, final Map<Integer, Integer> fromOrdinals,
+                                 final int toColumn, final Map<Integer, Integer> toOrdinals) {
+        final int[] counts = new int[fromOrdinals.size()];
+        for (Object[] row : rows) {
+            final Integer from = fromOrdinals.get(row[fromColumn]);
+            if (from != null && toOrdinals.containsKey(row[toColumn])) {
+                counts[from]++;
+            }
+        }
+        final int[][] links = new int[counts.length][];
+        for (int i = 0; i < counts.length; i++) {
+            links[i] = counts[i] == 0 ? NONE : new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (Object[] row : rows) {
+            final Integer from = fromOrdinals.get(row[fromColumn]);
+            final Integer to = toOrdinals.get(row[toColumn]);
+            if (from != null && to != null) {
+                links[from][counts[from]++] = to;
+            }
+        }
+        for (int i = 0; i < links.length; i++) {
+            Arrays.sort(links[i]);
+            links[i] = distinct(links[i]);
+        }
+        return links;
+    }
+
+    private static int[] distinct(final int[] sorted) {
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    private static long key(final int restaurant, final int item) {
+        return ((long) restaurant << 32) | item;
+    }
+
+    //Ordinals present in both ascending arrays.
+    static int[] intersect(final int[] a, final int[] b) {
+        final int[] both = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                both[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(both, size);
+    }
+
+    /**
+     * @return number of the reload or change that built this snapshot, increasing with every one.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return version of the catalog in which any restaurant was last added, removed or changed.
+     */
+    public long getRestaurantsVersion() {
+        return restaurantsVersion;
+    }
+
+    public RestaurantEntity getRestaurantByUuid(final String uuid) {
+        final Integer ordinal = restaurantOrdinals.get(uuid);
+        return ordinal == null ? null : restaurants[ordinal];
+    }
+
+    public CategoryEntity getCategoryByUuid(final String uuid) {
+        final Integer ordinal = categoryOrdinals.get(uuid);
+        return ordinal == null ? null : categories[ordinal];
+    }
+
+    /**
+     * @return every restaurant, highest rating first.
+     */
+    public List<RestaurantEntity> getRestaurantsByRating() {
+        return new OrdinalList<>(restaurants, restaurantOrders.byRating);
+    }
+
+    /**
+     * @return every restaurant in the given order, or in the opposite of its default direction. Restaurants that tie
+     * are in name order in the default direction, and reversed with it.
+     */
+    public List<RestaurantEntity> getRestaurants(final RestaurantSortOrder sortOrder, final SortDirection direction) {
+        final int[] order = restaurantOrders.get(sortOrder);
+        return direction == sortOrder.getDefaultDirection() ? new OrdinalList<>(restaurants, order)
+                : new ReversedOrdinalList<>(restaurants, order);
+    }
+
+    /**
+     * @param name part of the name to look for, in any case.
+     * @return the restaurants whose name contains the given text; names equal to it first, then names starting with
+     * it, then names with a later word starting with it, then the rest, each highest rating first.
+     */
+    public List<RestaurantEntity> getRestaurantsByName(final String name) {
+        final String fragment = name.toLowerCase(Locale.ROOT);
+        final int[] matches = restaurantNames.find(fragment);
+
+        //Sorting keys of match quality and rating rank orders the matches without boxing them.
+        final long[] keys = new long[matches.length];
+        for (int i = 0; i < matches.length; i++) {
+            keys[i] = (long) restaurantNames.matchQuality(matches[i], fragment) << 32 | ratingRanks[matches[i]];
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            matches[i] = restaurantOrders.byRating[(int) keys[i]];
+        }
+        return new OrdinalList<>(restaurants, matches);
+    }
+
+    /**
+     * Filters the restaurants on any combination of categories, item types, price bands and a minimum rating, and counts
+     * the restaurants each value of each facet would match. Unknown categories match no restaurant.
+     */
+    public RestaurantFacets filterRestaurants(final RestaurantFilter filter) {
+        return filterRestaurants(filter, Collections.emptyList(), UnaryOperator.identity());
+    }
+
+    /**
+     * Filters and counts the restaurants like filterRestaurants, with ratings not yet in this snapshot merged in first, so
+     * the minimum rating, the order and the rating floor counts all go by the ratings the restaurants are returned with.
+     *
+     * @param pendingRestaurantIds ids of the restaurants with ratings not yet in this snapshot.
+     * @param merge                returns a restaurant with its pending ratings merged in, or the restaurant itself.
+     */
+    public RestaurantFacets filterRestaurants(final RestaurantFilter filter, final Collection<Integer> pendingRestaurantIds,
+                                              final UnaryOperator<RestaurantEntity> merge) {
+        //Merged once, so every use below sees the same ratings. Only these few restaurants are corrected afterwards.
+        final Map<Integer, RestaurantEntity> merged = new HashMap<>();
+        for (Integer restaurantId : pendingRestaurantIds) {
+            final Integer ordinal = restaurantIdOrdinals.get(restaurantId);
+            if (ordinal != null) {
+                final RestaurantEntity restaurant = merge.apply(restaurants[ordinal]);
+                if (restaurant != restaurants[ordinal]) {
+                    merged.put(ordinal, restaurant);
+                }
+            }
+        }
+
+        final List<Integer> selectedCategories = new ArrayList<>(filter.getCategoryUuids().size());
+        for (String uuid : filter.getCategoryUuids()) {
+            final Integer ordinal = categoryOrdinals.get(uuid);
+            if (ordinal != null) {
+                selectedCategories.add(ordinal);
+            }
+        }
+        final long[] byCategory = filter.getCategoryUuids().isEmpty() ? null : restaurantFacets.categories(selectedCategories);
+        final long[] byItemType = restaurantFacets.itemTypes(filter.getItemTypes());
+        final long[] byPriceBand = restaurantFacets.priceBands(filter.getPriceBands());
+        final long[] byRating = filter.getMinRating() == null ? null : ratedAtLeast(filter.getMinRating(), merged);
+
+        //Highest rating first: in the order of this snapshot, with the merged restaurants then moved to their places.
+        final long[] matchingSet = restaurantFacets.and(byCategory, byItemType, byPriceBand, byRating);
+        int[] matching = RestaurantFacetIndex.ordinals(matchingSet);
+        final int[] ranks = new int[matching.length];
+        for (int i = 0; i < matching.length; i++) {
+            ranks[i] = ratingRanks[matching[i]];
+        }
+        Arrays.sort(ranks);
+        for (int i = 0; i < ranks.length; i++) {
+            matching[i] = restaurantOrders.byRating[ranks[i]];
+        }
+        final int[] mergedMatching = merged.keySet().stream().filter(ordinal -> contains(matchingSet, ordinal)).mapToInt(Integer::intValue).toArray();
+        if (mergedMatching.length > 0) {
+            final long[] moved = new long[(restaurants.length + 63) >>> 6];
+            for (int ordinal : mergedMatching) {
+                moved[ordinal >>> 6] |= 1L << ordinal;
+            }
+            matching = RestaurantOrders.move(matching, mergedMatching, moved,
+                    Comparator.<Integer>comparingDouble(ordinal -> rating(ordinal, merged)).reversed().thenComparing(ordinal -> ordinal));
+        }
+
+        //Each facet is counted with the filter on the other facets only.
+        final long[] otherThanCategory = restaurantFacets.and(byItemType, byPriceBand, byRating);
+        final Map<CategoryEntity, Integer> categoryCounts = new LinkedHashMap<>();
+        for (int category = 0; category < categories.length; category++) {
+            final int count = restaurantFacets.countCategory(otherThanCategory, category);
+            if (count > 0) {
+                categoryCounts.put(categories[category], count);
+            }
+        }
+
+        final long[] otherThanItemType = restaurantFacets.and(byCategory, byPriceBand, byRating);
+        final Map<ItemType, Integer> itemTypeCounts = new EnumMap<>(ItemType.class);
+        for (ItemType itemType : ItemType.values()) {
+            final int count = restaurantFacets.countItemType(otherThanItemType, itemType);
+            if (count > 0) {
+                itemTypeCounts.put(itemType, count);
+            }
+        }
+
+        final long[] otherThanPriceBand = restaurantFacets.and(byCategory, byItemType, byRating);
+        final Map<PriceBand, Integer> priceBandCounts = new LinkedHashMap<>();
+        for (PriceBand priceBand : restaurantFacets.getPriceBands()) {
+            priceBandCounts.put(priceBand, restaurantFacets.countPriceBand(otherThanPriceBand, priceBand.getIndex()));
+        }
+
+        final double[] ratingFloors = restaurantFacets.getRatingFloors();
+        final int[] ratingFloorCounts = new int[ratingFloors.length];
+        final long[] otherThanRating = restaurantFacets.and(byCategory, byItemType, byPriceBand);
+        for (int restaurant : RestaurantFacetIndex.ordinals(otherThanRating)) {
+            countRatingFloors(ratingFloorCounts, ratingFloors, restaurants[restaurant].getCustomerRating(), 1);
+        }
+        for (Map.Entry<Integer, RestaurantEntity> entry : merged.entrySet()) {
+            if (contains(otherThanRating, entry.getKey())) {
+                countRatingFloors(ratingFloorCounts, ratingFloors, restaurants[entry.getKey()].getCustomerRating(), -1);
+                countRatingFloors(ratingFloorCounts, ratingFloors, entry.getValue().getCustomerRating(), 1);
+            }
+        }
+        final Map<Double, Integer> ratingCounts = new LinkedHashMap<>();
+        for (int floor = 0; floor < ratingFloors.length; floor++) {
+            ratingCounts.put(ratingFloors[floor], ratingFloorCounts[floor]);
+        }
+
+        return new RestaurantFacets(merged.isEmpty() ? new OrdinalList<>(restaurants, matching) : new MergedOrdinalList(restaurants, matching, merged),
+                categoryCounts, itemTypeCounts, priceBandCounts, ratingCounts);
+    }
+
+    //Adds the change to the count of every floor the rating reaches.
+    private static void countRatingFloors(final int[] ratingFloorCounts, final double[] ratingFloors, final double rating, final int change) {
+        for (int floor = 0; floor < ratingFloors.length && rating >= ratingFloors[floor]; floor++) {
+            ratingFloorCounts[floor] += change;
+        }
+    }
+
+    private double rating(final int ordinal, final Map<Integer, RestaurantEntity> merged) {
+        final RestaurantEntity restaurant = merged.get(ordinal);
+        return (restaurant == null ? restaurants[ordinal] : restaurant).getCustomerRating();
+    }
+
+    //Restaurants rated at least the given rating: a leading run of the rating order, with the merged restaurants then
+    //added or removed by their merged rating.
+    private long[] ratedAtLeast(final double minRating, final Map<Integer, RestaurantEntity> merged) {
+        final int[] byRating = restaurantOrders.byRating;
+        int count = 0;
+        while (count < byRating.length && restaurants[byRating[count]].getCustomerRating() >= minRating) {
+            count++;
+        }
+        final long[] rated = restaurantFacets.restaurants(byRating, count);
+        for (Map.Entry<Integer, RestaurantEntity> entry : merged.entrySet()) {
+            final int ordinal = entry.getKey();
+            if (entry.getValue().getCustomerRating() >= minRating) {
+                rated[ordinal >>> 6] |= 1L << ordinal;
+            } else {
+                rated[ordinal >>> 6] &= ~(1L << ordinal);
+            }
+        }
+        return rated;
+    }
+
+    /**
+     * @param latitude      latitude of the point, in degrees.
+     * @param longitude     longitude of the point, in degrees.
+     * @param limit         number of restaurants wanted.
+     * @param maxDistanceKm distance beyond which restaurants are left out, in kilometres.
+     * @return up to limit restaurants nearest to the point, nearest first and then in name order. Restaurants whose
+     * address has no coordinates are never found.
+     */
+    public List<NearbyRestaurant> getRestaurantsNear(final double latitude, final double longitude, final int limit, final double maxDistanceKm) {
+        final int[] nearest = restaurantLocations.nearest(latitude, longitude, limit, maxDistanceKm);
+        final List<NearbyRestaurant> nearby = new ArrayList<>(nearest.length);
+        for (int ordinal : nearest) {
+            nearby.add(new NearbyRestaurant(restaurants[ordinal], restaurantLocations.distanceKm(ordinal, latitude, longitude)));
+        }
+        return nearby;
+    }
+
+    /**
+     * @param prefix text typed so far, already lower-cased.
+     * @return up to limit restaurants with a word of the name starting with the text, highest rating first.
+     */
+    public List<RestaurantEntity> getRestaurantCompletions(final String prefix, final int limit) {
+        return new OrdinalList<>(restaurants, restaurantCompletions.complete(prefix, limit));
+    }
+
+    /**
+     * @param prefix text typed so far, already lower-cased.
+     * @return up to limit items with a word of the name starting with the text, most ordered first.
+     */
+    public List<ItemEntity> getItemCompletions(final String prefix, final int limit) {
+        return new OrdinalList<>(items, itemCompletions.complete(prefix, limit));
+    }
+
+    /**
+     * @return the restaurants of the category in name order, or an empty list for an unknown category.
+     */
+    public List<RestaurantEntity> getRestaurantsByCategory(final String categoryUuid) {
+        final Integer ordinal = categoryOrdinals.get(categoryUuid);
+        return ordinal == null ? Collections.emptyList() : new OrdinalList<>(restaurants, restaurantsOfCategory[ordinal]);
+    }
+
+    /**
+     * @return the categories of the restaurant in name order, or an empty list for an unknown restaurant.
+     */
+    public List<CategoryEntity> getCategoriesByRestaurant(final String restaurantUuid) {
+        final Integer ordinal = restaurantOrdinals.get(restaurantUuid);
+        return ordinal == null ? Collections.emptyList() : new OrdinalList<>(categories, categoriesOfRestaurant[ordinal]);
+    }
+
+    /**
+     * @return the items of the category in name order, or an empty list for an unknown category.
+     */
+    public List<ItemEntity> getItemsByCategory(final String categoryUuid) {
+        final Integer ordinal = categoryOrdinals.get(categoryUuid);
+        return ordinal == null ? Collections.emptyList() : new OrdinalList<>(items, itemsOfCategory[ordinal]);
+    }
+
+    /**
+     * @return the items the restaurant serves in the category, in name order.
+     */
+    public List<ItemEntity> getItemsByCategoryAndRestaurant(final String restaurantUuid, final String categoryUuid) {
+        final Integer restaurant = restaurantOrdinals.get(restaurantUuid);
+        final Integer category = categoryOrdinals.get(categoryUuid);
+        if (restaurant == null || category == null) {
+            return Collections.emptyList();
+        }
+        return new OrdinalList<>(items, intersect(itemsOfRestaurant[restaurant], itemsOfCategory[category]));
+    }
+
+    /**
+     * @return the restaurant with its categories and the items it serves in each, all in name order, or null for an
+     * unknown restaurant. The details carry the version of the catalog in which they last changed.
+     */
+    public RestaurantDetails getRestaurantDetails(final String restaurantUuid) {
+        final Integer restaurant = restaurantOrdinals.get(restaurantUuid);
+        return restaurant == null ? null : getRestaurantDetails(restaurant);
+    }
+
+    private RestaurantDetails getRestaurantDetails(final int restaurant) {
+        return details(restaurants, categories, items, categoriesOfRestaurant, itemsOfRestaurant, itemsOfCategory, restaurant,
+                restaurantVersions[restaurant]);
+    }
+
+    private static RestaurantDetails details(final RestaurantEntity[] restaurants, final CategoryEntity[] categories, final ItemEntity[] items,
+                                             final int[][] categoriesOfRestaurant, final int[][] itemsOfRestaurant,
+                                             final int[][] itemsOfCategory, final int restaurant, final long version) {
+        final Map<CategoryEntity, List<ItemEntity>> itemsByCategory = new LinkedHashMap<>();
+        for (int category : categoriesOfRestaurant[restaurant]) {
+            itemsByCategory.put(categories[category], new OrdinalList<>(items, intersect(itemsOfRestaurant[restaurant], itemsOfCategory[category])));
+        }
+        return new RestaurantDetails(restaurants[restaurant], itemsByCategory, version, 0);
+    }
+
+    /**
+     * @return up to limit items ordered from the restaurant, most ordered first.
+     */
+    public List<ItemEntity> getItemsByPopularity(final String restaurantUuid, final int limit) {
+        final Integer ordinal = restaurantOrdinals.get(restaurantUuid);
+        if (ordinal == null) {
+            return Collections.emptyList();
+        }
+        final int[] popular = popularItemsOfRestaurant[ordinal];
+        return new OrdinalList<>(items, popular.length <= limit ? popular : Arrays.copyOf(popular, limit));
+    }
+
+    public int getRestaurantCount() {
+        return restaurants.length;
+    }
+
+    public int getLocatedRestaurantCount() {
+        return restaurantLocations.getLocatedCount();
+    }
+
+    public int getRestaurantNameTrigramCount() {
+        return restaurantNames.getTrigramCount();
+    }
+
+    public int getCompletionKeyCount() {
+        return restaurantCompletions.getKeyCount() + itemCompletions.getKeyCount();
+    }
+
+    /**
+     * The orders the restaurant listing can be sorted in, as restaurant ordinals each in its default direction, with
+     * ties in name order.
+     */
+    private static final class RestaurantOrders {
+
+        private final int[] byRating;
+        private final int[] byPrice;
+        private final int[] byCustomersRated;
+        private final int[] byName;
+
+        private RestaurantOrders(final int[] byRating, final int[] byPrice, final int[] byCustomersRated, final int[] byName) {
+            this.byRating = byRating;
+            this.byPrice = byPrice;
+            this.byCustomersRated = byCustomersRated;
+            this.byName = byName;
+        }
+
+        static RestaurantOrders build(final RestaurantEntity[] restaurants) {
+            return new RestaurantOrders(sort(restaurants.length, byRating(restaurants)), sort(restaurants.length, byPrice(restaurants)),
+                    sort(restaurants.length, byCustomersRated(restaurants)), IntStream.range(0, restaurants.length).toArray());
+        }
+
+        //The name and the price of a restaurant are not changed without a reload, so only the other orders are touched.
+        RestaurantOrders withRestaurants(final RestaurantEntity[] restaurants, final int[] ordinals, final long[] moved) {
+            return new RestaurantOrders(move(byRating, ordinals, moved, byRating(restaurants)), byPrice,
+                    move(byCustomersRated, ordinals, moved, byCustomersRated(restaurants)), byName);
+        }
+
+        int[] get(final RestaurantSortOrder sortOrder) {
+            switch (sortOrder) {
+                case PRICE:
+                    return byPrice;
+                case CUSTOMERS_RATED:
+                    return byCustomersRated;
+                case NAME:
+                    return byName;
+                default:
+                    return byRating;
+            }
+        }
+
+        private static Comparator<Integer> byRating(final RestaurantEntity[] restaurants) {
+            return Comparator.<Integer>comparingDouble(i -> restaurants[i].getCustomerRating()).reversed().thenComparing(i -> i);
+        }
+
+        private static Comparator<Integer> byPrice(final RestaurantEntity[] restaurants) {
+            return Comparator.<Integer>comparingInt(i -> restaurants[i].getAveragePriceForTwo()).thenComparing(i -> i);
+        }
+
+        private static Comparator<Integer> byCustomersRated(final RestaurantEntity[] restaurants) {
+            return Comparator.<Integer>comparingInt(i -> restaurants[i].getNumber0fCustomersRated()).reversed().thenComparing(i -> i);
+        }
+
+        private static int[] sort(final int size, final Comparator<Integer> comparator) {
+            return IntStream.range(0, size).boxed().sorted(comparator).mapToInt(Integer::intValue).toArray();
+        }
+
+        //Copy of the order with the given ordinals, flagged in moved, placed where the comparator now puts them. The
+        //other ordinals keep their order, and each moved one is placed by binary search among them.
+        private static int[] move(final int[] order, final int[] ordinals, final long[] moved, final Comparator<Integer> comparator) {
+            final int[] rest = new int[order.length - ordinals.length];
+            int size = 0;
+            for (int ordinal : order) {
+                if (!contains(moved, ordinal)) {
+                    rest[size++] = ordinal;
+                }
+            }
+            final Integer[] placed = new Integer[ordinals.length];
+            for (int i = 0; i < ordinals.length; i++) {
+                placed[i] = ordinals[i];
+            }
+            Arrays.sort(placed, comparator);
+
+            final int[] result = new int[order.length];
+            int from = 0;
+            int to = 0;
+            for (Integer ordinal : placed) {
+                int lo = from;
+                int hi = rest.length;
+                while (lo < hi) {
+                    final int mid = (lo + hi) >>> 1;
+                    if (comparator.compare(rest[mid], ordinal) < 0) {
+                        lo = mid + 1;
+                    } else {
+                        hi = mid;
+                    }
+                }
+                System.arraycopy(rest, from, result, to, lo - from);
+                to += lo - from;
+                from = lo;
+                result[to++] = ordinal;
+            }
+            System.arraycopy(rest, from, result, to, rest.length - from);
+            return result;
+        }
+    }
+
+    //Read-only view of the entities at the given ordinals, last to first.
+    private static final class ReversedOrdinalList<T> extends AbstractList<T> implements RandomAccess {
+
+        private final T[] entities;
+
+        private final int[] ordinals;
+
+        private ReversedOrdinalList(final T[] entities, final int[] ordinals) {
+            this.entities = entities;
+            this.ordinals = ordinals;
+        }
+
+        @Override
+        public T get(final int index) {
+            return entities[ordinals[ordinals.length - 1 - index]];
+        }
+
+        @Override
+        public int size() {
+            return ordinals.length;
+        }
+    }
+
+    //Read-only view of the restaurants at the given ordinals, with the merged state of those that have one.
+    private static final class MergedOrdinalList extends AbstractList<RestaurantEntity> implements RandomAccess {
+
+        private final RestaurantEntity[] restaurants;
+
+        private final int[] ordinals;
+
+        private final Map<Integer, RestaurantEntity> merged;
+
+        private MergedOrdinalList(final RestaurantEntity[] restaurants, final int[] ordinals, final Map<Integer, RestaurantEntity> merged) {
+            this.restaurants = restaurants;
+            this.ordinals = ordinals;
+            this.merged = merged;
+        }
+
+        @Override
+        public RestaurantEntity get(final int index) {
+            final RestaurantEntity restaurant = merged.get(ordinals[index]);
+            return restaurant == null ? restaurants[ordinals[index]] : restaurant;
+        }
+
+        @Override
+        public int size() {
+            return ordinals.length;
+        }
+    }
+
+    //Read-only view of the entities at the given ordinals.
+    private static final class OrdinalList<T> extends AbstractList<T> implements RandomAccess {
+
+        private final T[] entities;
+
+        private final int[] ordinals;
+
+        private OrdinalList(final T[] entities, final int[] ordinals) {
+            this.entities = entities;
+            this.ordinals = ordinals;
+        }
+
+        @Override
+        public T get(final int index) {
+            return entities[ordinals[index]];
+        }
+
+        @Override
+        public int size() {
+            return ordinals.length;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.dao.CatalogDao;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * CatalogCache serves restaurants, categories and items from an in-memory Catalog snapshot. A reload reads the whole
+ * catalog into a new snapshot and a change to restaurants copies the current snapshot with those restaurants replaced;
+ * either way the new snapshot is swapped in atomically, so readers see the old or the new catalog and never a mix.
+ * Reloads run at startup, periodically, and on demand over JMX.
+ */
+@Component
+@ManagedResource(objectName = "FoodOrderingApp:type=CatalogCache", description = "Restaurants, categories and items")
+public class CatalogCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogCache.class);
+
+    @Autowired
+    private CatalogDao catalogDao;
+
+    private final AtomicReference<Catalog> snapshot = new AtomicReference<>(Catalog.EMPTY);
+
+    private final AtomicLong versions = new AtomicLong();
+
+    //Held while a new snapshot is built, so a reload and a change do not overwrite each other.
+    private final Object updateLock = new Object();
+
+    private final int[] priceBandBounds;
+
+    private final double[] ratingFloors;
+
+    private final double cellDegrees;
+
+    public CatalogCache(@Value("${foodorderingapp.catalog.price-bands:300,600,1000}") final int[] priceBandBounds,
+                        @Value("${foodorderingapp.catalog.rating-floors:3.0,3.5,4.0,4.5}") final double[] ratingFloors,
+                        @Value("${foodorderingapp.catalog.cell-size-degrees:0.02}") final double cellDegrees) {
+        this.priceBandBounds = priceBandBounds.clone();
+        this.ratingFloors = ratingFloors.clone();
+        Arrays.sort(this.priceBandBounds);
+        Arrays.sort(this.ratingFloors);
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * @return the current snapshot, loading it first if no reload has succeeded yet.
+     */
+    public Catalog get() {
+        final Catalog current = snapshot.get();
+        if (current.getVersion() != 0L) {
+            return current;
+        }
+        synchronized (updateLock) {
+            return snapshot.get().getVersion() != 0L ? snapshot.get() : reload();
+        }
+    }
+
+    @ManagedOperation(description = "Reads the catalog tables again and swaps in the new snapshot")
+    public Catalog reload() {
+        synchronized (updateLock) {
+            final Catalog reloaded = Catalog.build(versions.incrementAndGet(), catalogDao.getAllRestaurantsOrderedByName(),
+                    catalogDao.getAllCategoriesOrderedByName(), catalogDao.getAllItemsOrderedByName(), catalogDao.getRestaurantCategoryIds(),
+                    catalogDao.getRestaurantItemIds(), catalogDao.getCategoryItemIds(), catalogDao.getItemOrderCounts(),
+                    priceBandBounds, ratingFloors, cellDegrees, snapshot.get());
+            snapshot.set(reloaded);
+            return reloaded;
+        }
+    }
+
+    /**
+     * Swaps in one copy of the current snapshot with all the given restaurants replaced, or reloads the whole catalog if
+     * the change cannot be applied to the snapshot on its own.
+     *
+     * @param restaurants restaurants as just written to the database, with their address and state.
+     */
+    public void replaceRestaurants(final List<RestaurantEntity> restaurants) {
+        if (restaurants.isEmpty()) {
+            return;
+        }
+        synchronized (updateLock) {
+            final Catalog changed = get().withRestaurants(versions.incrementAndGet(), restaurants);
+            if (changed == null) {
+                reload();
+            } else {
+                snapshot.set(changed);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${foodorderingapp.catalog.reload-interval-millis:300000}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            //Keep serving the previous snapshot.
+            LOG.warn("Could not reload the catalog", e);
+        }
+    }
+
+    @ManagedAttribute(description = "Version of the snapshot being served, 0 before the first load")
+    public long getVersion() {
+        return snapshot.get().getVersion();
+    }
+
+    @ManagedAttribute(description = "Number of restaurants in the snapshot being served")
+    public int getRestaurantCount() {
+        return snapshot.get().getRestaurantCount();
+    }
+
+    @ManagedAttribute(description = "Number of restaurants with coordinates in the snapshot being served")
+    public int getLocatedRestaurantCount() {
+        return snapshot.get().getLocatedRestaurantCount();
+    }
+
+    @ManagedAttribute(description = "Number of distinct trigrams in the restaurant name index being served")
+    public int getRestaurantNameTrigramCount() {
+        return snapshot.get().getRestaurantNameTrigramCount();
+    }
+
+    @ManagedAttribute(description = "Number of keys in the restaurant and item name completion indexes being served")
+    public int getCompletionKeyCount() {
+        return snapshot.get().getCompletionKeyCount();
+    }
+}
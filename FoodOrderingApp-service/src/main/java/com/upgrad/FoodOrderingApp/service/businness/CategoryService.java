@@ -0,0 +1,48 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.exception.CategoryNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class CategoryService {
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    public List<CategoryEntity> getAllCategoriesOrderedByName() {
+        return referenceDataCache.get().getCategories();
+    }
+
+    public ContentVersion getCategoriesVersion() {
+        return referenceDataCache.get().getCategoriesVersion();
+    }
+
+    /**
+     * @return the categories of the restaurant in name order, empty for an unknown restaurant.
+     */
+    public List<CategoryEntity> getCategoriesByRestaurant(String restaurantId) {
+        return catalogCache.get().getCategoriesByRestaurant(restaurantId);
+    }
+
+    public CategoryEntity getCategoryById(String categoryId) throws CategoryNotFoundException {
+
+        if (categoryId == null || categoryId.isEmpty()) {
+            throw new CategoryNotFoundException("CNF-001", "Category id field should not be empty");
+        }
+
+        CategoryEntity categoryEntity = referenceDataCache.get().getCategoryByUuid(categoryId);
+
+        if (categoryEntity == null) {
+            throw new CategoryNotFoundException("CNF-002", "No category by this id");
+        }
+
+        return categoryEntity;
+    }
+}
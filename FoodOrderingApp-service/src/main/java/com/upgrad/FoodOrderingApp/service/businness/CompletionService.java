@@ -0,0 +1,64 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * CompletionService completes the restaurant and item names typed into the search box, from the name completion
+ * indexes of the catalog snapshot.
+ */
+@Service
+public class CompletionService {
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    private final int defaultLimit;
+
+    private final int maxLimit;
+
+    public CompletionService(@Value("${foodorderingapp.completion.limit:5}") final int defaultLimit,
+                             @Value("${foodorderingapp.completion.max-limit:20}") final int maxLimit) {
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * @param prefix text typed so far, in any case.
+     * @param limit  number of restaurants wanted, or null for the default. It is capped at the maximum.
+     * @return the restaurants with a word of the name starting with the text, highest rating first; empty for blank text.
+     */
+    public List<RestaurantEntity> getRestaurantCompletions(String prefix, Integer limit) {
+
+        String text = normalize(prefix);
+        return text.isEmpty() ? Collections.emptyList() : catalogCache.get().getRestaurantCompletions(text, limit(limit));
+
+    }
+
+    /**
+     * @param prefix text typed so far, in any case.
+     * @param limit  number of items wanted, or null for the default. It is capped at the maximum.
+     * @return the items with a word of the name starting with the text, most ordered first; empty for blank text.
+     */
+    public List<ItemEntity> getItemCompletions(String prefix, Integer limit) {
+
+        String text = normalize(prefix);
+        return text.isEmpty() ? Collections.emptyList() : catalogCache.get().getItemCompletions(text, limit(limit));
+
+    }
+
+    private static String normalize(String prefix) {
+        return prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private int limit(Integer limit) {
+        return limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+    }
+}
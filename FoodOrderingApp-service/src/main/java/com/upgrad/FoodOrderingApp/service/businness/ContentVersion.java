@@ -0,0 +1,95 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.common.GenericErrorCode;
+import com.upgrad.FoodOrderingApp.service.common.UnexpectedException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * ContentVersion identifies one state of some content served from memory, such as the list of states or the
+ * restaurants of the catalog, and its tag is the same for as long as the content is. Content read only from the
+ * database is tagged by a digest of what the endpoint returns, so every instance serving the same rows hands out the
+ * same tag. Content that also holds state kept in the memory of one instance, such as ratings not yet written, is
+ * tagged by the counters that change whenever it does. Those counters start over when the application restarts and
+ * differ between instances, so such a tag also carries the time the instance started: it never matches content of
+ * another instance or after a restart, which costs a full response but never a wrong 304. The time the content last
+ * changed is known for content that only a reload changes, and 0 otherwise.
+ */
+public final class ContentVersion {
+
+    private static final String STARTED = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    //Half of a SHA-256 is plenty to tell versions of one endpoint apart.
+    private static final int DIGEST_BYTES = 16;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        }
+    });
+
+    private final String tag;
+
+    private final long modifiedMillis;
+
+    /**
+     * Version of content that holds state of this instance, tagged by the instance and the given counters.
+     */
+    ContentVersion(final long modifiedMillis, final long... counters) {
+        final StringBuilder tag = new StringBuilder(STARTED);
+        for (long counter : counters) {
+            tag.append('-').append(counter);
+        }
+        this.tag = tag.toString();
+        this.modifiedMillis = modifiedMillis;
+    }
+
+    private ContentVersion(final String tag, final long modifiedMillis) {
+        this.tag = tag;
+        this.modifiedMillis = modifiedMillis;
+    }
+
+    /**
+     * Version of content read only from the database, tagged by a digest of the given fields of every entity.
+     *
+     * @param fields the fields of an entity that the endpoint returns.
+     */
+    static <T> ContentVersion ofContent(final long modifiedMillis, final List<T> entities, final Function<T, List<Object>> fields) {
+        final MessageDigest digest = SHA_256.get();
+        for (T entity : entities) {
+            for (Object field : fields.apply(entity)) {
+                //Each field ends with a byte no UTF-8 text holds, so fields cannot run into each other.
+                digest.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0xFF);
+            }
+            digest.update((byte) 0xFE);
+        }
+        final byte[] bytes = digest.digest();
+        final char[] hex = new char[DIGEST_BYTES * 2];
+        for (int i = 0; i < DIGEST_BYTES; i++) {
+            final int v = bytes[i] & 0xFF;
+            hex[i * 2] = HEX[v >>> 4];
+            hex[i * 2 + 1] = HEX[v & 0x0F];
+        }
+        return new ContentVersion(new String(hex), modifiedMillis);
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * @return when the content last changed, in milliseconds since the epoch, or 0 when it is not known.
+     */
+    public long getModifiedMillis() {
+        return modifiedMillis;
+    }
+}
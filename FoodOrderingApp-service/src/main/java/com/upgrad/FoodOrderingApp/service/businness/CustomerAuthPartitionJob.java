@@ -0,0 +1,86 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.dao.CustomerAuthPartitionDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * CustomerAuthPartitionJob runs at startup and then periodically. It creates the daily CUSTOMER_AUTH partitions for the
+ * coming days, so logins never land in the default partition, and detaches and drops the partitions whose sessions have
+ * all expired. Rows already in the default partition are moved into the partition of their day when it is created, and
+ * the expired ones left there are deleted. Each partition is handled in its own transaction, so one failure does not
+ * hold back the others.
+ */
+@Component
+public class CustomerAuthPartitionJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CustomerAuthPartitionJob.class);
+
+    @Autowired
+    private CustomerAuthPartitionService customerAuthPartitionService;
+
+    private final boolean enabled;
+
+    private final int daysAhead;
+
+    public CustomerAuthPartitionJob(@Value("${foodorderingapp.customer-auth-partitions.enabled:true}") final boolean enabled,
+                                    @Value("${foodorderingapp.customer-auth-partitions.days-ahead:3}") final int daysAhead) {
+        this.enabled = enabled;
+        this.daysAhead = daysAhead;
+    }
+
+    @Scheduled(fixedDelayString = "${foodorderingapp.customer-auth-partitions.interval-millis:3600000}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+
+        final Set<LocalDate> existing = new HashSet<>();
+        for (String partitionName : customerAuthPartitionService.getPartitionNames()) {
+            final LocalDate day = CustomerAuthPartitionDao.partitionDay(partitionName);
+            if (day == null) {
+                continue;
+            }
+            existing.add(day);
+            if (customerAuthPartitionService.isExpired(day)) {
+                try {
+                    customerAuthPartitionService.dropPartition(day);
+                    LOG.info("Dropped expired CUSTOMER_AUTH partition {}", partitionName);
+                } catch (RuntimeException e) {
+                    LOG.warn("Could not drop CUSTOMER_AUTH partition {}", partitionName, e);
+                }
+            }
+        }
+
+        try {
+            final int purged = customerAuthPartitionService.purgeDefaultPartition();
+            if (purged > 0) {
+                LOG.info("Deleted {} expired rows from the default CUSTOMER_AUTH partition", purged);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Could not purge the default CUSTOMER_AUTH partition", e);
+        }
+
+        final LocalDate today = LocalDate.now();
+        for (int i = 0; i <= daysAhead; i++) {
+            final LocalDate day = today.plusDays(i);
+            if (existing.contains(day)) {
+                continue;
+            }
+            try {
+                customerAuthPartitionService.createPartition(day);
+                LOG.info("Created CUSTOMER_AUTH partition {}", CustomerAuthPartitionDao.partitionName(day));
+            } catch (RuntimeException e) {
+                LOG.warn("Could not create CUSTOMER_AUTH partition {}", CustomerAuthPartitionDao.partitionName(day), e);
+            }
+        }
+    }
+}
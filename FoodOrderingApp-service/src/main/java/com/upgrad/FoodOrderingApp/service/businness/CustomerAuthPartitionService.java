@@ -0,0 +1,72 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.dao.CustomerAuthPartitionDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * CustomerAuthPartitionService decides which CUSTOMER_AUTH rows are still of interest. A session expires
+ * SESSION_DURATION after login and its row is kept for the configured retention after that, so that an expired token
+ * is still reported as expired rather than unknown. Rows that logged in before the resulting horizon are never read,
+ * the daily partitions that only hold such rows are dropped and such rows in the default partition are deleted.
+ */
+@Service
+public class CustomerAuthPartitionService {
+
+    public static final Duration SESSION_DURATION = Duration.ofHours(8);
+
+    @Autowired
+    private CustomerAuthPartitionDao customerAuthPartitionDao;
+
+    private final Duration retention;
+
+    public CustomerAuthPartitionService(@Value("${foodorderingapp.customer-auth-partitions.retention-hours:24}") final long retentionHours) {
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    /**
+     * @return login time before which no CUSTOMER_AUTH row needs to be read.
+     */
+    public ZonedDateTime getLoginHorizon() {
+        return ZonedDateTime.now().minus(SESSION_DURATION).minus(retention);
+    }
+
+    /**
+     * @param day day the partition is for.
+     * @return true if every row the partition can hold logged in before the horizon.
+     */
+    public boolean isExpired(final LocalDate day) {
+        return !day.plusDays(1).atStartOfDay(ZoneId.systemDefault()).isAfter(getLoginHorizon());
+    }
+
+    public List<String> getPartitionNames() {
+        return customerAuthPartitionDao.getPartitionNames();
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void createPartition(final LocalDate day) {
+        customerAuthPartitionDao.createPartition(day);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void dropPartition(final LocalDate day) {
+        customerAuthPartitionDao.dropPartition(day);
+    }
+
+    /**
+     * @return number of rows deleted from the default partition because they logged in before the horizon.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int purgeDefaultPartition() {
+        return customerAuthPartitionDao.purgeDefaultPartition(getLoginHorizon().toLocalDateTime());
+    }
+}
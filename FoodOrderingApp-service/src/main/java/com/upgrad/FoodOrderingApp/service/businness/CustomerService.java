@@ -15,8 +15,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
 public class CustomerService {
@@ -27,61 +25,83 @@ public class CustomerService {
     @Autowired
     private PasswordCryptographyProvider passwordCryptographyProvider;
 
+    @Autowired
+    private InputValidator inputValidator;
+
+    @Autowired
+    private SessionCache sessionCache;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private CustomerAuthPartitionService customerAuthPartitionService;
+
 
     @Transactional(propagation = Propagation.REQUIRED)
     public CustomerEntity saveCustomer(CustomerEntity customerEntity) throws SignUpRestrictedException {
 
+        validateSignup(customerEntity);
+        encryptPassword(customerEntity);
+        return createCustomer(customerEntity);
+    }
+
+    //Signup is done in three steps, so that only the hashing runs on the PasswordHashingExecutor: validateSignup on the
+    //request thread, encryptPassword on a hashing thread and createCustomer once the hash is done.
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void validateSignup(CustomerEntity customerEntity) throws SignUpRestrictedException {
 
         CustomerEntity customerEntity1 = customerDao.getCustomerByContactNumber(customerEntity.getContactNumber());
         if (customerEntity1 != null) {
             throw new SignUpRestrictedException("SGR-001", "This contact number is already registered! Try other contact number.");
         }
 
-        String emailValidation = "^(.+)@(.+)$";
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(emailValidation);
-        Matcher matcher = pattern.matcher(customerEntity.getEmail());
-        if (!matcher.matches()) {
+        if (!inputValidator.isValidEmail(customerEntity.getEmail())) {
             throw new SignUpRestrictedException("SGR-002", "Invalid email-id format!");
         }
 
-        String contactValidation = "[0-9]{10}";
-        java.util.regex.Pattern pattern1 = java.util.regex.Pattern.compile(contactValidation);
-        Matcher matcher1 = pattern1.matcher(customerEntity.getContactNumber());
-
-        if (!matcher1.matches()) {
+        if (!inputValidator.isValidContactNumber(customerEntity.getContactNumber())) {
             throw new SignUpRestrictedException("SGR-003", "Invalid contact number!");
         }
 
 
-        String passwordStrengthValidation = "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[#@$%&*!^])(?=\\S+$).{8,}$";
-        java.util.regex.Pattern pattern2 = java.util.regex.Pattern.compile(passwordStrengthValidation);
-        Matcher matcher2 = pattern2.matcher(customerEntity.getPassword());
-        if (!matcher2.matches()) {
+        if (!inputValidator.isStrongPassword(customerEntity.getPassword())) {
             throw new SignUpRestrictedException("SGR-004", "Weak Password");
         }
+    }
+
+    //Replaces the raw password of the customer with its salt and hash. CPU only, no database access.
+    public void encryptPassword(CustomerEntity customerEntity) {
 
         String[] encryptedText = passwordCryptographyProvider.encrypt(customerEntity.getPassword());
         customerEntity.setSalt(encryptedText[0]);
         customerEntity.setPassword(encryptedText[1]);
-
-        return customerDao.createCustomer(customerEntity);
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
-    public CustomerAuthEntity authenticate(String username, String password) throws AuthenticationFailedException {
+    public CustomerEntity createCustomer(CustomerEntity customerEntity) throws SignUpRestrictedException {
 
-        String userNameValidation = "^(.+)@(.+)$";
-        Pattern pattern = Pattern.compile(userNameValidation);
-        Matcher matcher = pattern.matcher(username);
+        //The contact number may have been registered while the password was being hashed.
+        if (customerDao.getCustomerByContactNumber(customerEntity.getContactNumber()) != null) {
+            throw new SignUpRestrictedException("SGR-001", "This contact number is already registered! Try other contact number.");
+        }
 
-        String passwordValidation = "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[#@$%&*!^])(?=\\S+$).{8,}$";
-        Pattern pattern1 = Pattern.compile(passwordValidation);
-        Matcher matcher1 = pattern1.matcher(password);
+        return customerDao.createCustomer(customerEntity);
+    }
 
+    @Transactional(propagation = Propagation.REQUIRED)
+    public CustomerAuthEntity authenticate(String username, String password) throws AuthenticationFailedException {
 
+        CustomerEntity customerEntity = getCustomerForLogin(username, password);
+        return createCustomerAuth(customerEntity, verifyPassword(customerEntity, password));
+    }
 
+    //Login is done in three steps, so that only the verification runs on the PasswordHashingExecutor: getCustomerForLogin
+    //on the request thread, verifyPassword on a hashing thread and createCustomerAuth once the password is verified.
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public CustomerEntity getCustomerForLogin(String username, String password) throws AuthenticationFailedException {
 
-        if (!matcher.matches() || !matcher1.matches()) {
+        if (!inputValidator.isValidEmail(username) || !inputValidator.isStrongPassword(password)) {
             throw new AuthenticationFailedException("ATH-003", "Incorrect format of decoded customer name and password");
         }
 
@@ -91,88 +111,77 @@ public class CustomerService {
             throw new AuthenticationFailedException("ATH-001", "This contact number has not been registered!");
         }
 
-        final String encryptedPassword = PasswordCryptographyProvider.encrypt(password, customerEntity.getSalt());
-
-        if (encryptedPassword.equals(customerEntity.getPassword())) {
-            JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(encryptedPassword);
-
-            CustomerAuthEntity customerAuthEntity = new CustomerAuthEntity();
-            customerAuthEntity.setUuid(UUID.randomUUID().toString());
-            customerAuthEntity.setCustomerId(customerEntity);
-
-            ZonedDateTime now = ZonedDateTime.now();
-            ZonedDateTime expiresAt = now.plusHours(8);
-
-            customerAuthEntity.setLoginAt(ZonedDateTime.now());
-            customerAuthEntity.setExpiresAt(expiresAt);
-            customerAuthEntity.setAccessToken(jwtTokenProvider.generateToken(customerEntity.getUuid(), now, expiresAt));
+        return customerEntity;
+    }
 
+    //Checks the password against the hash of the customer. CPU only, no database access. When the hash was made with an
+    //older algorithm or a lower cost, returns the [salt, hash] that createCustomerAuth replaces it with, otherwise null.
+    public String[] verifyPassword(CustomerEntity customerEntity, String password) throws AuthenticationFailedException {
 
-            return customerDao.createCustomerAuth(customerAuthEntity);
-        } else {
+        if (!passwordCryptographyProvider.matches(password, customerEntity.getPassword(), customerEntity.getSalt())) {
             throw new AuthenticationFailedException("ATH-002", "Invalid Credentials");
         }
-    }
-
-
-    @Transactional(propagation = Propagation.REQUIRED)
-    public CustomerAuthEntity logout(String authorization) throws AuthorizationFailedException {
-
-        String[] accessToken = authorization.split("\\s");
 
-        CustomerAuthEntity customerAuthEntity = customerDao.getCustomerByAccessToken(accessToken[1]);
-
-        if (customerAuthEntity == null) {
-            throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
+        //Upgrade hashes made with an older algorithm or a lower cost while the raw password is at hand.
+        if (passwordCryptographyProvider.needsRehash(customerEntity.getPassword())) {
+            return passwordCryptographyProvider.encrypt(password);
         }
+        return null;
+    }
 
-        ZonedDateTime expireTime = customerAuthEntity.getExpiresAt();
-        ZonedDateTime currentTime = ZonedDateTime.now();
+    @Transactional(propagation = Propagation.REQUIRED)
+    public CustomerAuthEntity createCustomerAuth(CustomerEntity customerEntity, String[] rehash) {
 
-        if (expireTime.isBefore(currentTime)) {
-            throw new AuthorizationFailedException("ATHR-003", "Your session is expired. Log in again to access this endpoint.");
+        //customerEntity was read in an earlier transaction, so only the verified hash is replaced rather than the entity
+        //merged back over changes committed since.
+        if (rehash != null) {
+            customerDao.rehashPassword(customerEntity.getId(), customerEntity.getPassword(), rehash[0], rehash[1]);
         }
 
+        CustomerAuthEntity customerAuthEntity = new CustomerAuthEntity();
+        customerAuthEntity.setUuid(UUID.randomUUID().toString());
+        customerAuthEntity.setCustomerId(customerEntity);
 
-        ZonedDateTime logoutAtTime = customerAuthEntity.getLogoutAt();
-        if (logoutAtTime != null) {
-            throw new AuthorizationFailedException("ATHR-002", "Customer is logged out. Log in again to access this endpoint.");
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime expiresAt = now.plus(CustomerAuthPartitionService.SESSION_DURATION);
 
-        }
+        customerAuthEntity.setLoginAt(now);
+        customerAuthEntity.setExpiresAt(expiresAt);
+        customerAuthEntity.setAccessToken(accessTokenService.generateToken(customerAuthEntity));
 
-        customerAuthEntity.setLogoutAt(ZonedDateTime.now());
-        customerDao.updateCustomerAuth(customerAuthEntity);
 
-        return customerAuthEntity;
+        return customerDao.createCustomerAuth(customerAuthEntity);
     }
 
 
     @Transactional(propagation = Propagation.REQUIRED)
-    public CustomerEntity updateCustomer(String authorization, CustomerEntity customerEntity) throws AuthorizationFailedException, UpdateCustomerException {
+    public CustomerAuthEntity logout(CustomerSession customerSession) throws AuthorizationFailedException {
 
-        CustomerAuthEntity customerAuthEntity = customerDao.getCustomerByAccessToken(authorization);
+        CustomerAuthEntity customerAuthEntity = customerDao.getCustomerAuthByUuid(customerSession.getCustomerAuthUuid(), customerAuthPartitionService.getLoginHorizon());
 
+        //A token can still verify after its row has aged past the login horizon or its partition was dropped.
         if (customerAuthEntity == null) {
-            throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
+            throw new AuthorizationFailedException("ATHR-003", "Your session is expired. Log in again to access this endpoint.");
         }
 
-        ZonedDateTime expireTime = customerAuthEntity.getExpiresAt();
-        ZonedDateTime currentTime = ZonedDateTime.now();
+        customerAuthEntity.setLogoutAt(ZonedDateTime.now());
+        customerDao.updateCustomerAuth(customerAuthEntity);
+        //Both take effect after commit, the revocation first, so the session evicted then cannot be re-cached as valid.
+        accessTokenService.revoke(customerAuthEntity);
+        sessionCache.invalidate(customerSession.getAccessToken());
+
+        return customerAuthEntity;
+    }
 
-        if (expireTime.isBefore(currentTime)) {
-            throw new AuthorizationFailedException("ATHR-003", "Your session is expired. Log in again to access this endpoint.");
-        }
 
-        ZonedDateTime logoutAtTime = customerAuthEntity.getLogoutAt();
-        if (logoutAtTime != null) {
-            throw new AuthorizationFailedException("ATHR-002", "Customer is logged out. Log in again to access this endpoint.");
-        }
+    @Transactional(propagation = Propagation.REQUIRED)
+    public CustomerEntity updateCustomer(CustomerSession customerSession, CustomerEntity customerEntity) throws UpdateCustomerException {
 
         if (customerEntity.getFirstname() == null) {
             throw new UpdateCustomerException("UCR-002", "First name field should not be empty");
         }
 
-        CustomerEntity customerEntity1 = customerAuthEntity.getCustomerId();
+        CustomerEntity customerEntity1 = customerDao.findCustomerById(customerSession.getCustomerId());
         customerEntity1.setFirstname(customerEntity.getFirstname());
         customerEntity1.setLastname(customerEntity.getLastname());
 
@@ -182,48 +191,51 @@ public class CustomerService {
 
 
     @Transactional(propagation = Propagation.REQUIRED)
-    public CustomerEntity updateCustomerPassword(String authorization , CustomerEntity customerEntity , String oldPassword) throws AuthorizationFailedException , UpdateCustomerException {
-
-        CustomerAuthEntity customerAuthEntity = customerDao.getCustomerByAccessToken(authorization);
+    public CustomerEntity updateCustomerPassword(CustomerSession customerSession , CustomerEntity customerEntity , String oldPassword) throws UpdateCustomerException {
 
-        if (customerAuthEntity == null) {
-            throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
-        }
-
-        ZonedDateTime expireTime = customerAuthEntity.getExpiresAt();
-        ZonedDateTime currentTime = ZonedDateTime.now();
-
-        if (expireTime.isBefore(currentTime)) {
-            throw new AuthorizationFailedException("ATHR-003", "Your session is expired. Log in again to access this endpoint.");
-        }
+        CustomerEntity customerEntity1 = getCustomerForPasswordUpdate(customerSession, customerEntity, oldPassword);
+        return changePassword(customerEntity1, encryptNewPassword(customerEntity1, oldPassword, customerEntity.getPassword()));
+    }
 
-        ZonedDateTime logoutAtTime = customerAuthEntity.getLogoutAt();
-        if (logoutAtTime != null) {
-            throw new AuthorizationFailedException("ATHR-002", "Customer is logged out. Log in again to access this endpoint.");
-        }
+    //Changing the password is done in three steps, so that only the hashing runs on the PasswordHashingExecutor:
+    //getCustomerForPasswordUpdate on the request thread, encryptNewPassword on a hashing thread and changePassword once
+    //the hash is done.
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public CustomerEntity getCustomerForPasswordUpdate(CustomerSession customerSession , CustomerEntity customerEntity , String oldPassword) throws UpdateCustomerException {
 
         if(oldPassword == null || customerEntity.getPassword() == null) {
             throw new UpdateCustomerException("UCR-003" , "No field Should be empty");
         }
 
-        String passwordValidation = "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[#@$%&*!^])(?=\\S+$).{8,}$";
-        Pattern pattern = Pattern.compile(passwordValidation);
-        Matcher matcher = pattern.matcher(customerEntity.getPassword());
-
-        if (!matcher.matches()) {
+        if (!inputValidator.isStrongPassword(customerEntity.getPassword())) {
             throw new UpdateCustomerException("UCR-001", "Weak Password");
         }
 
-        CustomerEntity customerEntity1 = customerAuthEntity.getCustomerId();
+        return customerDao.findCustomerById(customerSession.getCustomerId());
+    }
 
-        String encryptedText = passwordCryptographyProvider.encrypt(oldPassword , customerEntity1.getSalt());
+    //Checks the old password and hashes the new one. CPU only, no database access. Returns the [salt, hash] of the new
+    //password.
+    public String[] encryptNewPassword(CustomerEntity customerEntity, String oldPassword, String newPassword) throws UpdateCustomerException {
 
-        if(!encryptedText.equals(customerEntity1.getPassword())) {
+        if(!passwordCryptographyProvider.matches(oldPassword , customerEntity.getPassword() , customerEntity.getSalt())) {
             throw new UpdateCustomerException("UCR-004" , "IncorrectOld Password!");
 
         }
 
-        String[] encrypted = passwordCryptographyProvider.encrypt(customerEntity.getPassword());
+        return passwordCryptographyProvider.encrypt(newPassword);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED)
+    public CustomerEntity changePassword(CustomerEntity customerEntity, String[] encrypted) throws UpdateCustomerException {
+
+        //customerEntity was read in an earlier transaction, so the customer is read again and only its password replaced.
+        //A password changed since the old one was checked no longer matches it.
+        CustomerEntity customerEntity1 = customerDao.findCustomerById(customerEntity.getId());
+        if (!customerEntity1.getPassword().equals(customerEntity.getPassword())) {
+            throw new UpdateCustomerException("UCR-004" , "IncorrectOld Password!");
+        }
+
         customerEntity1.setSalt(encrypted[0]);
         customerEntity1.setPassword(encrypted[1]);
 
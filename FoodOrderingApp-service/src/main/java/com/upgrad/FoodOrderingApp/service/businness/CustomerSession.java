@@ -0,0 +1,59 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * CustomerSession is an immutable snapshot of the CUSTOMER_AUTH row an access-token resolves to.
+ * It only carries the fields needed to authorize a request, so it can be shared safely between threads.
+ */
+public final class CustomerSession implements Serializable {
+
+    private final String accessToken;
+    private final String customerAuthUuid;
+    private final Integer customerId;
+    private final String customerUuid;
+    private final ZonedDateTime expiresAt;
+    private final ZonedDateTime logoutAt;
+
+    public CustomerSession(final String accessToken, final String customerAuthUuid, final Integer customerId, final String customerUuid,
+                           final ZonedDateTime expiresAt, final ZonedDateTime logoutAt) {
+        this.accessToken = accessToken;
+        this.customerAuthUuid = customerAuthUuid;
+        this.customerId = customerId;
+        this.customerUuid = customerUuid;
+        this.expiresAt = expiresAt;
+        this.logoutAt = logoutAt;
+    }
+
+    public static CustomerSession of(final CustomerAuthEntity customerAuthEntity) {
+        return new CustomerSession(customerAuthEntity.getAccessToken(), customerAuthEntity.getUuid(), customerAuthEntity.getCustomerId().getId(),
+                customerAuthEntity.getCustomerId().getUuid(), customerAuthEntity.getExpiresAt(), customerAuthEntity.getLogoutAt());
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public String getCustomerAuthUuid() {
+        return customerAuthUuid;
+    }
+
+    public Integer getCustomerId() {
+        return customerId;
+    }
+
+    public String getCustomerUuid() {
+        return customerUuid;
+    }
+
+    public ZonedDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public ZonedDateTime getLogoutAt() {
+        return logoutAt;
+    }
+}
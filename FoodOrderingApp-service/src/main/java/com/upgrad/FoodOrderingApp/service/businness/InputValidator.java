@@ -0,0 +1,116 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * InputValidator checks the format of customer and address input. Each rule is a single pass over the characters with
+ * no allocation, and accepts exactly the same inputs as the regular expression quoted in its comment did when it was
+ * matched against the whole input with Matcher.matches().
+ */
+@Component
+public class InputValidator {
+
+    private static final String PASSWORD_SPECIAL_CHARACTERS = "#@$%&*!^";
+
+    private static final int MINIMUM_PASSWORD_LENGTH = 8;
+
+    /**
+     * "^(.+)@(.+)$" : an '@' with at least one character on each side, and no line terminator anywhere.
+     *
+     * @param email email to check.
+     * @return true if the email is well formed.
+     */
+    public boolean isValidEmail(final String email) {
+        final int length = email.length();
+        boolean hasInnerAt = false;
+        for (int i = 0; i < length; i++) {
+            final char c = email.charAt(i);
+            if (isLineTerminator(c)) {
+                return false;
+            }
+            if (c == '@' && i > 0 && i < length - 1) {
+                hasInnerAt = true;
+            }
+        }
+        return hasInnerAt;
+    }
+
+    /**
+     * "[0-9]{10}" : exactly ten ASCII digits.
+     *
+     * @param contactNumber contact number to check.
+     * @return true if the contact number is well formed.
+     */
+    public boolean isValidContactNumber(final String contactNumber) {
+        return isAsciiDigits(contactNumber, 10);
+    }
+
+    /**
+     * "[0-9]{6}" : exactly six ASCII digits.
+     *
+     * @param pincode pincode to check.
+     * @return true if the pincode is well formed.
+     */
+    public boolean isValidPincode(final String pincode) {
+        return isAsciiDigits(pincode, 6);
+    }
+
+    /**
+     * "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[#@$%&*!^])(?=\S+$).{8,}$" : at least eight code points, no whitespace
+     * or line terminator, and at least one ASCII digit, lower-case letter, upper-case letter and one of #@$%&*!^.
+     *
+     * @param password password to check.
+     * @return true if the password is strong enough.
+     */
+    public boolean isStrongPassword(final String password) {
+        final int length = password.length();
+        boolean hasDigit = false;
+        boolean hasLower = false;
+        boolean hasUpper = false;
+        boolean hasSpecial = false;
+        int codePoints = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = password.charAt(i);
+            if (isWhitespace(c) || isLineTerminator(c)) {
+                return false;
+            }
+            //The low half of a surrogate pair belongs to the code point counted at its high half.
+            if (!(Character.isLowSurrogate(c) && i > 0 && Character.isHighSurrogate(password.charAt(i - 1)))) {
+                codePoints++;
+            }
+            if (c >= '0' && c <= '9') {
+                hasDigit = true;
+            } else if (c >= 'a' && c <= 'z') {
+                hasLower = true;
+            } else if (c >= 'A' && c <= 'Z') {
+                hasUpper = true;
+            } else if (PASSWORD_SPECIAL_CHARACTERS.indexOf(c) >= 0) {
+                hasSpecial = true;
+            }
+        }
+        return hasDigit && hasLower && hasUpper && hasSpecial && codePoints >= MINIMUM_PASSWORD_LENGTH;
+    }
+
+    private static boolean isAsciiDigits(final String value, final int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //The characters '.' does not match without the DOTALL flag.
+    private static boolean isLineTerminator(final char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    //The characters matched by \s.
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
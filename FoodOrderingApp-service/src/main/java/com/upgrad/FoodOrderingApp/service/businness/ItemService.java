@@ -0,0 +1,58 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+public class ItemService {
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    private final int popularItemCount;
+
+    public ItemService(@Value("${foodorderingapp.catalog.popular-item-count:5}") final int popularItemCount) {
+        this.popularItemCount = popularItemCount;
+    }
+
+    /**
+     * @return the items the restaurant serves in the category, in name order.
+     */
+    public List<ItemEntity> getItemsByCategoryAndRestaurant(String restaurantId, String categoryId) {
+        return catalogCache.get().getItemsByCategoryAndRestaurant(restaurantId, categoryId);
+    }
+
+    /**
+     * @return the items of the category, in name order.
+     */
+    public List<ItemEntity> getItemsByCategory(String categoryId) {
+        return catalogCache.get().getItemsByCategory(categoryId);
+    }
+
+    /**
+     * @return the items most often ordered from the restaurant, most ordered first. A restaurant added since the last
+     * reload of the catalog gets an empty list until the next reload counts its orders.
+     */
+    public List<ItemEntity> getItemsByPopularity(RestaurantEntity restaurantEntity) {
+        return catalogCache.get().getItemsByPopularity(restaurantEntity.getUuid(), popularItemCount);
+    }
+
+    /**
+     * @return version of the items most often ordered from the restaurant, or null for a restaurant not in the catalog.
+     * It is a digest of the fields the endpoint returns, so instances that counted the same orders agree on it.
+     */
+    public ContentVersion getPopularItemsVersion(String restaurantId) {
+        Catalog catalog = catalogCache.get();
+        if (catalog.getRestaurantByUuid(restaurantId) == null) {
+            return null;
+        }
+        return ContentVersion.ofContent(0L, catalog.getItemsByPopularity(restaurantId, popularItemCount),
+                item -> Arrays.asList(item.getUuid(), item.getItemName(), item.getPrice(), item.getType()));
+    }
+}
@@ -1,12 +1,15 @@
 package com.upgrad.FoodOrderingApp.service.businness;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.upgrad.FoodOrderingApp.service.common.GenericErrorCode;
 import com.upgrad.FoodOrderingApp.service.common.UnexpectedException;
 
 import java.time.ZonedDateTime;
-import java.time.temporal.ChronoField;
 import java.util.Date;
 import java.util.UUID;
 
@@ -14,25 +17,61 @@ import java.util.UUID;
 public class JwtTokenProvider {
     private static final String TOKEN_ISSUER = "https://FoodOrderingApp.io";
 
+    public static final String CUSTOMER_ID_CLAIM = "cid";
+
     private final Algorithm algorithm;
 
+    private final JWTVerifier verifier;
+
     public JwtTokenProvider(final String secret) {
         try {
             algorithm = Algorithm.HMAC512(secret);
+            verifier = JWT.require(algorithm).withIssuer(TOKEN_ISSUER).build();
         } catch (IllegalArgumentException e) {
             throw new UnexpectedException(GenericErrorCode.GEN_001);
         }
     }
 
     public String generateToken(final String customerUuid, final ZonedDateTime issuedDateTime, final ZonedDateTime expiresDateTime) {
+        return generateToken(UUID.randomUUID().toString(), customerUuid, null, issuedDateTime, expiresDateTime);
+    }
+
+    /**
+     * This method generates a token that can be verified without a database lookup.
+     *
+     * @param tokenId         uuid of the CUSTOMER_AUTH row, stored as the jti claim.
+     * @param customerUuid    uuid of the customer, stored as the audience.
+     * @param customerId      id of the customer, stored as the cid claim.
+     * @param issuedDateTime  login time.
+     * @param expiresDateTime session expiry time.
+     * @return signed token.
+     */
+    public String generateToken(final String tokenId, final String customerUuid, final Integer customerId,
+                                final ZonedDateTime issuedDateTime, final ZonedDateTime expiresDateTime) {
 
-        final Date issuedAt = new Date(issuedDateTime.getLong(ChronoField.INSTANT_SECONDS));
-        final Date expiresAt = new Date(expiresDateTime.getLong(ChronoField.INSTANT_SECONDS));
+        final Date issuedAt = Date.from(issuedDateTime.toInstant());
+        final Date expiresAt = Date.from(expiresDateTime.toInstant());
 
-        return JWT.create().withIssuer(TOKEN_ISSUER) //
+        final JWTCreator.Builder builder = JWT.create().withIssuer(TOKEN_ISSUER) //
                 .withKeyId(UUID.randomUUID().toString())
+                .withJWTId(tokenId)
                 .withAudience(customerUuid) //
-                .withIssuedAt(issuedAt).withExpiresAt(expiresAt).sign(algorithm);
+                .withIssuedAt(issuedAt).withExpiresAt(expiresAt);
+        if (customerId != null) {
+            builder.withClaim(CUSTOMER_ID_CLAIM, customerId);
+        }
+        return builder.sign(algorithm);
+    }
+
+    /**
+     * This method checks the signature, issuer and expiry of the token.
+     *
+     * @param token signed token.
+     * @return decoded token.
+     * @throws JWTVerificationException if the token was not signed with this provider's secret or has expired.
+     */
+    public DecodedJWT verifyToken(final String token) throws JWTVerificationException {
+        return verifier.verify(token);
     }
 
 }
@@ -0,0 +1,69 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * LegacyPasswordHasher verifies the hashes written before the password format carried a version marker: a PBKDF2 hash
+ * with 1000 iterations and a 64 bit key, stored as upper-case hex with the salt in the SALT column. It never produces
+ * new hashes, and every password it matches is rehashed by CustomerService on login.
+ */
+@Component
+public class LegacyPasswordHasher implements PasswordHasher {
+
+    public static final String ALGORITHM = "legacy-pbkdf2-sha512";
+
+    private static final int HASHING_ITERATIONS = 1000;
+    private static final int HASHING_KEY_LENGTH = 64;
+    private final static char[] hexArray = "0123456789ABCDEF".toCharArray();
+
+    @Override
+    public String getAlgorithm() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public boolean supports(final String encodedPassword) {
+        return encodedPassword != null && !encodedPassword.startsWith("$");
+    }
+
+    @Override
+    public boolean canHash() {
+        return false;
+    }
+
+    @Override
+    public String hash(final String password, final byte[] salt) {
+        throw new UnsupportedOperationException("Legacy password hashes are only verified");
+    }
+
+    @Override
+    public boolean matches(final String password, final String encodedPassword, final String salt) {
+        final byte[] saltBytes;
+        try {
+            saltBytes = Base64.getDecoder().decode(salt);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        final String hash = bytesToHex(Pbkdf2PasswordHasher.derive(password.toCharArray(), saltBytes, HASHING_ITERATIONS, HASHING_KEY_LENGTH));
+        return MessageDigest.isEqual(hash.getBytes(StandardCharsets.US_ASCII), encodedPassword.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public boolean needsRehash(final String encodedPassword) {
+        return true;
+    }
+
+    private static String bytesToHex(byte[] bytes) {
+        char[] hexChars = new char[bytes.length * 2];
+        for (int j = 0; j < bytes.length; j++) {
+            int v = bytes[j] & 0xFF;
+            hexChars[j * 2] = hexArray[v >>> 4];
+            hexChars[j * 2 + 1] = hexArray[v & 0x0F];
+        }
+        return new String(hexChars);
+    }
+}
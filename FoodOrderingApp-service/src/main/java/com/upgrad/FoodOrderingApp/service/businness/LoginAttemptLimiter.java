@@ -0,0 +1,187 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.exception.LoginThrottledException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LoginAttemptLimiter caps the number of login attempts per email and per client IP before the attempt reaches the
+ * database or the password hasher. Each key has a sliding-window counter, estimated from the counts of the current and
+ * the previous fixed window, so a key costs a few longs no matter how many attempts it makes.
+ * Keys are spread over independently locked stripes, so attempts for different keys rarely contend.
+ */
+@Component
+@ManagedResource(objectName = "FoodOrderingApp:type=LoginAttemptLimiter", description = "Login attempt throttling")
+public class LoginAttemptLimiter {
+
+    private static final String EMAIL_KEY_PREFIX = "e:";
+    private static final String IP_KEY_PREFIX = "i:";
+
+    private final long windowMillis;
+    private final int maxAttemptsPerEmail;
+    private final int maxAttemptsPerIp;
+
+    private final Stripe[] stripes;
+
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong rejectedByEmail = new AtomicLong();
+    private final AtomicLong rejectedByIp = new AtomicLong();
+
+    public LoginAttemptLimiter(@Value("${foodorderingapp.login-throttle.window-seconds:300}") final long windowSeconds,
+                               @Value("${foodorderingapp.login-throttle.max-attempts-per-email:10}") final int maxAttemptsPerEmail,
+                               @Value("${foodorderingapp.login-throttle.max-attempts-per-ip:100}") final int maxAttemptsPerIp,
+                               @Value("${foodorderingapp.login-throttle.stripes:64}") final int stripeCount) {
+        this.windowMillis = windowSeconds * 1000L;
+        this.maxAttemptsPerEmail = maxAttemptsPerEmail;
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        //Round up to a power of two so the stripe can be picked with a mask.
+        final int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * This method records a login attempt, or rejects it if the email or the client IP is over its limit.
+     * Only an attempt that is let through is counted: one rejected for its email is taken back from its client IP.
+     *
+     * @param email    email the customer is signing in with.
+     * @param clientIp address of the client, as resolved from the trusted proxies in front of the application.
+     * @throws LoginThrottledException ATH-004 if either key has used up its attempts in the current window.
+     */
+    public void checkAttempt(final String email, final String clientIp) throws LoginThrottledException {
+        final long now = System.currentTimeMillis();
+
+        if (clientIp != null && !tryAcquire(IP_KEY_PREFIX + clientIp, maxAttemptsPerIp, now)) {
+            rejectedByIp.incrementAndGet();
+            throw throttled(now);
+        }
+        if (email != null && !tryAcquire(EMAIL_KEY_PREFIX + email.toLowerCase(Locale.ROOT), maxAttemptsPerEmail, now)) {
+            if (clientIp != null) {
+                release(IP_KEY_PREFIX + clientIp, now);
+            }
+            rejectedByEmail.incrementAndGet();
+            throw throttled(now);
+        }
+        allowed.incrementAndGet();
+    }
+
+    private boolean tryAcquire(final String key, final int limit, final long now) {
+        final Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Window window = stripe.windows.get(key);
+            if (window == null) {
+                window = new Window(currentWindowStart(now));
+                stripe.windows.put(key, window);
+            }
+            window.roll(currentWindowStart(now), windowMillis);
+            if (window.estimate(now, windowMillis) >= limit) {
+                return false;
+            }
+            window.current++;
+            return true;
+        }
+    }
+
+    //Takes back an attempt counted by tryAcquire, unless the window it was counted in has rolled over since.
+    private void release(final String key, final long now) {
+        final Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            final Window window = stripe.windows.get(key);
+            if (window != null && window.start == currentWindowStart(now) && window.current > 0) {
+                window.current--;
+            }
+        }
+    }
+
+    /**
+     * Drops the counters of keys that have not made an attempt for two windows, as their estimate is back to zero.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgeIdleKeys() {
+        final long windowStart = currentWindowStart(System.currentTimeMillis());
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.windows.values().removeIf(window -> window.start < windowStart - windowMillis);
+            }
+        }
+    }
+
+    private Stripe stripeFor(final String key) {
+        final int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private long currentWindowStart(final long now) {
+        return now - now % windowMillis;
+    }
+
+    private LoginThrottledException throttled(final long now) {
+        final long retryAfterMillis = currentWindowStart(now) + windowMillis - now;
+        return new LoginThrottledException("ATH-004", "Too many login attempts. Try again later.",
+                (int) Math.max(1, (retryAfterMillis + 999) / 1000));
+    }
+
+    @ManagedAttribute(description = "Login attempts let through")
+    public long getAllowedCount() {
+        return allowed.get();
+    }
+
+    @ManagedAttribute(description = "Login attempts rejected because the email was over its limit")
+    public long getRejectedByEmailCount() {
+        return rejectedByEmail.get();
+    }
+
+    @ManagedAttribute(description = "Login attempts rejected because the client IP was over its limit")
+    public long getRejectedByIpCount() {
+        return rejectedByIp.get();
+    }
+
+    @ManagedAttribute(description = "Number of emails and client IPs with a live counter")
+    public int getTrackedKeyCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.windows.size();
+            }
+        }
+        return count;
+    }
+
+    private static final class Stripe {
+        private final Map<String, Window> windows = new HashMap<>();
+    }
+
+    private static final class Window {
+        private long start;
+        private int previous;
+        private int current;
+
+        private Window(final long start) {
+            this.start = start;
+        }
+
+        private void roll(final long currentStart, final long windowMillis) {
+            if (currentStart == start) {
+                return;
+            }
+            previous = currentStart - start == windowMillis ? current : 0;
+            current = 0;
+            start = currentStart;
+        }
+
+        private double estimate(final long now, final long windowMillis) {
+            final double previousWeight = 1.0d - (double) (now - start) / windowMillis;
+            return previous * previousWeight + current;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * NameCompletionIndex finds the best names that start with a piece of text, in any case, for a search box that asks on
+ * every keystroke. Each name is keyed once for every word in it, by the lower-cased rest of the name from that word on,
+ * so "Pizza Hut" completes both "piz" and "hu". The keys are kept in one sorted array, so the keys starting with the
+ * text are one range found by binary search. Over the keys sits a segment tree holding the best weight rank of each
+ * range, from which the best names of a range are taken best first without looking at the rest of the range. The index
+ * is immutable and belongs to one Catalog snapshot.
+ */
+final class NameCompletionIndex {
+
+    private static final int NO_RANK = Integer.MAX_VALUE;
+
+    private static final int[] NONE = new int[0];
+
+    //Sorted keys and the ordinal of the name each one belongs to.
+    private final String[] keys;
+    private final int[] ordinals;
+
+    //Leaves start at leafCount; every other node holds the best rank of its two children.
+    private final int leafCount;
+    private final int[] tree;
+
+    /**
+     * @param names    names indexed by ordinal.
+     * @param byWeight every ordinal, best weight first.
+     */
+    NameCompletionIndex(final String[] names, final int[] byWeight) {
+        //Position of each ordinal in the order of weight, best first.
+        final int[] ranks = new int[names.length];
+        for (int rank = 0; rank < byWeight.length; rank++) {
+            ranks[byWeight[rank]] = rank;
+        }
+
+        int count = 0;
+        final String[] lowerCaseNames = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            lowerCaseNames[i] = names[i].toLowerCase(Locale.ROOT);
+            count += wordStarts(lowerCaseNames[i]);
+        }
+        final Key[] entries = new Key[count];
+        count = 0;
+        for (int ordinal = 0; ordinal < lowerCaseNames.length; ordinal++) {
+            final String name = lowerCaseNames[ordinal];
+            for (int at = 0; at < name.length(); at++) {
+                if (isWordStart(name, at)) {
+                    entries[count++] = new Key(name.substring(at), ordinal);
+                }
+            }
+        }
+        Arrays.sort(entries);
+
+        this.keys = new String[count];
+        this.ordinals = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = entries[i].key;
+            ordinals[i] = entries[i].ordinal;
+        }
+
+        int leaves = 1;
+        while (leaves < count) {
+            leaves <<= 1;
+        }
+        this.leafCount = leaves;
+        this.tree = new int[2 * leaves];
+        Arrays.fill(tree, NO_RANK);
+        for (int i = 0; i < count; i++) {
+            tree[leaves + i] = ranks[ordinals[i]];
+        }
+        for (int node = leaves - 1; node > 0; node--) {
+            tree[node] = Math.min(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * @param prefix text to complete, already lower-cased.
+     * @param limit  number of names wanted.
+     * @return up to limit distinct ordinals of the names with a word starting with the text, best weight first.
+     */
+    int[] complete(final String prefix, final int limit) {
+        final int from = lowerBound(prefix);
+        final int to = endOfPrefix(prefix, from);
+        if (from >= to || limit <= 0) {
+            return NONE;
+        }
+
+        //Best-first walk of the tree: a min-heap of nodes by the best rank below them, seeded with the nodes that
+        //exactly cover the range. Popping a leaf yields the best key left in the range.
+        int[] heap = new int[64];
+        int size = 0;
+        for (int lo = from + leafCount, hi = to - 1 + leafCount; lo <= hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) {
+                heap = push(heap, size++, lo++);
+            }
+            if ((hi & 1) == 0) {
+                heap = push(heap, size++, hi--);
+            }
+        }
+
+        final int[] found = new int[limit];
+        int foundCount = 0;
+        while (size > 0 && foundCount < limit) {
+            final int node = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size);
+            if (node < leafCount) {
+                heap = push(heap, size++, 2 * node);
+                heap = push(heap, size++, 2 * node + 1);
+                continue;
+            }
+            //A name with several matching words shows up once per word, one after another since they share a rank.
+            final int ordinal = ordinals[node - leafCount];
+            if (foundCount == 0 || found[foundCount - 1] != ordinal) {
+                found[foundCount++] = ordinal;
+            }
+        }
+        return foundCount == limit ? found : Arrays.copyOf(found, foundCount);
+    }
+
+    int getKeyCount() {
+        return keys.length;
+    }
+
+    //First key not less than the text.
+    private int lowerBound(final String prefix) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    //First key from the given one on that does not start with the text.
+    private int endOfPrefix(final String prefix, final int from) {
+        int lo = from;
+        int hi = keys.length;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (keys[mid].startsWith(prefix)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    //Nodes below the ones covering a range hold no padding, so every node pushed has a rank.
+    private int[] push(int[] heap, final int size, final int node) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        int at = size;
+        while (at > 0 && tree[heap[(at - 1) / 2]] > tree[node]) {
+            heap[at] = heap[(at - 1) / 2];
+            at = (at - 1) / 2;
+        }
+        heap[at] = node;
+        return heap;
+    }
+
+    private void siftDown(final int[] heap, final int size) {
+        if (size == 0) {
+            return;
+        }
+        final int node = heap[0];
+        int at = 0;
+        while (2 * at + 1 < size) {
+            int child = 2 * at + 1;
+            if (child + 1 < size && tree[heap[child + 1]] < tree[heap[child]]) {
+                child++;
+            }
+            if (tree[heap[child]] >= tree[node]) {
+                break;
+            }
+            heap[at] = heap[child];
+            at = child;
+        }
+        heap[at] = node;
+    }
+
+    private static int wordStarts(final String name) {
+        int count = 0;
+        for (int at = 0; at < name.length(); at++) {
+            if (isWordStart(name, at)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isWordStart(final String name, final int at) {
+        return Character.isLetterOrDigit(name.charAt(at)) && (at == 0 || !Character.isLetterOrDigit(name.charAt(at - 1)));
+    }
+
+    private static final class Key implements Comparable<Key> {
+
+        private final String key;
+
+        private final int ordinal;
+
+        private Key(final String key, final int ordinal) {
+            this.key = key;
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public int compareTo(final Key other) {
+            final int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Integer.compare(ordinal, other.ordinal);
+        }
+    }
+}
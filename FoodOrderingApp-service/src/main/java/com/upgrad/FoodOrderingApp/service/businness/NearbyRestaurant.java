@@ -0,0 +1,29 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+
+/**
+ * NearbyRestaurant is a restaurant found near a delivery address, with its distance from the address as the crow flies.
+ */
+public final class NearbyRestaurant {
+
+    private final RestaurantEntity restaurant;
+
+    private final double distanceKm;
+
+    NearbyRestaurant(final RestaurantEntity restaurant, final double distanceKm) {
+        this.restaurant = restaurant;
+        this.distanceKm = distanceKm;
+    }
+
+    public RestaurantEntity getRestaurant() {
+        return restaurant;
+    }
+
+    /**
+     * @return distance from the address in kilometres, between the centres of the two pincodes.
+     */
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+}
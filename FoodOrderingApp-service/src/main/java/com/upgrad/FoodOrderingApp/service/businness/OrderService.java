@@ -0,0 +1,39 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.CouponEntity;
+import com.upgrad.FoodOrderingApp.service.exception.CouponNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class OrderService {
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    public CouponEntity getCouponByCouponName(String couponName) throws CouponNotFoundException {
+
+        if (couponName == null || couponName.isEmpty()) {
+            throw new CouponNotFoundException("CPF-002", "Coupon name field should not be empty");
+        }
+
+        CouponEntity couponEntity = referenceDataCache.get().getCouponByName(couponName);
+
+        if (couponEntity == null) {
+            throw new CouponNotFoundException("CPF-001", "No coupon by this name");
+        }
+
+        return couponEntity;
+    }
+
+    public CouponEntity getCouponByCouponId(String couponId) throws CouponNotFoundException {
+
+        CouponEntity couponEntity = referenceDataCache.get().getCouponByUuid(couponId);
+
+        if (couponEntity == null) {
+            throw new CouponNotFoundException("CPF-002", "No coupon by this id");
+        }
+
+        return couponEntity;
+    }
+}
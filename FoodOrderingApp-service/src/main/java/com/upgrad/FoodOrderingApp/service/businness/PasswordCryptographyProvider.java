@@ -1,48 +1,83 @@
 package com.upgrad.FoodOrderingApp.service.businness;
 
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import javax.crypto.SecretKeyFactory;
-import javax.crypto.spec.PBEKeySpec;
-import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.security.spec.InvalidKeySpecException;
 import java.util.Base64;
+import java.util.List;
 import java.util.Random;
 
 
+/**
+ * PasswordCryptographyProvider hashes new passwords with the PasswordHasher selected by
+ * foodorderingapp.password-hashing.algorithm and verifies stored passwords with whichever hasher understands their format.
+ */
 @Component
 public class PasswordCryptographyProvider {
 
-    private static String SECRET_KEY_ALGORITHM = "PBKDF2WithHmacSHA512";
-    private static int HASHING_ITERATIONS = 1000;
-    private static int HASHING_KEY_LENGTH = 64;
-    private final static char[] hexArray = "0123456789ABCDEF".toCharArray();
+    private final List<PasswordHasher> passwordHashers;
+
+    private final PasswordHasher currentHasher;
+
+    public PasswordCryptographyProvider(final List<PasswordHasher> passwordHashers,
+                                        @Value("${foodorderingapp.password-hashing.algorithm:" + Pbkdf2PasswordHasher.ALGORITHM + "}") final String algorithm) {
+        this.passwordHashers = passwordHashers;
+        this.currentHasher = passwordHashers.stream()
+                .filter(passwordHasher -> passwordHasher.getAlgorithm().equals(algorithm))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No password hasher for algorithm " + algorithm));
+        //Caught at startup rather than by every signup and every rehash on login.
+        if (!currentHasher.canHash()) {
+            throw new IllegalStateException("Password hasher for algorithm " + algorithm + " only verifies passwords");
+        }
+    }
 
     /**
      * This method generates Salt and hashed Password
      *
      * @param password char array.
-     * @return String array with [0] encoded salt [1] hashed password.
+     * @return String array with [0] encoded salt [1] self-describing hashed password.
      */
     public String[] encrypt(final String password) {
         byte[] salt = generateSaltBytes();
-        byte[] hashedPassword = hashPassword(password.toCharArray(), salt);
-        return new String[]{getBase64EncodedBytesAsString(salt), bytesToHex(hashedPassword)};
+        return new String[]{getBase64EncodedBytesAsString(salt), currentHasher.hash(password, salt)};
     }
 
     /**
-     * This method re-generates hashed Password from raw-password and salt.
+     * This method checks the raw password against the stored one.
      * This will be used during authentication.
      *
-     * @param password char array.
-     * @param salt     byte array.
-     * @return byte array of hashed password.
+     * @param password        raw password.
+     * @param encodedPassword value of the PASSWORD column.
+     * @param salt            value of the SALT column.
+     * @return true if the password matches.
      */
-    public static String encrypt(final String password, String salt) {
-        return bytesToHex(hashPassword(password.toCharArray(), getBase64DecodedStringAsBytes(salt)));
+    public boolean matches(final String password, final String encodedPassword, final String salt) {
+        final PasswordHasher passwordHasher = hasherFor(encodedPassword);
+        return passwordHasher != null && passwordHasher.matches(password, encodedPassword, salt);
+    }
+
+    /**
+     * @param encodedPassword value of the PASSWORD column.
+     * @return true if the stored password should be re-hashed with the current algorithm and cost.
+     */
+    public boolean needsRehash(final String encodedPassword) {
+        final PasswordHasher passwordHasher = hasherFor(encodedPassword);
+        return passwordHasher != currentHasher || currentHasher.needsRehash(encodedPassword);
+    }
+
+    private PasswordHasher hasherFor(final String encodedPassword) {
+        if (currentHasher.supports(encodedPassword)) {
+            return currentHasher;
+        }
+        for (PasswordHasher passwordHasher : passwordHashers) {
+            if (passwordHasher.supports(encodedPassword)) {
+                return passwordHasher;
+            }
+        }
+        return null;
     }
 
     /**
@@ -57,42 +92,9 @@ public class PasswordCryptographyProvider {
         return saltBytes;
     }
 
-    /**
-     * This method generates hashed Password
-     *
-     * @param password char array.
-     * @param salt     byte array.
-     * @return byte array of hashed password.
-     */
-    private static byte[] hashPassword(final char[] password, final byte[] salt) {
-        try {
-            SecretKeyFactory skf = SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
-            PBEKeySpec spec = new PBEKeySpec(password, salt, HASHING_ITERATIONS, HASHING_KEY_LENGTH);
-            SecretKey key = skf.generateSecret(spec);
-            byte[] res = key.getEncoded();
-            return res;
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private static String bytesToHex(byte[] bytes) {
-        char[] hexChars = new char[bytes.length * 2];
-        for (int j = 0; j < bytes.length; j++) {
-            int v = bytes[j] & 0xFF;
-            hexChars[j * 2] = hexArray[v >>> 4];
-            hexChars[j * 2 + 1] = hexArray[v & 0x0F];
-        }
-        return new String(hexChars);
-    }
-
     private static String getBase64EncodedBytesAsString(byte bytes[]) {
         return Base64.getEncoder().encodeToString(bytes);
     }
-
-    private static byte[] getBase64DecodedStringAsBytes(String decode) {
-        return Base64.getDecoder().decode(decode);
-    }
 }
 
 
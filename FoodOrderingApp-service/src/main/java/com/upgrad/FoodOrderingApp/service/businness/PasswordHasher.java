@@ -0,0 +1,49 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+/**
+ * PasswordHasher is implemented once per password hash format. PasswordCryptographyProvider hashes new passwords with
+ * the configured hasher and picks the hasher for a stored password by asking each one whether it supports it.
+ */
+public interface PasswordHasher {
+
+    /**
+     * @return algorithm id this hasher is selected by, e.g. "pbkdf2-sha512".
+     */
+    String getAlgorithm();
+
+    /**
+     * @param encodedPassword value of the PASSWORD column.
+     * @return true if this hasher understands the format of the stored password.
+     */
+    boolean supports(String encodedPassword);
+
+    /**
+     * @return false for a hasher that only verifies stored passwords and cannot be used to hash new ones.
+     */
+    default boolean canHash() {
+        return true;
+    }
+
+    /**
+     * This method hashes the password into a self-describing value for the PASSWORD column.
+     *
+     * @param password raw password.
+     * @param salt     random salt.
+     * @return encoded password.
+     */
+    String hash(String password, byte[] salt);
+
+    /**
+     * @param password        raw password.
+     * @param encodedPassword value of the PASSWORD column.
+     * @param salt            value of the SALT column.
+     * @return true if the password produces the stored hash.
+     */
+    boolean matches(String password, String encodedPassword, String salt);
+
+    /**
+     * @param encodedPassword value of the PASSWORD column.
+     * @return true if the stored hash is weaker than what this hasher produces today.
+     */
+    boolean needsRehash(String encodedPassword);
+}
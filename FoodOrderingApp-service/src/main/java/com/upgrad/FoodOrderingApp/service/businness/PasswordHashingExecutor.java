@@ -0,0 +1,136 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.exception.ServiceBusyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PasswordHashingExecutor runs the password hashing of the requests that need it (signup and login) on its own
+ * fixed-size pool with a bounded queue, so that a burst of CPU-heavy PBKDF2 work cannot occupy every servlet thread.
+ * When the queue is full the request is rejected straight away with a ServiceBusyException instead of waiting.
+ * Hashing threads never touch the database: what a request reads before the hash runs on its servlet thread, and what
+ * it writes after the hash runs on a second small pool, whose size should stay below the JDBC connection pool size.
+ * A request that is not completed within the timeout is answered with a ServiceBusyException as well.
+ */
+@Component
+@ManagedResource(objectName = "FoodOrderingApp:type=PasswordHashingExecutor", description = "Password hashing worker pool")
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    private final ThreadPoolExecutor databaseExecutor;
+
+    private final int retryAfterSeconds;
+
+    private final long timeoutMillis;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong timedOut = new AtomicLong();
+
+    public PasswordHashingExecutor(@Value("${foodorderingapp.password-hashing.threads:0}") final int threads,
+                                   @Value("${foodorderingapp.password-hashing.queue-capacity:64}") final int queueCapacity,
+                                   @Value("${foodorderingapp.password-hashing.retry-after-seconds:2}") final int retryAfterSeconds,
+                                   @Value("${foodorderingapp.password-hashing.database-threads:4}") final int databaseThreads,
+                                   @Value("${foodorderingapp.password-hashing.timeout-millis:10000}") final long timeoutMillis) {
+        final int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            final Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        //Only tasks whose hash is done are queued here, so the queue is bounded by the requests in flight.
+        final AtomicInteger databaseThreadNumber = new AtomicInteger();
+        this.databaseExecutor = new ThreadPoolExecutor(databaseThreads, databaseThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "password-hashing-db-" + databaseThreadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * This method queues the task on the hashing pool.
+     *
+     * @param task work that hashes or verifies a password, and hands what it has to save to {@link #afterHashing}.
+     * @throws ServiceBusyException if the queue is full.
+     */
+    public void execute(final Runnable task) throws ServiceBusyException {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ree) {
+            rejected.incrementAndGet();
+            throw new ServiceBusyException("SBE-001", "Too many sign-in requests are being processed. Please retry later.", retryAfterSeconds);
+        }
+    }
+
+    /**
+     * This method queues the database work of a request, once its password has been hashed, on the database pool.
+     *
+     * @param task work that saves the outcome of the hash and completes the request.
+     */
+    public void afterHashing(final Runnable task) {
+        databaseExecutor.execute(task);
+    }
+
+    /**
+     * @return how long a request may wait for its hash and database work, in milliseconds.
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * @return the SBE-001 a request is answered with when it is not completed within the timeout.
+     */
+    public ServiceBusyException timedOut() {
+        timedOut.incrementAndGet();
+        return new ServiceBusyException("SBE-001", "The sign-in request could not be processed in time. Please retry later.", retryAfterSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        databaseExecutor.shutdown();
+    }
+
+    @ManagedAttribute(description = "Tasks waiting for a hashing thread")
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @ManagedAttribute(description = "Hashing threads currently busy")
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @ManagedAttribute(description = "Tasks rejected because the queue was full")
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @ManagedAttribute(description = "Tasks waiting to save the outcome of their hash")
+    public int getDatabaseQueueSize() {
+        return databaseExecutor.getQueue().size();
+    }
+
+    @ManagedAttribute(description = "Requests answered with SBE-001 because they were not completed in time")
+    public long getTimedOutCount() {
+        return timedOut.get();
+    }
+}
@@ -0,0 +1,34 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.PaymentEntity;
+import com.upgrad.FoodOrderingApp.service.exception.PaymentMethodNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class PaymentService {
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    public List<PaymentEntity> getAllPaymentMethods() {
+        return referenceDataCache.get().getPaymentMethods();
+    }
+
+    public ContentVersion getPaymentMethodsVersion() {
+        return referenceDataCache.get().getPaymentMethodsVersion();
+    }
+
+    public PaymentEntity getPaymentByUUID(String paymentId) throws PaymentMethodNotFoundException {
+
+        PaymentEntity paymentEntity = referenceDataCache.get().getPaymentMethodByUuid(paymentId);
+
+        if (paymentEntity == null) {
+            throw new PaymentMethodNotFoundException("PNF-002", "No payment method found by this id");
+        }
+
+        return paymentEntity;
+    }
+}
@@ -0,0 +1,159 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Base64;
+
+/**
+ * Pbkdf2PasswordHasher stores passwords as "$pbkdf2-sha512$i=ITERATIONS,l=KEY_BITS$SALT$HASH" with SALT and HASH in
+ * base64, so the cost a hash was made with travels with it. The iteration count is taken from configuration, or, when
+ * a target latency is configured, raised at startup until one hash takes about that long on this machine.
+ */
+@Component
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Pbkdf2PasswordHasher.class);
+
+    public static final String ALGORITHM = "pbkdf2-sha512";
+
+    private static final String SECRET_KEY_ALGORITHM = "PBKDF2WithHmacSHA512";
+    private static final String PREFIX = "$" + ALGORITHM + "$";
+    private static final int MAX_CALIBRATED_ITERATIONS = 10_000_000;
+
+    //SecretKeyFactory is not thread-safe, and looking it up goes through the provider list on every call.
+    private static final ThreadLocal<SecretKeyFactory> SECRET_KEY_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final int iterations;
+
+    private final int keyLength;
+
+    public Pbkdf2PasswordHasher(@Value("${foodorderingapp.password-hashing.pbkdf2.iterations:210000}") final int iterations,
+                                @Value("${foodorderingapp.password-hashing.pbkdf2.key-length:512}") final int keyLength,
+                                @Value("${foodorderingapp.password-hashing.pbkdf2.target-millis:0}") final long targetMillis) {
+        this.keyLength = keyLength;
+        this.iterations = targetMillis > 0 ? calibrate(iterations, keyLength, targetMillis) : iterations;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return ALGORITHM;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public boolean supports(final String encodedPassword) {
+        return encodedPassword != null && encodedPassword.startsWith(PREFIX);
+    }
+
+    @Override
+    public String hash(final String password, final byte[] salt) {
+        final Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "i=" + iterations + ",l=" + keyLength + "$" + encoder.encodeToString(salt) + "$"
+                + encoder.encodeToString(derive(password.toCharArray(), salt, iterations, keyLength));
+    }
+
+    @Override
+    public boolean matches(final String password, final String encodedPassword, final String salt) {
+        final Encoded encoded = Encoded.parse(encodedPassword);
+        if (encoded == null) {
+            return false;
+        }
+        final byte[] hash = derive(password.toCharArray(), encoded.salt, encoded.iterations, encoded.keyLength);
+        return MessageDigest.isEqual(hash, encoded.hash);
+    }
+
+    @Override
+    public boolean needsRehash(final String encodedPassword) {
+        final Encoded encoded = Encoded.parse(encodedPassword);
+        return encoded == null || encoded.iterations < iterations || encoded.keyLength < keyLength;
+    }
+
+    static byte[] derive(final char[] password, final byte[] salt, final int iterations, final int keyLength) {
+        final PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, keyLength);
+        try {
+            return SECRET_KEY_FACTORY.get().generateSecret(spec).getEncoded();
+        } catch (InvalidKeySpecException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static int calibrate(final int minimumIterations, final int keyLength, final long targetMillis) {
+        final byte[] salt = new byte[32];
+        final char[] password = "calibration".toCharArray();
+        int iterations = Math.max(minimumIterations, 1000);
+        //The first rounds only warm up the JIT.
+        derive(password, salt, iterations, keyLength);
+        while (iterations < MAX_CALIBRATED_ITERATIONS) {
+            final long start = System.nanoTime();
+            derive(password, salt, iterations, keyLength);
+            final long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+            if (elapsedMillis >= targetMillis) {
+                break;
+            }
+            iterations *= 2;
+        }
+        LOG.info("PBKDF2 calibrated to {} iterations for a target of {} ms", iterations, targetMillis);
+        return iterations;
+    }
+
+    private static final class Encoded {
+        private final int iterations;
+        private final int keyLength;
+        private final byte[] salt;
+        private final byte[] hash;
+
+        private Encoded(final int iterations, final int keyLength, final byte[] salt, final byte[] hash) {
+            this.iterations = iterations;
+            this.keyLength = keyLength;
+            this.salt = salt;
+            this.hash = hash;
+        }
+
+        private static Encoded parse(final String encodedPassword) {
+            if (encodedPassword == null || !encodedPassword.startsWith(PREFIX)) {
+                return null;
+            }
+            final String[] parts = encodedPassword.substring(PREFIX.length()).split("\\$");
+            if (parts.length != 3) {
+                return null;
+            }
+            try {
+                int iterations = 0;
+                int keyLength = 0;
+                for (String parameter : parts[0].split(",")) {
+                    if (parameter.startsWith("i=")) {
+                        iterations = Integer.parseInt(parameter.substring(2));
+                    } else if (parameter.startsWith("l=")) {
+                        keyLength = Integer.parseInt(parameter.substring(2));
+                    }
+                }
+                if (iterations <= 0 || keyLength <= 0) {
+                    return null;
+                }
+                final Base64.Decoder decoder = Base64.getDecoder();
+                return new Encoded(iterations, keyLength, decoder.decode(parts[1]), decoder.decode(parts[2]));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.common.GenericErrorCode;
+import com.upgrad.FoodOrderingApp.service.common.UnexpectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PincodeIndex holds the pincode reference data in memory. It is read once at startup from a CSV file with the columns
+ * pincode, state_uuid, city and locality, and kept as a sorted int array of pincodes with parallel arrays for the
+ * locality, city and state, where the few distinct cities and state uuids are stored once and referred to by position.
+ * Prefix queries and pincode lookups are binary searches over the int array and never reach the database. A second
+ * file gives the approximate centre of each pincode, kept the same way, from which addresses get their coordinates.
+ */
+@Component
+@ManagedResource(objectName = "FoodOrderingApp:type=PincodeIndex", description = "Pincode reference data")
+public class PincodeIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PincodeIndex.class);
+
+    private static final int PINCODE_LENGTH = 6;
+
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000, 100000, 1000000};
+
+    private final Resource file;
+
+    private final Resource centroidFile;
+
+    private int[] pincodes = new int[0];
+    private String[] localities = new String[0];
+    private int[] cityIds = new int[0];
+    private int[] stateIds = new int[0];
+
+    private String[] cities = new String[0];
+    private String[] stateUuids = new String[0];
+
+    //Sorted pincodes with a known centre, and the centre of each.
+    private int[] centroidPincodes = new int[0];
+    private double[] latitudes = new double[0];
+    private double[] longitudes = new double[0];
+
+    public PincodeIndex(@Value("${foodorderingapp.pincode.file:classpath:pincodes.csv}") final Resource file,
+                        @Value("${foodorderingapp.pincode.centroid-file:classpath:pincode_centroids.csv}") final Resource centroidFile) {
+        this.file = file;
+        this.centroidFile = centroidFile;
+    }
+
+    @PostConstruct
+    public void load() {
+        final List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("pincode,")) {
+                    continue;
+                }
+                //The locality is the last column, so it may itself contain commas.
+                final String[] row = line.split(",", 4);
+                if (row.length != 4 || toPincode(row[0]) < 0) {
+                    LOG.warn("Skipping malformed pincode row: {}", line);
+                    continue;
+                }
+                rows.add(row);
+            }
+        } catch (IOException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        }
+        rows.sort(Comparator.<String[], String>comparing(row -> row[0]).thenComparing(row -> row[3]));
+
+        final Map<String, Integer> cityIndex = new HashMap<>();
+        final Map<String, Integer> stateIndex = new HashMap<>();
+        final int[] pincodes = new int[rows.size()];
+        final String[] localities = new String[rows.size()];
+        final int[] cityIds = new int[rows.size()];
+        final int[] stateIds = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            final String[] row = rows.get(i);
+            pincodes[i] = toPincode(row[0]);
+            stateIds[i] = stateIndex.computeIfAbsent(row[1].trim(), uuid -> stateIndex.size());
+            cityIds[i] = cityIndex.computeIfAbsent(row[2].trim(), city -> cityIndex.size());
+            localities[i] = row[3].trim();
+        }
+
+        this.pincodes = pincodes;
+        this.localities = localities;
+        this.cityIds = cityIds;
+        this.stateIds = stateIds;
+        this.cities = toArray(cityIndex);
+        this.stateUuids = toArray(stateIndex);
+        LOG.info("Loaded {} pincode localities from {}", pincodes.length, file.getDescription());
+
+        loadCentroids();
+    }
+
+    private void loadCentroids() {
+        final List<double[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(centroidFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("pincode,")) {
+                    continue;
+                }
+                final double[] row = toCentroid(line.split(","));
+                if (row == null) {
+                    LOG.warn("Skipping malformed pincode centroid row: {}", line);
+                    continue;
+                }
+                rows.add(row);
+            }
+        } catch (IOException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        }
+        rows.sort(Comparator.comparingDouble(row -> row[0]));
+
+        final int[] centroidPincodes = new int[rows.size()];
+        final double[] latitudes = new double[rows.size()];
+        final double[] longitudes = new double[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            centroidPincodes[i] = (int) rows.get(i)[0];
+            latitudes[i] = rows.get(i)[1];
+            longitudes[i] = rows.get(i)[2];
+        }
+
+        this.centroidPincodes = centroidPincodes;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        LOG.info("Loaded {} pincode centroids from {}", centroidPincodes.length, centroidFile.getDescription());
+    }
+
+    //Parses a row of pincode, latitude and longitude, or returns null.
+    private static double[] toCentroid(final String[] row) {
+        if (row.length != 3 || toPincode(row[0].trim()) < 0) {
+            return null;
+        }
+        try {
+            final double latitude = Double.parseDouble(row[1].trim());
+            final double longitude = Double.parseDouble(row[2].trim());
+            if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                return null;
+            }
+            return new double[]{toPincode(row[0].trim()), latitude, longitude};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String[] toArray(final Map<String, Integer> index) {
+        final String[] values = new String[index.size()];
+        for (Map.Entry<String, Integer> entry : index.entrySet()) {
+            values[entry.getValue()] = entry.getKey();
+        }
+        return values;
+    }
+
+    /**
+     * This method returns the localities of the pincodes that start with the given digits, in ascending order of
+     * pincode and then locality.
+     *
+     * @param prefix one to six leading digits of a pincode.
+     * @param limit  maximum number of localities to return.
+     * @return the matching localities, or an empty list when the prefix is not made of one to six digits.
+     */
+    public List<PincodeLocation> search(final String prefix, final int limit) {
+        if (prefix == null || prefix.isEmpty() || prefix.length() > PINCODE_LENGTH || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int value = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            final char c = prefix.charAt(i);
+            if (c < '0' || c > '9') {
+                return Collections.emptyList();
+            }
+            value = value * 10 + (c - '0');
+        }
+        final int scale = POWERS_OF_TEN[PINCODE_LENGTH - prefix.length()];
+        final int from = value * scale;
+        final int to = (value + 1) * scale;
+
+        final List<PincodeLocation> locations = new ArrayList<>(Math.min(limit, 16));
+        for (int i = lowerBound(from); i < pincodes.length && pincodes[i] < to && locations.size() < limit; i++) {
+            locations.add(toLocation(i));
+        }
+        return locations;
+    }
+
+    /**
+     * @param pincode six digit pincode.
+     * @return the uuid of the state the pincode lies in, or null when the pincode is not in the reference data.
+     */
+    public String getStateUuid(final String pincode) {
+        final int value = toPincode(pincode);
+        if (value < 0) {
+            return null;
+        }
+        final int i = lowerBound(value);
+        return i < pincodes.length && pincodes[i] == value ? stateUuids[stateIds[i]] : null;
+    }
+
+    /**
+     * @param pincode six digit pincode.
+     * @return the approximate centre of the pincode as latitude and longitude, or null when it is not known.
+     */
+    public double[] getCentroid(final String pincode) {
+        final int value = toPincode(pincode);
+        final int i = value < 0 ? -1 : Arrays.binarySearch(centroidPincodes, value);
+        return i < 0 ? null : new double[]{latitudes[i], longitudes[i]};
+    }
+
+    @ManagedAttribute(description = "Number of pincode localities loaded")
+    public int getSize() {
+        return pincodes.length;
+    }
+
+    @ManagedAttribute(description = "Number of pincodes with a known centre")
+    public int getCentroidCount() {
+        return centroidPincodes.length;
+    }
+
+    private PincodeLocation toLocation(final int i) {
+        return new PincodeLocation(Integer.toString(pincodes[i]), localities[i], cities[cityIds[i]], stateUuids[stateIds[i]]);
+    }
+
+    //Index of the first pincode that is not less than the given value.
+    private int lowerBound(final int value) {
+        int low = 0;
+        int high = pincodes.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (pincodes[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    //Parses a six digit pincode that does not start with 0, or returns -1.
+    private static int toPincode(final String pincode) {
+        if (pincode == null || pincode.length() != PINCODE_LENGTH || pincode.charAt(0) == '0') {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < PINCODE_LENGTH; i++) {
+            final char c = pincode.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
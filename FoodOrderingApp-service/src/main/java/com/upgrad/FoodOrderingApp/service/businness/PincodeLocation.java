@@ -0,0 +1,38 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+/**
+ * PincodeLocation is one locality served by a pincode, with the city and the uuid of the state it lies in.
+ */
+public final class PincodeLocation {
+
+    private final String pincode;
+
+    private final String locality;
+
+    private final String city;
+
+    private final String stateUuid;
+
+    public PincodeLocation(final String pincode, final String locality, final String city, final String stateUuid) {
+        this.pincode = pincode;
+        this.locality = locality;
+        this.city = city;
+        this.stateUuid = stateUuid;
+    }
+
+    public String getPincode() {
+        return pincode;
+    }
+
+    public String getLocality() {
+        return locality;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getStateUuid() {
+        return stateUuid;
+    }
+}
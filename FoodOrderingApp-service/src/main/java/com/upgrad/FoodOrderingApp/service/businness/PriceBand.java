@@ -0,0 +1,42 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+/**
+ * PriceBand is a range of the average price for two that restaurants can be filtered on: from the minimum, inclusive,
+ * to the maximum, exclusive, or with no maximum for the last band.
+ */
+public final class PriceBand {
+
+    private final int index;
+
+    private final int minPrice;
+
+    private final Integer maxPrice;
+
+    PriceBand(final int index, final int minPrice, final Integer maxPrice) {
+        this.index = index;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    /**
+     * @return position of the band among the bands, from the cheapest, starting at 0.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public int getMinPrice() {
+        return minPrice;
+    }
+
+    /**
+     * @return the price the band ends before, or null for the last band.
+     */
+    public Integer getMaxPrice() {
+        return maxPrice;
+    }
+
+    boolean contains(final int price) {
+        return price >= minPrice && (maxPrice == null || price < maxPrice);
+    }
+}
@@ -0,0 +1,197 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RatingAccumulator collects the ratings customers give to restaurants in memory, so that rating a popular restaurant
+ * does not queue on the lock of its row. The ratings of each restaurant are summed in striped counters that threads
+ * add to without contending, and RatingFlushJob periodically writes what has been added since the last flush to the
+ * database in one statement per restaurant. Until then the pending ratings are merged into the restaurants read.
+ * The counters are never reset: a flush records how much it wrote, so a rating added while it runs is left for the next.
+ * A flush is recorded as soon as its write commits and before the catalog shows the new average, so that no read
+ * counts the written ratings twice.
+ */
+@Component
+@ManagedResource(objectName = "FoodOrderingApp:type=RatingAccumulator", description = "Restaurant ratings not yet written")
+public class RatingAccumulator {
+
+    //Ratings are summed in hundredths, as whole numbers.
+    private static final int SCALE = 100;
+
+    private final ConcurrentMap<Integer, Tally> tallies = new ConcurrentHashMap<>();
+
+    //Ratings of all restaurants added, and written, since startup.
+    private final LongAdder added = new LongAdder();
+    private final LongAdder writtenTotal = new LongAdder();
+
+    /**
+     * @param restaurantId id of the restaurant rated.
+     * @param rating       rating from 1 to 5.
+     */
+    public void add(final Integer restaurantId, final double rating) {
+        final Tally tally = tallies.computeIfAbsent(restaurantId, id -> new Tally());
+        //The sum is added before the count, and read after it, so every rating counted is also in the sum.
+        tally.sum.add(Math.round(rating * SCALE));
+        tally.count.increment();
+        added.increment();
+    }
+
+    /**
+     * @param restaurantEntity restaurant as last read from the database. It is not modified.
+     * @return the restaurant itself when no rating of it is pending, otherwise a copy with the pending ratings averaged in.
+     */
+    public RestaurantEntity merge(final RestaurantEntity restaurantEntity) {
+        final Tally tally = tallies.get(restaurantEntity.getId());
+        if (tally == null) {
+            return restaurantEntity;
+        }
+        //Read once, so the count and the sum written are from the same flush.
+        final Written written = tally.written;
+        final long count = tally.count.sum() - written.count;
+        if (count <= 0) {
+            return restaurantEntity;
+        }
+        final double sum = (double) (tally.sum.sum() - written.sum) / SCALE;
+        final int rated = restaurantEntity.getNumber0fCustomersRated();
+
+        final RestaurantEntity merged = new RestaurantEntity();
+        merged.setId(restaurantEntity.getId());
+        merged.setUuid(restaurantEntity.getUuid());
+        merged.setRestaurantName(restaurantEntity.getRestaurantName());
+        merged.setPhotoUrl(restaurantEntity.getPhotoUrl());
+        merged.setAveragePriceForTwo(restaurantEntity.getAveragePriceForTwo());
+        merged.setAddressId(restaurantEntity.getAddressId());
+        merged.setCustomerRating((restaurantEntity.getCustomerRating() * rated + sum) / (rated + count));
+        merged.setNumber0fCustomersRated((int) (rated + count));
+        return merged;
+    }
+
+    /**
+     * @return number of ratings of the restaurant added plus number written since startup. It only grows, and grows
+     * with every rating and every flush, so a restaurant read with pending ratings merged in can only change while it
+     * does, including in the moment between a flush and the catalog showing the ratings it wrote.
+     */
+    public long getRatingChanges(final Integer restaurantId) {
+        final Tally tally = tallies.get(restaurantId);
+        return tally == null ? 0 : tally.written.count + tally.count.sum();
+    }
+
+    /**
+     * @return number of ratings of all restaurants added plus number written since startup.
+     */
+    public long getRatingChanges() {
+        return writtenTotal.sum() + added.sum();
+    }
+
+    /**
+     * @return ids of the restaurants with ratings added since the last flush. A rating added meanwhile may be missed.
+     */
+    public List<Integer> getPendingRestaurantIds() {
+        final List<Integer> pending = new ArrayList<>();
+        for (Map.Entry<Integer, Tally> entry : tallies.entrySet()) {
+            if (entry.getValue().count.sum() > entry.getValue().written.count) {
+                pending.add(entry.getKey());
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * @return the ratings added since the last flush, for each restaurant that has any.
+     */
+    synchronized List<PendingRatings> getPendingRatings() {
+        final List<PendingRatings> pending = new ArrayList<>();
+        for (Map.Entry<Integer, Tally> entry : tallies.entrySet()) {
+            final Tally tally = entry.getValue();
+            final long count = tally.count.sum() - tally.written.count;
+            if (count > 0) {
+                final long sum = tally.sum.sum() - tally.written.sum;
+                pending.add(new PendingRatings(entry.getKey(), count, sum));
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Records that the given ratings are written to the database, so they are no longer merged into reads.
+     */
+    synchronized void flushed(final PendingRatings written) {
+        final Tally tally = tallies.get(written.restaurantId);
+        tally.written = new Written(tally.written.count + written.count, tally.written.sum + written.sum);
+        writtenTotal.add(written.count);
+    }
+
+    @ManagedAttribute(description = "Ratings added and not yet written to the database")
+    public long getPending() {
+        long pending = 0;
+        for (Tally tally : tallies.values()) {
+            pending += tally.count.sum() - tally.written.count;
+        }
+        return pending;
+    }
+
+    private static final class Tally {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder sum = new LongAdder();
+
+        //Replaced only under the lock of the accumulator, read by any thread.
+        private volatile Written written = Written.NONE;
+    }
+
+    //How many ratings of a restaurant have been written to the database, and their sum in hundredths.
+    private static final class Written {
+
+        private static final Written NONE = new Written(0, 0);
+
+        private final long count;
+
+        private final long sum;
+
+        private Written(final long count, final long sum) {
+            this.count = count;
+            this.sum = sum;
+        }
+    }
+
+    /**
+     * PendingRatings are the ratings of one restaurant added since the last flush: how many, and their sum.
+     */
+    static final class PendingRatings {
+
+        private final Integer restaurantId;
+
+        private final long count;
+
+        private final long sum;
+
+        private PendingRatings(final Integer restaurantId, final long count, final long sum) {
+            this.restaurantId = restaurantId;
+            this.count = count;
+            this.sum = sum;
+        }
+
+        Integer getRestaurantId() {
+            return restaurantId;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        double getSum() {
+            return (double) sum / SCALE;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RatingFlushJob writes the ratings collected by the RatingAccumulator to the database. Each restaurant is updated in
+ * its own short transaction by one statement that adds all of its pending ratings at once, so a row is locked once per
+ * flush instead of once per rating. Ratings that fail to be written stay pending and are tried again by the next run.
+ * Once every restaurant has been tried, the ratings written stop being pending and the catalog is updated with all the
+ * rated restaurants in one snapshot, even if the catalog then fails to be updated.
+ * The job also runs on shutdown, so ratings are not lost when the application stops.
+ */
+@Component
+@ManagedResource(objectName = "FoodOrderingApp:type=RatingFlushJob", description = "Flush of restaurant ratings")
+public class RatingFlushJob {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RatingFlushJob.class);
+
+    @Autowired
+    private RatingAccumulator ratingAccumulator;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    private final AtomicLong flushed = new AtomicLong();
+
+    @Scheduled(fixedDelayString = "${foodorderingapp.rating.flush-interval-millis:1000}")
+    @ManagedOperation(description = "Writes the pending ratings to the database")
+    public void flush() {
+        final List<RatingAccumulator.PendingRatings> written = new ArrayList<>();
+        final List<RestaurantEntity> rated = new ArrayList<>();
+        for (RatingAccumulator.PendingRatings pendingRatings : ratingAccumulator.getPendingRatings()) {
+            try {
+                rated.add(restaurantService.addRestaurantRatings(pendingRatings));
+            } catch (RuntimeException e) {
+                LOG.warn("Could not write the ratings of restaurant {}", pendingRatings.getRestaurantId(), e);
+                continue;
+            }
+            written.add(pendingRatings);
+            flushed.addAndGet(pendingRatings.getCount());
+        }
+        if (!written.isEmpty()) {
+            restaurantService.restaurantRatingsWritten(written, rated);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @ManagedAttribute(description = "Ratings written to the database since startup")
+    public long getFlushed() {
+        return flushed.get();
+    }
+}
@@ -0,0 +1,156 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CouponEntity;
+import com.upgrad.FoodOrderingApp.service.entity.PaymentEntity;
+import com.upgrad.FoodOrderingApp.service.entity.StateEntity;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * ReferenceData is one immutable snapshot of the states, payment methods, categories and coupons, with the lists in the
+ * order the endpoints return them and maps by uuid (and by name for coupons). A snapshot is never changed after it is
+ * built, so it can be read by any number of threads without locking. The entities it holds are detached and shared,
+ * and must not be modified by callers. A list a reload reads back unchanged is carried over from the previous snapshot,
+ * the same instance with the same ContentVersion.
+ */
+public final class ReferenceData {
+
+    static final ReferenceData EMPTY = new ReferenceData(0L, Collections.emptyList(), Collections.emptyList(),
+            Collections.emptyList(), Collections.emptyList(), null);
+
+    private final long version;
+
+    private final List<StateEntity> states;
+    private final List<PaymentEntity> paymentMethods;
+    private final List<CategoryEntity> categories;
+
+    private final ContentVersion statesVersion;
+    private final ContentVersion paymentMethodsVersion;
+    private final ContentVersion categoriesVersion;
+
+    private final Map<String, StateEntity> statesByUuid;
+    private final Map<String, PaymentEntity> paymentMethodsByUuid;
+    private final Map<String, CategoryEntity> categoriesByUuid;
+    private final Map<String, CouponEntity> couponsByUuid;
+    private final Map<String, CouponEntity> couponsByName;
+
+    /**
+     * @param previous snapshot being replaced, null for none.
+     */
+    ReferenceData(final long version, final List<StateEntity> states, final List<PaymentEntity> paymentMethods,
+                  final List<CategoryEntity> categories, final List<CouponEntity> coupons, final ReferenceData previous) {
+        final long now = System.currentTimeMillis();
+        this.version = version;
+        if (previous != null && same(previous.states, states, StateEntity::getUuid, StateEntity::getStateName)) {
+            this.states = previous.states;
+            this.statesVersion = previous.statesVersion;
+        } else {
+            this.states = Collections.unmodifiableList(states);
+            this.statesVersion = ContentVersion.ofContent(previous == null ? 0L : now, this.states,
+                    state -> Arrays.asList(state.getUuid(), state.getStateName()));
+        }
+        if (previous != null && same(previous.paymentMethods, paymentMethods, PaymentEntity::getUuid, PaymentEntity::getPaymentName)) {
+            this.paymentMethods = previous.paymentMethods;
+            this.paymentMethodsVersion = previous.paymentMethodsVersion;
+        } else {
+            this.paymentMethods = Collections.unmodifiableList(paymentMethods);
+            this.paymentMethodsVersion = ContentVersion.ofContent(previous == null ? 0L : now, this.paymentMethods,
+                    payment -> Arrays.asList(payment.getUuid(), payment.getPaymentName()));
+        }
+        if (previous != null && same(previous.categories, categories, CategoryEntity::getUuid, CategoryEntity::getCategoryName)) {
+            this.categories = previous.categories;
+            this.categoriesVersion = previous.categoriesVersion;
+        } else {
+            this.categories = Collections.unmodifiableList(categories);
+            this.categoriesVersion = ContentVersion.ofContent(previous == null ? 0L : now, this.categories,
+                    category -> Arrays.asList(category.getUuid(), category.getCategoryName()));
+        }
+        this.statesByUuid = index(this.states, StateEntity::getUuid);
+        this.paymentMethodsByUuid = index(this.paymentMethods, PaymentEntity::getUuid);
+        this.categoriesByUuid = index(this.categories, CategoryEntity::getUuid);
+        this.couponsByUuid = index(coupons, CouponEntity::getUuid);
+        this.couponsByName = index(coupons, CouponEntity::getCouponName);
+    }
+
+    private static <T> Map<String, T> index(final List<T> entities, final Function<T, String> key) {
+        final Map<String, T> index = new HashMap<>(entities.size() * 2);
+        for (T entity : entities) {
+            final String value = key.apply(entity);
+            if (value != null) {
+                index.putIfAbsent(value, entity);
+            }
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    //Whether the lists hold entities with the same uuids and names in the same order, which is all the endpoints return.
+    private static <T> boolean same(final List<T> a, final List<T> b, final Function<T, String> uuid, final Function<T, String> name) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!Objects.equals(uuid.apply(a.get(i)), uuid.apply(b.get(i))) || !Objects.equals(name.apply(a.get(i)), name.apply(b.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return number of the reload that built this snapshot, increasing with every reload.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public List<StateEntity> getStates() {
+        return states;
+    }
+
+    public List<PaymentEntity> getPaymentMethods() {
+        return paymentMethods;
+    }
+
+    public List<CategoryEntity> getCategories() {
+        return categories;
+    }
+
+    public ContentVersion getStatesVersion() {
+        return statesVersion;
+    }
+
+    public ContentVersion getPaymentMethodsVersion() {
+        return paymentMethodsVersion;
+    }
+
+    public ContentVersion getCategoriesVersion() {
+        return categoriesVersion;
+    }
+
+    public StateEntity getStateByUuid(final String uuid) {
+        return statesByUuid.get(uuid);
+    }
+
+    public PaymentEntity getPaymentMethodByUuid(final String uuid) {
+        return paymentMethodsByUuid.get(uuid);
+    }
+
+    public CategoryEntity getCategoryByUuid(final String uuid) {
+        return categoriesByUuid.get(uuid);
+    }
+
+    public CouponEntity getCouponByUuid(final String uuid) {
+        return couponsByUuid.get(uuid);
+    }
+
+    public CouponEntity getCouponByName(final String couponName) {
+        return couponsByName.get(couponName);
+    }
+}
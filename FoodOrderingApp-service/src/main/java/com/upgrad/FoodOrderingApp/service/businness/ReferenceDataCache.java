@@ -0,0 +1,74 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.dao.ReferenceDataDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ReferenceDataCache serves states, payment methods, categories and coupons from an in-memory ReferenceData snapshot.
+ * A reload reads the four tables into a new snapshot and swaps it in atomically, so readers see either the old or the
+ * new data and never a mix. Reloads run at startup, periodically, and on demand over JMX.
+ */
+@Component
+@ManagedResource(objectName = "FoodOrderingApp:type=ReferenceDataCache", description = "States, payment methods, categories and coupons")
+public class ReferenceDataCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    @Autowired
+    private ReferenceDataDao referenceDataDao;
+
+    private final AtomicReference<ReferenceData> snapshot = new AtomicReference<>(ReferenceData.EMPTY);
+
+    private final AtomicLong versions = new AtomicLong();
+
+    private final Object reloadLock = new Object();
+
+    /**
+     * @return the current snapshot, loading it first if no reload has succeeded yet.
+     */
+    public ReferenceData get() {
+        final ReferenceData current = snapshot.get();
+        if (current.getVersion() != 0L) {
+            return current;
+        }
+        synchronized (reloadLock) {
+            return snapshot.get().getVersion() != 0L ? snapshot.get() : reload();
+        }
+    }
+
+    @ManagedOperation(description = "Reads the reference tables again and swaps in the new snapshot")
+    public ReferenceData reload() {
+        synchronized (reloadLock) {
+            final ReferenceData reloaded = new ReferenceData(versions.incrementAndGet(), referenceDataDao.getAllStates(),
+                    referenceDataDao.getAllPaymentMethods(), referenceDataDao.getAllCategoriesOrderedByName(), referenceDataDao.getAllCoupons(),
+                    snapshot.get());
+            snapshot.set(reloaded);
+            return reloaded;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${foodorderingapp.reference-data.reload-interval-millis:300000}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            //Keep serving the previous snapshot.
+            LOG.warn("Could not reload reference data", e);
+        }
+    }
+
+    @ManagedAttribute(description = "Version of the snapshot being served, 0 before the first load")
+    public long getVersion() {
+        return snapshot.get().getVersion();
+    }
+}
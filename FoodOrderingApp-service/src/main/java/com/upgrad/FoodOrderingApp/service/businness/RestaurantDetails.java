@@ -0,0 +1,117 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.entity.StateEntity;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * RestaurantDetails is a restaurant with its address and state, its categories, and the items it serves in each of
+ * them: everything the restaurant details page shows, put together in one piece. Details read from the catalog carry
+ * the version of the catalog that last changed them and the number of rating changes in memory when they were read;
+ * together these change whenever anything shown changes, so whatever is built from the details can be kept until then.
+ */
+public final class RestaurantDetails {
+
+    private final RestaurantEntity restaurant;
+
+    private final Map<CategoryEntity, List<ItemEntity>> itemsByCategory;
+
+    private final long version;
+
+    private final long ratingChanges;
+
+    RestaurantDetails(final RestaurantEntity restaurant, final Map<CategoryEntity, List<ItemEntity>> itemsByCategory,
+                      final long version, final long ratingChanges) {
+        this.restaurant = restaurant;
+        this.itemsByCategory = itemsByCategory;
+        this.version = version;
+        this.ratingChanges = ratingChanges;
+    }
+
+    public RestaurantEntity getRestaurant() {
+        return restaurant;
+    }
+
+    /**
+     * @return every category of the restaurant in name order, each with the items the restaurant serves in it in name
+     * order. A category may have no items.
+     */
+    public Map<CategoryEntity, List<ItemEntity>> getItemsByCategory() {
+        return itemsByCategory;
+    }
+
+    /**
+     * @return version of the catalog in which these details last changed, or 0 for details read from the database.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return number of ratings of the restaurant added and written since startup, as of when the details were read.
+     */
+    public long getRatingChanges() {
+        return ratingChanges;
+    }
+
+    /**
+     * @return whether the other details show the same restaurant, address, categories and items as these.
+     */
+    boolean sameAs(final RestaurantDetails other) {
+        final RestaurantEntity a = restaurant;
+        final RestaurantEntity b = other.restaurant;
+        if (!a.getUuid().equals(b.getUuid()) || !a.getRestaurantName().equals(b.getRestaurantName())
+                || !Objects.equals(a.getPhotoUrl(), b.getPhotoUrl()) || !Objects.equals(a.getCustomerRating(), b.getCustomerRating())
+                || !Objects.equals(a.getAveragePriceForTwo(), b.getAveragePriceForTwo())
+                || !Objects.equals(a.getNumber0fCustomersRated(), b.getNumber0fCustomersRated())
+                || !sameAddress(a.getAddressId(), b.getAddressId()) || itemsByCategory.size() != other.itemsByCategory.size()) {
+            return false;
+        }
+        final Iterator<Map.Entry<CategoryEntity, List<ItemEntity>>> others = other.itemsByCategory.entrySet().iterator();
+        for (Map.Entry<CategoryEntity, List<ItemEntity>> entry : itemsByCategory.entrySet()) {
+            final Map.Entry<CategoryEntity, List<ItemEntity>> otherEntry = others.next();
+            if (!entry.getKey().getUuid().equals(otherEntry.getKey().getUuid())
+                    || !entry.getKey().getCategoryName().equals(otherEntry.getKey().getCategoryName())
+                    || !sameItems(entry.getValue(), otherEntry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameAddress(final AddressEntity a, final AddressEntity b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        final StateEntity stateA = a.getStateId();
+        final StateEntity stateB = b.getStateId();
+        return a.getUuid().equals(b.getUuid()) && Objects.equals(a.getFlatBuilNumber(), b.getFlatBuilNumber())
+                && Objects.equals(a.getLocality(), b.getLocality()) && Objects.equals(a.getCity(), b.getCity())
+                && Objects.equals(a.getPincode(), b.getPincode())
+                && (stateA == null ? stateB == null : stateB != null && stateA.getUuid().equals(stateB.getUuid())
+                && Objects.equals(stateA.getStateName(), stateB.getStateName()));
+    }
+
+    //Whether the lists hold items with the same uuids, names, prices and types in the same order.
+    static boolean sameItems(final List<ItemEntity> a, final List<ItemEntity> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            final ItemEntity itemA = a.get(i);
+            final ItemEntity itemB = b.get(i);
+            if (!itemA.getUuid().equals(itemB.getUuid()) || !Objects.equals(itemA.getItemName(), itemB.getItemName())
+                    || !Objects.equals(itemA.getPrice(), itemB.getPrice()) || !Objects.equals(itemA.getType(), itemB.getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,210 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.common.ItemType;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+
+import java.util.Collection;
+
+/**
+ * RestaurantFacetIndex holds, for every value of the category, item type and price band facets, the set of restaurants
+ * with that value as a bitset over restaurant ordinals: bit i of word i / 64 is set when restaurant i has it. A filter
+ * is then the union of the bitsets of the values chosen for a facet and the intersection across facets, one word of
+ * 64 restaurants at a time. None of these facets changes without a reload, so the index is immutable and shared by
+ * the Catalog snapshots built from one reload. Ratings do change between reloads and are not indexed; the index only
+ * keeps the rating floors restaurants are counted at.
+ */
+final class RestaurantFacetIndex {
+
+    private final int restaurantCount;
+
+    private final int wordCount;
+
+    //Indexed by category ordinal, by ItemType ordinal and by price band index.
+    private final long[][] categoryBits;
+    private final long[][] itemTypeBits;
+    private final long[][] priceBandBits;
+
+    private final PriceBand[] priceBands;
+
+    private final double[] ratingFloors;
+
+    /**
+     * @param restaurants            restaurants by ordinal.
+     * @param restaurantsOfCategory  restaurant ordinals of each category.
+     * @param items                  items by ordinal.
+     * @param itemsOfRestaurant      item ordinals of each restaurant.
+     * @param priceBandBounds        ascending prices at which a new price band starts, after the one starting at 0.
+     * @param ratingFloors           ascending minimum ratings to count restaurants at.
+     */
+    RestaurantFacetIndex(final RestaurantEntity[] restaurants, final int[][] restaurantsOfCategory, final ItemEntity[] items,
+                         final int[][] itemsOfRestaurant, final int[] priceBandBounds, final double[] ratingFloors) {
+        this.restaurantCount = restaurants.length;
+        this.wordCount = (restaurants.length + 63) >>> 6;
+
+        this.categoryBits = new long[restaurantsOfCategory.length][];
+        for (int category = 0; category < restaurantsOfCategory.length; category++) {
+            categoryBits[category] = new long[wordCount];
+            for (int restaurant : restaurantsOfCategory[category]) {
+                set(categoryBits[category], restaurant);
+            }
+        }
+
+        final ItemType[] itemTypes = ItemType.values();
+        this.itemTypeBits = new long[itemTypes.length][wordCount];
+        for (int restaurant = 0; restaurant < restaurants.length; restaurant++) {
+            for (int item : itemsOfRestaurant[restaurant]) {
+                final ItemType itemType = ItemType.fromValue(items[item].getType());
+                if (itemType != null) {
+                    set(itemTypeBits[itemType.ordinal()], restaurant);
+                }
+            }
+        }
+
+        this.priceBands = new PriceBand[priceBandBounds.length + 1];
+        for (int band = 0; band < priceBands.length; band++) {
+            priceBands[band] = new PriceBand(band, band == 0 ? 0 : priceBandBounds[band - 1],
+                    band == priceBandBounds.length ? null : priceBandBounds[band]);
+        }
+        this.priceBandBits = new long[priceBands.length][wordCount];
+        for (int restaurant = 0; restaurant < restaurants.length; restaurant++) {
+            for (PriceBand priceBand : priceBands) {
+                if (priceBand.contains(restaurants[restaurant].getAveragePriceForTwo())) {
+                    set(priceBandBits[priceBand.getIndex()], restaurant);
+                }
+            }
+        }
+        this.ratingFloors = ratingFloors.clone();
+    }
+
+    /**
+     * @return the restaurants of any of the categories.
+     */
+    long[] categories(final Collection<Integer> categoryOrdinals) {
+        final long[] union = new long[wordCount];
+        for (int category : categoryOrdinals) {
+            or(union, categoryBits[category]);
+        }
+        return union;
+    }
+
+    /**
+     * @return the restaurants serving items of any of the types, or null for no type, which does not filter.
+     */
+    long[] itemTypes(final Collection<ItemType> itemTypes) {
+        if (itemTypes.isEmpty()) {
+            return null;
+        }
+        final long[] union = new long[wordCount];
+        for (ItemType itemType : itemTypes) {
+            or(union, itemTypeBits[itemType.ordinal()]);
+        }
+        return union;
+    }
+
+    /**
+     * @return the restaurants in any of the price bands, or null for no band, which does not filter. Unknown bands match
+     * no restaurant.
+     */
+    long[] priceBands(final Collection<Integer> bands) {
+        if (bands.isEmpty()) {
+            return null;
+        }
+        final long[] union = new long[wordCount];
+        for (int band : bands) {
+            if (band >= 0 && band < priceBands.length) {
+                or(union, priceBandBits[band]);
+            }
+        }
+        return union;
+    }
+
+    /**
+     * @return the restaurants at the given ordinals.
+     */
+    long[] restaurants(final int[] ordinals, final int count) {
+        final long[] bits = new long[wordCount];
+        for (int i = 0; i < count; i++) {
+            set(bits, ordinals[i]);
+        }
+        return bits;
+    }
+
+    /**
+     * @param sets bitsets to intersect, null for the ones that do not filter.
+     * @return the restaurants in all of the given sets.
+     */
+    long[] and(final long[]... sets) {
+        final long[] intersection = new long[wordCount];
+        for (int word = 0; word < wordCount; word++) {
+            long bits = -1L;
+            for (long[] set : sets) {
+                if (set != null) {
+                    bits &= set[word];
+                }
+            }
+            intersection[word] = bits;
+        }
+        //Clear the bits past the last restaurant.
+        if ((restaurantCount & 63) != 0) {
+            intersection[wordCount - 1] &= (1L << restaurantCount) - 1;
+        }
+        return intersection;
+    }
+
+    int countCategory(final long[] set, final int category) {
+        return countAnd(set, categoryBits[category]);
+    }
+
+    int countItemType(final long[] set, final ItemType itemType) {
+        return countAnd(set, itemTypeBits[itemType.ordinal()]);
+    }
+
+    int countPriceBand(final long[] set, final int band) {
+        return countAnd(set, priceBandBits[band]);
+    }
+
+    PriceBand[] getPriceBands() {
+        return priceBands.clone();
+    }
+
+    double[] getRatingFloors() {
+        return ratingFloors.clone();
+    }
+
+    /**
+     * @return the ordinals in the set, in ascending order.
+     */
+    static int[] ordinals(final long[] set) {
+        int count = 0;
+        for (long word : set) {
+            count += Long.bitCount(word);
+        }
+        final int[] ordinals = new int[count];
+        int i = 0;
+        for (int word = 0; word < set.length; word++) {
+            for (long bits = set[word]; bits != 0; bits &= bits - 1) {
+                ordinals[i++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return ordinals;
+    }
+
+    private static int countAnd(final long[] a, final long[] b) {
+        int count = 0;
+        for (int word = 0; word < a.length; word++) {
+            count += Long.bitCount(a[word] & b[word]);
+        }
+        return count;
+    }
+
+    private static void or(final long[] into, final long[] set) {
+        for (int word = 0; word < into.length; word++) {
+            into[word] |= set[word];
+        }
+    }
+
+    private static void set(final long[] bits, final int ordinal) {
+        bits[ordinal >>> 6] |= 1L << ordinal;
+    }
+}
@@ -0,0 +1,66 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.common.ItemType;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RestaurantFacets are the restaurants matching a RestaurantFilter, highest rating first, with the number of
+ * restaurants each value of each facet would match. A count applies the filter on the other facets only, so it is the
+ * number of restaurants the filter would match with the value selected in place of the values chosen for its facet;
+ * values that would match none are left out, except the price bands and rating floors, which are all listed.
+ */
+public final class RestaurantFacets {
+
+    private final List<RestaurantEntity> restaurants;
+
+    private final Map<CategoryEntity, Integer> categoryCounts;
+
+    private final Map<ItemType, Integer> itemTypeCounts;
+
+    private final Map<PriceBand, Integer> priceBandCounts;
+
+    private final Map<Double, Integer> ratingCounts;
+
+    RestaurantFacets(final List<RestaurantEntity> restaurants, final Map<CategoryEntity, Integer> categoryCounts,
+                     final Map<ItemType, Integer> itemTypeCounts, final Map<PriceBand, Integer> priceBandCounts,
+                     final Map<Double, Integer> ratingCounts) {
+        this.restaurants = restaurants;
+        this.categoryCounts = categoryCounts;
+        this.itemTypeCounts = itemTypeCounts;
+        this.priceBandCounts = priceBandCounts;
+        this.ratingCounts = ratingCounts;
+    }
+
+    public List<RestaurantEntity> getRestaurants() {
+        return restaurants;
+    }
+
+    /**
+     * @return number of restaurants of each category, in category name order.
+     */
+    public Map<CategoryEntity, Integer> getCategoryCounts() {
+        return categoryCounts;
+    }
+
+    public Map<ItemType, Integer> getItemTypeCounts() {
+        return itemTypeCounts;
+    }
+
+    /**
+     * @return number of restaurants in each price band, cheapest first.
+     */
+    public Map<PriceBand, Integer> getPriceBandCounts() {
+        return priceBandCounts;
+    }
+
+    /**
+     * @return number of restaurants rated at least each rating floor, lowest floor first.
+     */
+    public Map<Double, Integer> getRatingCounts() {
+        return ratingCounts;
+    }
+}
@@ -0,0 +1,52 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.common.ItemType;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RestaurantFilter is a combination of facets to filter restaurants on. A restaurant matches when it is in any of the
+ * categories, serves items of any of the item types, has its average price in any of the price bands, and is rated at
+ * least the minimum rating. A facet left empty does not filter.
+ */
+public final class RestaurantFilter {
+
+    private final List<String> categoryUuids;
+
+    private final List<ItemType> itemTypes;
+
+    private final List<Integer> priceBands;
+
+    private final Double minRating;
+
+    /**
+     * @param categoryUuids uuids of the categories, or null.
+     * @param itemTypes     item types, or null.
+     * @param priceBands    indexes of the price bands, or null.
+     * @param minRating     minimum customer rating, or null.
+     */
+    public RestaurantFilter(final List<String> categoryUuids, final List<ItemType> itemTypes, final List<Integer> priceBands,
+                            final Double minRating) {
+        this.categoryUuids = categoryUuids == null ? Collections.emptyList() : categoryUuids;
+        this.itemTypes = itemTypes == null ? Collections.emptyList() : itemTypes;
+        this.priceBands = priceBands == null ? Collections.emptyList() : priceBands;
+        this.minRating = minRating;
+    }
+
+    public List<String> getCategoryUuids() {
+        return categoryUuids;
+    }
+
+    public List<ItemType> getItemTypes() {
+        return itemTypes;
+    }
+
+    public List<Integer> getPriceBands() {
+        return priceBands;
+    }
+
+    public Double getMinRating() {
+        return minRating;
+    }
+}
@@ -0,0 +1,257 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RestaurantGeoIndex finds the restaurants nearest to a point without measuring the distance to every restaurant. The
+ * map is cut into a uniform grid of cells a fixed number of degrees of latitude and longitude on each side, and the
+ * index keeps the ordinals of the restaurants in each cell that has any. A search starts with the cell of the point and
+ * moves out one ring of cells at a time, and stops as soon as nothing outside the rings scanned can be nearer than the
+ * restaurants found, or farther than the maximum distance. Restaurants whose address has no coordinates are not
+ * indexed. Cells do not wrap around the 180th meridian, which no pincode is near. Addresses do not change without a
+ * reload, so the index is immutable and shared by the Catalog snapshots built from one reload.
+ */
+final class RestaurantGeoIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final double KM_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_KM;
+
+    private static final int[] NONE = new int[0];
+
+    private final double cellDegrees;
+
+    private final int rowCount;
+    private final int columnCount;
+
+    //Indexed by restaurant ordinal, NaN for restaurants that are not indexed.
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    //Ascending ordinals of the restaurants in each cell, by cell key.
+    private final Map<Long, int[]> cells;
+
+    private final int locatedCount;
+
+    /**
+     * @param restaurants restaurants by ordinal, with their addresses.
+     * @param cellDegrees length of the side of a cell, in degrees.
+     */
+    RestaurantGeoIndex(final RestaurantEntity[] restaurants, final double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.rowCount = (int) Math.ceil(180 / cellDegrees);
+        this.columnCount = (int) Math.ceil(360 / cellDegrees);
+        this.latitudes = new double[restaurants.length];
+        this.longitudes = new double[restaurants.length];
+
+        //Ordinals are visited in ascending order, so every cell comes out sorted.
+        final Map<Long, int[]> building = new HashMap<>();
+        int located = 0;
+        for (int ordinal = 0; ordinal < restaurants.length; ordinal++) {
+            final AddressEntity address = restaurants[ordinal].getAddressId();
+            if (address == null || address.getLatitude() == null || address.getLongitude() == null) {
+                latitudes[ordinal] = Double.NaN;
+                longitudes[ordinal] = Double.NaN;
+                continue;
+            }
+            latitudes[ordinal] = address.getLatitude();
+            longitudes[ordinal] = address.getLongitude();
+            final long key = key(row(latitudes[ordinal]), column(longitudes[ordinal]));
+            int[] cell = building.get(key);
+            if (cell == null) {
+                cell = new int[]{0, 0, 0, 0};
+                building.put(key, cell);
+            }
+            //The first slot holds the number of ordinals in the cell while it is built.
+            if (cell[0] + 1 == cell.length) {
+                cell = Arrays.copyOf(cell, cell.length * 2);
+                building.put(key, cell);
+            }
+            cell[++cell[0]] = ordinal;
+            located++;
+        }
+        this.cells = new HashMap<>(building.size() * 2);
+        for (Map.Entry<Long, int[]> entry : building.entrySet()) {
+            final int[] cell = entry.getValue();
+            cells.put(entry.getKey(), Arrays.copyOfRange(cell, 1, cell[0] + 1));
+        }
+        this.locatedCount = located;
+    }
+
+    /**
+     * @param latitude      latitude of the point, in degrees.
+     * @param longitude     longitude of the point, in degrees.
+     * @param limit         number of restaurants wanted.
+     * @param maxDistanceKm distance beyond which restaurants are not wanted, in kilometres.
+     * @return the ordinals of up to limit restaurants nearest to the point, nearest first; restaurants at the same
+     * distance in ascending order of ordinal.
+     */
+    int[] nearest(final double latitude, final double longitude, final int limit, final double maxDistanceKm) {
+        if (limit <= 0 || locatedCount == 0) {
+            return NONE;
+        }
+        final int row = row(latitude);
+        final int column = column(longitude);
+
+        //Max-heap of the nearest restaurants found so far, the farthest of them on top.
+        final Nearest nearest = new Nearest(limit);
+        int seen = 0;
+        for (int ring = 0; ; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                if (r < 0 || r >= rowCount) {
+                    continue;
+                }
+                //Whole rows at the top and bottom of the ring, only the two ends of the rows in between.
+                final int step = r == row - ring || r == row + ring ? 1 : Math.max(2 * ring, 1);
+                for (int c = column - ring; c <= column + ring; c += step) {
+                    final int[] cell = c < 0 || c >= columnCount ? null : cells.get(key(r, c));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int ordinal : cell) {
+                        final double distance = distanceKm(latitude, longitude, latitudes[ordinal], longitudes[ordinal]);
+                        if (distance <= maxDistanceKm) {
+                            nearest.offer(ordinal, distance);
+                        }
+                    }
+                    seen += cell.length;
+                }
+            }
+            if (seen == locatedCount) {
+                break;
+            }
+            final double reach = reachKm(latitude, longitude, row, column, ring);
+            if (reach > maxDistanceKm || nearest.isFull() && nearest.farthest() <= reach) {
+                break;
+            }
+        }
+        return nearest.toSortedOrdinals();
+    }
+
+    /**
+     * @return distance from the point to the restaurant in kilometres, or NaN when the restaurant is not indexed.
+     */
+    double distanceKm(final int ordinal, final double latitude, final double longitude) {
+        return distanceKm(latitude, longitude, latitudes[ordinal], longitudes[ordinal]);
+    }
+
+    int getLocatedCount() {
+        return locatedCount;
+    }
+
+    //Distance from the point to the nearest edge of the square of cells within the given ring of its cell, which no
+    //restaurant outside the square is nearer than.
+    private double reachKm(final double latitude, final double longitude, final int row, final int column, final int ring) {
+        final double south = (row - ring) * cellDegrees - 90;
+        final double north = (row + ring + 1) * cellDegrees - 90;
+        final double west = (column - ring) * cellDegrees - 180;
+        final double east = (column + ring + 1) * cellDegrees - 180;
+        final double reach = Math.min(latitude - south, north - latitude) * KM_PER_DEGREE;
+        //Shortest distance from the point to the meridian that far to the east or west; past 90 degrees, to the pole.
+        final double longitudeGap = Math.min(Math.min(longitude - west, east - longitude), 90);
+        final double toMeridian = Math.asin(Math.sin(Math.toRadians(longitudeGap)) * Math.cos(Math.toRadians(latitude))) * EARTH_RADIUS_KM;
+        return Math.min(reach, toMeridian);
+    }
+
+    private int row(final double latitude) {
+        return Math.min((int) ((latitude + 90) / cellDegrees), rowCount - 1);
+    }
+
+    private int column(final double longitude) {
+        return Math.min((int) ((longitude + 180) / cellDegrees), columnCount - 1);
+    }
+
+    private static long key(final int row, final int column) {
+        return ((long) row << 32) | column;
+    }
+
+    //Great-circle distance by the haversine formula.
+    private static double distanceKm(final double latitude1, final double longitude1, final double latitude2, final double longitude2) {
+        final double latitudeSin = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+        final double longitudeSin = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+        final double a = latitudeSin * latitudeSin
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * longitudeSin * longitudeSin;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    //Bounded max-heap of ordinals by distance, then by ordinal.
+    private static final class Nearest {
+
+        private final int[] ordinals;
+
+        private final double[] distances;
+
+        private int size;
+
+        Nearest(final int limit) {
+            this.ordinals = new int[limit];
+            this.distances = new double[limit];
+        }
+
+        boolean isFull() {
+            return size == ordinals.length;
+        }
+
+        double farthest() {
+            return distances[0];
+        }
+
+        void offer(final int ordinal, final double distance) {
+            if (size < ordinals.length) {
+                int at = size++;
+                while (at > 0 && after(ordinal, distance, ordinals[(at - 1) / 2], distances[(at - 1) / 2])) {
+                    ordinals[at] = ordinals[(at - 1) / 2];
+                    distances[at] = distances[(at - 1) / 2];
+                    at = (at - 1) / 2;
+                }
+                ordinals[at] = ordinal;
+                distances[at] = distance;
+            } else if (after(ordinals[0], distances[0], ordinal, distance)) {
+                //Replaces the farthest and sifts down.
+                int at = 0;
+                for (int child = 1; child < size; child = 2 * at + 1) {
+                    if (child + 1 < size && after(ordinals[child + 1], distances[child + 1], ordinals[child], distances[child])) {
+                        child++;
+                    }
+                    if (!after(ordinals[child], distances[child], ordinal, distance)) {
+                        break;
+                    }
+                    ordinals[at] = ordinals[child];
+                    distances[at] = distances[child];
+                    at = child;
+                }
+                ordinals[at] = ordinal;
+                distances[at] = distance;
+            }
+        }
+
+        //Insertion sort, nearest first: the heap holds no more than the few restaurants asked for.
+        int[] toSortedOrdinals() {
+            final int[] sorted = Arrays.copyOf(ordinals, size);
+            final double[] sortedDistances = Arrays.copyOf(distances, size);
+            for (int i = 1; i < size; i++) {
+                final int ordinal = sorted[i];
+                final double distance = sortedDistances[i];
+                int at = i;
+                while (at > 0 && after(sorted[at - 1], sortedDistances[at - 1], ordinal, distance)) {
+                    sorted[at] = sorted[at - 1];
+                    sortedDistances[at] = sortedDistances[at - 1];
+                    at--;
+                }
+                sorted[at] = ordinal;
+                sortedDistances[at] = distance;
+            }
+            return sorted;
+        }
+
+        //Whether the first restaurant is farther than the second, or as far with a higher ordinal.
+        private static boolean after(final int ordinal, final double distance, final int otherOrdinal, final double otherDistance) {
+            return distance > otherDistance || distance == otherDistance && ordinal > otherOrdinal;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RestaurantNameIndex finds the restaurants whose name contains a piece of text, in any case, without scanning every
+ * name. Each run of three characters of a lower-cased name is a trigram, and the index keeps for every trigram the
+ * ordinals of the names that contain it, in ascending order. A name can only contain the text if it contains all of the
+ * text's trigrams, so the candidates are the intersection of their posting lists; each candidate is then checked
+ * against the whole text, because the trigrams may occur in the name in another order. Text shorter than a trigram
+ * matches most names anyway and is looked for by scanning. The index is immutable and belongs to one Catalog snapshot.
+ */
+final class RestaurantNameIndex {
+
+    static final int MATCH_EXACT = 0;
+    static final int MATCH_PREFIX = 1;
+    static final int MATCH_WORD = 2;
+    static final int MATCH_INSIDE = 3;
+
+    private static final int GRAM = 3;
+
+    private static final int[] NONE = new int[0];
+
+    //Indexed by restaurant ordinal.
+    private final String[] lowerCaseNames;
+
+    private final Map<Long, int[]> postings;
+
+    RestaurantNameIndex(final String[] names) {
+        this.lowerCaseNames = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            lowerCaseNames[i] = names[i].toLowerCase(Locale.ROOT);
+        }
+
+        //Ordinals are visited in ascending order, so every posting list comes out sorted.
+        final Map<Long, Postings> building = new HashMap<>();
+        for (int ordinal = 0; ordinal < lowerCaseNames.length; ordinal++) {
+            for (long trigram : trigrams(lowerCaseNames[ordinal])) {
+                building.computeIfAbsent(trigram, t -> new Postings()).add(ordinal);
+            }
+        }
+        this.postings = new HashMap<>(building.size() * 2);
+        for (Map.Entry<Long, Postings> entry : building.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().toArray());
+        }
+    }
+
+    /**
+     * @param fragment text to look for, already lower-cased.
+     * @return a new array of the ordinals of the names containing the text, in ascending order.
+     */
+    int[] find(final String fragment) {
+        if (fragment.length() < GRAM) {
+            return scan(fragment, null);
+        }
+
+        final long[] trigrams = trigrams(fragment);
+        final int[][] lists = new int[trigrams.length][];
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = postings.get(trigrams[i]);
+            if (lists[i] == null) {
+                return NONE;
+            }
+        }
+        //Intersecting the shortest lists first keeps every step no larger than the smallest list.
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        int[] candidates = lists[0];
+        for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+            candidates = Catalog.intersect(candidates, lists[i]);
+        }
+        return scan(fragment, candidates);
+    }
+
+    /**
+     * @return how well the name of the restaurant matches the text: MATCH_EXACT, MATCH_PREFIX, MATCH_WORD when the text
+     * starts a later word of the name, or MATCH_INSIDE.
+     */
+    int matchQuality(final int ordinal, final String fragment) {
+        final String name = lowerCaseNames[ordinal];
+        if (name.equals(fragment)) {
+            return MATCH_EXACT;
+        }
+        if (name.startsWith(fragment)) {
+            return MATCH_PREFIX;
+        }
+        for (int at = name.indexOf(fragment); at > 0; at = name.indexOf(fragment, at + 1)) {
+            if (!Character.isLetterOrDigit(name.charAt(at - 1))) {
+                return MATCH_WORD;
+            }
+        }
+        return MATCH_INSIDE;
+    }
+
+    int getTrigramCount() {
+        return postings.size();
+    }
+
+    //Ordinals among the candidates, or among all names if there are none, whose name contains the text.
+    private int[] scan(final String fragment, final int[] candidates) {
+        final int size = candidates == null ? lowerCaseNames.length : candidates.length;
+        final int[] matches = new int[size];
+        int matched = 0;
+        for (int i = 0; i < size; i++) {
+            final int ordinal = candidates == null ? i : candidates[i];
+            if (lowerCaseNames[ordinal].contains(fragment)) {
+                matches[matched++] = ordinal;
+            }
+        }
+        return matched == size ? matches : Arrays.copyOf(matches, matched);
+    }
+
+    //Distinct trigrams of the text, each packed as three 16-bit chars into a long.
+    private static long[] trigrams(final String text) {
+        if (text.length() < GRAM) {
+            return new long[0];
+        }
+        final long[] trigrams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int size = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[size++] = trigrams[i];
+            }
+        }
+        return size == trigrams.length ? trigrams : Arrays.copyOf(trigrams, size);
+    }
+
+    //Growable posting list, used only while the index is built.
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+
+        private int size;
+
+        void add(final int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        int[] toArray() {
+            return size == ordinals.length ? ordinals : Arrays.copyOf(ordinals, size);
+        }
+    }
+}
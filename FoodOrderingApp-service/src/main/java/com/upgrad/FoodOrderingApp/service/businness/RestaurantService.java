@@ -0,0 +1,334 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.common.RestaurantSortOrder;
+import com.upgrad.FoodOrderingApp.service.common.SortDirection;
+import com.upgrad.FoodOrderingApp.service.dao.RestaurantDao;
+import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import com.upgrad.FoodOrderingApp.service.exception.CategoryNotFoundException;
+import com.upgrad.FoodOrderingApp.service.exception.InvalidRatingException;
+import com.upgrad.FoodOrderingApp.service.exception.RestaurantNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+@Service
+public class RestaurantService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RestaurantService.class);
+
+    @Autowired
+    private RestaurantDao restaurantDao;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private RatingAccumulator ratingAccumulator;
+
+    private final int defaultNearbyLimit;
+
+    private final int maxNearbyLimit;
+
+    private final double maxNearbyDistanceKm;
+
+    public RestaurantService(@Value("${foodorderingapp.nearby.limit:10}") final int defaultNearbyLimit,
+                             @Value("${foodorderingapp.nearby.max-limit:50}") final int maxNearbyLimit,
+                             @Value("${foodorderingapp.nearby.max-distance-km:20}") final double maxNearbyDistanceKm) {
+        this.defaultNearbyLimit = defaultNearbyLimit;
+        this.maxNearbyLimit = maxNearbyLimit;
+        this.maxNearbyDistanceKm = maxNearbyDistanceKm;
+    }
+
+    /**
+     * @return every restaurant, highest rating first.
+     */
+    public List<RestaurantEntity> restaurantsByRating() {
+        return withPendingRatings(catalogCache.get().getRestaurantsByRating());
+    }
+
+    /**
+     * @return version of the restaurants listed in any order: it changes when the catalog changes a restaurant, when
+     * a restaurant is rated and when ratings are written. Read it before the restaurants, so it is never newer than they are.
+     */
+    public ContentVersion restaurantsVersion() {
+        return new ContentVersion(0L, catalogCache.get().getRestaurantsVersion(), ratingAccumulator.getRatingChanges());
+    }
+
+    /**
+     * @param sortOrder what to sort by, or null for the rating.
+     * @param direction direction to sort in, or null for the default direction of the sort order.
+     * @return every restaurant in the given order.
+     */
+    public List<RestaurantEntity> restaurantsSortedBy(RestaurantSortOrder sortOrder, SortDirection direction) {
+
+        RestaurantSortOrder order = sortOrder == null ? RestaurantSortOrder.RATING : sortOrder;
+
+        return withPendingRatings(catalogCache.get().getRestaurants(order, direction == null ? order.getDefaultDirection() : direction));
+    }
+
+    /**
+     * @param restaurantName part of the name to look for, in any case.
+     * @return the restaurants whose name contains the given text, best matches first.
+     * @throws RestaurantNotFoundException if the name is empty.
+     */
+    public List<RestaurantEntity> restaurantsByName(String restaurantName) throws RestaurantNotFoundException {
+
+        if (restaurantName == null || restaurantName.isEmpty()) {
+            throw new RestaurantNotFoundException("RNF-003", "Restaurant name field should not be empty");
+        }
+
+        return withPendingRatings(catalogCache.get().getRestaurantsByName(restaurantName));
+    }
+
+    /**
+     * @param categoryId uuid of the category.
+     * @return the restaurants of the category, in name order.
+     * @throws CategoryNotFoundException if the id is empty or no category has it.
+     */
+    public List<RestaurantEntity> restaurantByCategory(String categoryId) throws CategoryNotFoundException {
+
+        if (categoryId == null || categoryId.isEmpty()) {
+            throw new CategoryNotFoundException("CNF-001", "Category id field should not be empty");
+        }
+
+        Catalog catalog = catalogCache.get();
+
+        if (catalog.getCategoryByUuid(categoryId) == null) {
+            throw new CategoryNotFoundException("CNF-002", "No category by this id");
+        }
+
+        return withPendingRatings(catalog.getRestaurantsByCategory(categoryId));
+    }
+
+    /**
+     * @param restaurantFilter categories, item types, price bands and minimum rating to filter on.
+     * @return the matching restaurants, highest rating first, with the counts of each facet. Pending ratings are merged
+     * in before the minimum rating, the order and the rating counts, so they all agree with the ratings returned.
+     * @throws CategoryNotFoundException if no category has one of the ids.
+     */
+    public RestaurantFacets restaurantsByFilter(RestaurantFilter restaurantFilter) throws CategoryNotFoundException {
+
+        Catalog catalog = catalogCache.get();
+
+        for (String categoryId : restaurantFilter.getCategoryUuids()) {
+            if (catalog.getCategoryByUuid(categoryId) == null) {
+                throw new CategoryNotFoundException("CNF-002", "No category by this id");
+            }
+        }
+
+        return catalog.filterRestaurants(restaurantFilter, ratingAccumulator.getPendingRestaurantIds(), ratingAccumulator::merge);
+    }
+
+    /**
+     * @param addressEntity saved address of the customer.
+     * @param limit         number of restaurants wanted, or null for the default. It is capped at the maximum.
+     * @return the restaurants nearest to the address within the maximum distance, nearest first; empty when the
+     * address has no coordinates.
+     */
+    public List<NearbyRestaurant> restaurantsNear(AddressEntity addressEntity, Integer limit) {
+
+        if (addressEntity.getLatitude() == null || addressEntity.getLongitude() == null) {
+            return Collections.emptyList();
+        }
+
+        List<NearbyRestaurant> nearbyRestaurants = catalogCache.get().getRestaurantsNear(addressEntity.getLatitude(), addressEntity.getLongitude(),
+                limit == null || limit <= 0 ? defaultNearbyLimit : Math.min(limit, maxNearbyLimit), maxNearbyDistanceKm);
+
+        List<NearbyRestaurant> withPendingRatings = new ArrayList<>(nearbyRestaurants.size());
+        for (NearbyRestaurant nearbyRestaurant : nearbyRestaurants) {
+            withPendingRatings.add(new NearbyRestaurant(ratingAccumulator.merge(nearbyRestaurant.getRestaurant()), nearbyRestaurant.getDistanceKm()));
+        }
+        return withPendingRatings;
+    }
+
+    /**
+     * This method returns a restaurant from the catalog snapshot, or for a restaurant added since the last reload, from
+     * the database.
+     *
+     * @param restaurantId uuid of the restaurant.
+     * @return the restaurant with its pending ratings merged in.
+     * @throws RestaurantNotFoundException if the id is empty or no restaurant has it.
+     */
+    public RestaurantEntity restaurantByUUID(String restaurantId) throws RestaurantNotFoundException {
+
+        if (restaurantId == null || restaurantId.isEmpty()) {
+            throw new RestaurantNotFoundException("RNF-002", "Restaurant id field should not be empty");
+        }
+
+        RestaurantEntity restaurantEntity = catalogCache.get().getRestaurantByUuid(restaurantId);
+
+        if (restaurantEntity == null) {
+            restaurantEntity = restaurantDao.getRestaurantByUuid(restaurantId);
+        }
+
+        if (restaurantEntity == null) {
+            throw new RestaurantNotFoundException("RNF-001", "No restaurant by this id");
+        }
+
+        return ratingAccumulator.merge(restaurantEntity);
+    }
+
+    /**
+     * This method returns a restaurant with its categories and the items it serves in each of them. It is served from
+     * the catalog snapshot, or for a restaurant added since the last reload, loaded from the database in three
+     * statements: the restaurant with its address and state, its categories, and its items with their categories.
+     *
+     * @param restaurantId uuid of the restaurant.
+     * @return the restaurant details.
+     * @throws RestaurantNotFoundException if the id is empty or no restaurant has it.
+     */
+    public RestaurantDetails restaurantDetails(String restaurantId) throws RestaurantNotFoundException {
+
+        if (restaurantId == null || restaurantId.isEmpty()) {
+            throw new RestaurantNotFoundException("RNF-002", "Restaurant id field should not be empty");
+        }
+
+        RestaurantDetails restaurantDetails = catalogCache.get().getRestaurantDetails(restaurantId);
+
+        if (restaurantDetails == null) {
+            restaurantDetails = loadRestaurantDetails(restaurantId);
+        }
+
+        if (restaurantDetails == null) {
+            throw new RestaurantNotFoundException("RNF-001", "No restaurant by this id");
+        }
+
+        //Counted before the merge, so the details never claim a rating that is not in them.
+        long ratingChanges = ratingAccumulator.getRatingChanges(restaurantDetails.getRestaurant().getId());
+
+        return new RestaurantDetails(ratingAccumulator.merge(restaurantDetails.getRestaurant()), restaurantDetails.getItemsByCategory(),
+                restaurantDetails.getVersion(), ratingChanges);
+    }
+
+    //Reads the restaurant details from the database, or returns null if there is no restaurant by the uuid.
+    private RestaurantDetails loadRestaurantDetails(String restaurantId) {
+
+        RestaurantEntity restaurantEntity = restaurantDao.getRestaurantByUuid(restaurantId);
+
+        if (restaurantEntity == null) {
+            return null;
+        }
+
+        //Categories come in name order; their item lists are filled in below, found by category id.
+        Map<CategoryEntity, List<ItemEntity>> itemsByCategory = new LinkedHashMap<>();
+        Map<Integer, List<ItemEntity>> itemsByCategoryId = new HashMap<>();
+        for (CategoryEntity categoryEntity : restaurantDao.getCategoriesByRestaurantId(restaurantEntity.getId())) {
+            List<ItemEntity> itemEntityList = new ArrayList<>();
+            itemsByCategory.put(categoryEntity, itemEntityList);
+            itemsByCategoryId.put(categoryEntity.getId(), itemEntityList);
+        }
+
+        //Rows come in item name order, so each category's items do too. An item linked twice is only listed once.
+        for (Object[] row : restaurantDao.getCategoryItemsByRestaurantId(restaurantEntity.getId())) {
+            List<ItemEntity> itemEntityList = itemsByCategoryId.get(row[0]);
+            ItemEntity itemEntity = (ItemEntity) row[1];
+            if (itemEntityList != null && (itemEntityList.isEmpty() || !itemEntityList.get(itemEntityList.size() - 1).getId().equals(itemEntity.getId()))) {
+                itemEntityList.add(itemEntity);
+            }
+        }
+
+        return new RestaurantDetails(restaurantEntity, itemsByCategory, 0, 0);
+    }
+
+    /**
+     * This method adds a customer's rating to the average rating of the restaurant. The rating is collected in memory
+     * and written to the database by the RatingFlushJob; until then it is merged into the restaurants read.
+     *
+     * @param restaurantEntity restaurant being rated. It is not modified.
+     * @param customerRating   rating from 1 to 5.
+     * @return the restaurant with the new average rating.
+     * @throws InvalidRatingException if the rating is not in the range of 1 to 5.
+     */
+    public RestaurantEntity updateRestaurantRating(RestaurantEntity restaurantEntity, Double customerRating) throws InvalidRatingException {
+
+        if (customerRating == null || customerRating < 1 || customerRating > 5) {
+            throw new InvalidRatingException("IRE-001", "Rating should be in the range of 1 to 5");
+        }
+
+        ratingAccumulator.add(restaurantEntity.getId(), customerRating);
+
+        //The restaurant given may already have pending ratings merged in, so they are merged again into the catalog's.
+        RestaurantEntity catalogRestaurantEntity = catalogCache.get().getRestaurantByUuid(restaurantEntity.getUuid());
+
+        return ratingAccumulator.merge(catalogRestaurantEntity == null ? restaurantEntity : catalogRestaurantEntity);
+    }
+
+    /**
+     * This method adds ratings collected in memory to the average rating of the restaurant, in its own transaction. The
+     * ratings stay pending until restaurantRatingsWritten is called once the transaction has committed.
+     *
+     * @param pendingRatings ratings of one restaurant not yet written.
+     * @return the restaurant with its new average.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public RestaurantEntity addRestaurantRatings(RatingAccumulator.PendingRatings pendingRatings) {
+
+        restaurantDao.addRestaurantRatings(pendingRatings.getRestaurantId(), pendingRatings.getCount(), pendingRatings.getSum());
+        return restaurantDao.getRestaurantById(pendingRatings.getRestaurantId());
+    }
+
+    /**
+     * This method records ratings written by addRestaurantRatings as no longer pending in the RatingAccumulator and then
+     * updates the catalog with the new averages in one snapshot, in that order, so no read sees the ratings both in a
+     * restaurant and still pending.
+     *
+     * @param pendingRatingsList    ratings whose transactions have committed.
+     * @param restaurantEntityList  restaurants returned by addRestaurantRatings for them.
+     */
+    public void restaurantRatingsWritten(List<RatingAccumulator.PendingRatings> pendingRatingsList, List<RestaurantEntity> restaurantEntityList) {
+
+        for (RatingAccumulator.PendingRatings pendingRatings : pendingRatingsList) {
+            ratingAccumulator.flushed(pendingRatings);
+        }
+        //The ratings are written whatever happens here; a catalog that could not be updated is brought up to date by the
+        //next reload.
+        try {
+            catalogCache.replaceRestaurants(restaurantEntityList);
+        } catch (RuntimeException e) {
+            LOG.warn("Could not update {} rated restaurants in the catalog", restaurantEntityList.size(), e);
+        }
+    }
+
+    //Shows the ratings not yet written to the database in the restaurants listed.
+    private List<RestaurantEntity> withPendingRatings(final List<RestaurantEntity> restaurantEntityList) {
+        return new PendingRatingList(restaurantEntityList, ratingAccumulator);
+    }
+
+    private static final class PendingRatingList extends AbstractList<RestaurantEntity> implements RandomAccess {
+
+        private final List<RestaurantEntity> restaurantEntityList;
+
+        private final RatingAccumulator ratingAccumulator;
+
+        private PendingRatingList(final List<RestaurantEntity> restaurantEntityList, final RatingAccumulator ratingAccumulator) {
+            this.restaurantEntityList = restaurantEntityList;
+            this.ratingAccumulator = ratingAccumulator;
+        }
+
+        @Override
+        public RestaurantEntity get(final int index) {
+            return ratingAccumulator.merge(restaurantEntityList.get(index));
+        }
+
+        @Override
+        public int size() {
+            return restaurantEntityList.size();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.dao.CustomerDao;
+import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SessionCache sits in front of the customerByAccessToken query and keeps a bounded, TTL-aware map from access-token
+ * to the resolved CustomerSession. Entries are evicted in least-recently-used order once the cache is full and are
+ * re-read from CUSTOMER_AUTH once their TTL has passed, so a logout done on another instance is seen within one TTL.
+ * A logout done on this instance invalidates the entry immediately. In stateless token verification mode a miss is
+ * resolved from the token's signature and claims first, and only falls back to CUSTOMER_AUTH for unverifiable tokens.
+ */
+@Component
+@ManagedResource(objectName = "FoodOrderingApp:type=SessionCache", description = "Access-token session cache")
+public class SessionCache {
+
+    @Autowired
+    private CustomerDao customerDao;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private CustomerAuthPartitionService customerAuthPartitionService;
+
+    private final long ttlMillis;
+
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    //Bumped on every invalidation, so that a lookup which raced with a logout does not put the stale row back.
+    private final AtomicLong generation = new AtomicLong();
+
+    public SessionCache(@Value("${foodorderingapp.session-cache.max-size:10000}") final int maxSize,
+                        @Value("${foodorderingapp.session-cache.ttl-seconds:300}") final long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the session for the given access-token, reading CUSTOMER_AUTH only when the token is not cached or its
+     * entry has outlived the TTL.
+     *
+     * @param accessToken access-token sent by the customer.
+     * @return CustomerSession or null if no CUSTOMER_AUTH row carries this token.
+     */
+    public CustomerSession getSession(final String accessToken) {
+        if (accessToken == null) {
+            return null;
+        }
+
+        final long now = System.currentTimeMillis();
+        synchronized (entries) {
+            final Entry entry = entries.get(accessToken);
+            if (entry != null) {
+                if (entry.cachedUntil > now) {
+                    hits.incrementAndGet();
+                    return entry.session;
+                }
+                entries.remove(accessToken);
+                evictions.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+
+        final long generationBeforeLoad = generation.get();
+        final CustomerSession session = load(accessToken);
+        if (session == null) {
+            return null;
+        }
+
+        synchronized (entries) {
+            if (generation.get() == generationBeforeLoad) {
+                entries.put(accessToken, new Entry(session, now + ttlMillis));
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Drops the cached session of the given access-token. When called inside a transaction the entry is dropped again
+     * after commit, so a concurrent lookup cannot re-cache the row as it was before the transaction.
+     *
+     * @param accessToken access-token to invalidate.
+     */
+    public void invalidate(final String accessToken) {
+        evict(accessToken);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    evict(accessToken);
+                }
+            });
+        }
+    }
+
+    protected CustomerSession load(final String accessToken) {
+        if (accessTokenService.isStateless()) {
+            final CustomerSession session = accessTokenService.verify(accessToken);
+            if (session != null) {
+                return session;
+            }
+        }
+        final CustomerAuthEntity customerAuthEntity = customerDao.getCustomerByAccessToken(accessToken, customerAuthPartitionService.getLoginHorizon());
+        return customerAuthEntity == null ? null : CustomerSession.of(customerAuthEntity);
+    }
+
+    private void evict(final String accessToken) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(accessToken);
+        }
+    }
+
+    @ManagedAttribute(description = "Lookups answered from the cache")
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @ManagedAttribute(description = "Lookups that had to verify the token or query CUSTOMER_AUTH")
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @ManagedAttribute(description = "Entries dropped because the cache was full or their TTL had passed")
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @ManagedAttribute(description = "Number of cached sessions")
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @ManagedOperation(description = "Drops every cached session")
+    public void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    private static final class Entry {
+        private final CustomerSession session;
+        private final long cachedUntil;
+
+        private Entry(final CustomerSession session, final long cachedUntil) {
+            this.session = session;
+            this.cachedUntil = cachedUntil;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.dao.CustomerDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TokenRevocationList remembers which sessions were logged out before they expired, so that a token which still carries
+ * a valid signature can be rejected without reading CUSTOMER_AUTH. Only the uuid of the CUSTOMER_AUTH row (the jti claim
+ * of the token) and its expiry are kept, and an entry is dropped once its session would have expired anyway.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final int PURGE_EVERY_REVOCATIONS = 1024;
+
+    @Autowired
+    private CustomerDao customerDao;
+
+    @Autowired
+    private CustomerAuthPartitionService customerAuthPartitionService;
+
+    //CUSTOMER_AUTH uuid -> logout time and expiry time, both in epoch millis.
+    private final Map<String, long[]> revoked = new ConcurrentHashMap<>();
+
+    private final AtomicInteger revocationsSincePurge = new AtomicInteger();
+
+    /**
+     * Rebuilds the list from the CUSTOMER_AUTH rows that were logged out and have not expired yet.
+     */
+    public void rebuild() {
+        final List<Object[]> rows = customerDao.getRevokedCustomerAuths(ZonedDateTime.now(), customerAuthPartitionService.getLoginHorizon());
+        revoked.clear();
+        for (Object[] row : rows) {
+            revoke((String) row[0], (ZonedDateTime) row[1], (ZonedDateTime) row[2]);
+        }
+    }
+
+    public void revoke(final String customerAuthUuid, final ZonedDateTime logoutAt, final ZonedDateTime expiresAt) {
+        revoked.put(customerAuthUuid, new long[]{logoutAt.toInstant().toEpochMilli(), expiresAt.toInstant().toEpochMilli()});
+        if (revocationsSincePurge.incrementAndGet() >= PURGE_EVERY_REVOCATIONS) {
+            revocationsSincePurge.set(0);
+            purgeExpired();
+        }
+    }
+
+    /**
+     * @param customerAuthUuid uuid of the CUSTOMER_AUTH row.
+     * @return logout time in epoch millis, or null if the session was not revoked.
+     */
+    public Long getLogoutAt(final String customerAuthUuid) {
+        final long[] entry = revoked.get(customerAuthUuid);
+        return entry == null ? null : entry[0];
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    public void purgeExpired() {
+        final long now = System.currentTimeMillis();
+        revoked.values().removeIf(entry -> entry[1] <= now);
+    }
+}
@@ -0,0 +1,39 @@
+package com.upgrad.FoodOrderingApp.service.common;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * AccessTokenDigest computes the value of CUSTOMER_AUTH.ACCESS_TOKEN_DIGEST: the SHA-256 of the UTF-8 bytes of the
+ * access-token as 64 lower-case hex characters. It matches encode(sha256(convert_to(access_token, 'UTF8')), 'hex') in SQL.
+ */
+public final class AccessTokenDigest {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        }
+    });
+
+    private AccessTokenDigest() {
+    }
+
+    public static String of(final String accessToken) {
+        if (accessToken == null) {
+            return null;
+        }
+        final byte[] digest = SHA_256.get().digest(accessToken.getBytes(StandardCharsets.UTF_8));
+        final char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            final int v = digest[i] & 0xFF;
+            hex[i * 2] = HEX[v >>> 4];
+            hex[i * 2 + 1] = HEX[v & 0x0F];
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,40 @@
+package com.upgrad.FoodOrderingApp.service.common;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ItemType maps the values of ITEM.TYPE to the kind of item: "0" for vegetarian and "1" for non-vegetarian.
+ */
+public enum ItemType {
+
+    VEG("0"),
+
+    NON_VEG("1");
+
+    private static final Map<String, ItemType> LOOKUP = new HashMap<String, ItemType>();
+
+    static {
+        for (final ItemType enumeration : ItemType.values()) {
+            LOOKUP.put(enumeration.getValue(), enumeration);
+        }
+    }
+
+    private final String value;
+
+    private ItemType(final String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @param value value of ITEM.TYPE.
+     * @return the item type, or null for an unknown value.
+     */
+    public static ItemType fromValue(final String value) {
+        return LOOKUP.get(value);
+    }
+}
@@ -0,0 +1,26 @@
+package com.upgrad.FoodOrderingApp.service.common;
+
+/**
+ * RestaurantSortOrder is what the restaurant listing can be sorted by, each in the direction customers expect by
+ * default: highest rating, lowest average price for two, most customers rated, and name from A to Z.
+ */
+public enum RestaurantSortOrder {
+
+    RATING(SortDirection.DESC),
+
+    PRICE(SortDirection.ASC),
+
+    CUSTOMERS_RATED(SortDirection.DESC),
+
+    NAME(SortDirection.ASC);
+
+    private final SortDirection defaultDirection;
+
+    private RestaurantSortOrder(final SortDirection defaultDirection) {
+        this.defaultDirection = defaultDirection;
+    }
+
+    public SortDirection getDefaultDirection() {
+        return defaultDirection;
+    }
+}
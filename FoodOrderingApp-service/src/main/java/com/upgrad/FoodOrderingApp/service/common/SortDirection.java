@@ -0,0 +1,11 @@
+package com.upgrad.FoodOrderingApp.service.common;
+
+/**
+ * SortDirection is the direction of a sorted listing: ascending or descending.
+ */
+public enum SortDirection {
+
+    ASC,
+
+    DESC
+}
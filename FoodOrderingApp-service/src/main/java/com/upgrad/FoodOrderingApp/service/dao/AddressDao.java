@@ -5,7 +5,6 @@ import org.springframework.stereotype.Repository;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
-import javax.persistence.TypedQuery;
 import java.util.List;
 
 @Repository
@@ -24,20 +23,38 @@ public class AddressDao {
         return customerAddressEntity;
     }
 
-    public AddressEntity deleteAddress(AddressEntity addressEntity) {
-        entityManager.remove(addressEntity);
-        return addressEntity;
+    //Persists the addresses and their links to the customer, flushing every batchSize addresses. With ids allocated from the
+    //sequence and hibernate.order_inserts set, each flush sends the ADDRESS rows and then the CUSTOMER_ADDRESS rows as JDBC
+    //batches. Clearing after each flush keeps the persistence context from growing with the import.
+    public void saveCustomerAddresses(List<CustomerAddressEntity> customerAddressEntities, int batchSize) {
+        for (int i = 0; i < customerAddressEntities.size(); i++) {
+            CustomerAddressEntity customerAddressEntity = customerAddressEntities.get(i);
+            entityManager.persist(customerAddressEntity.getAddressId());
+            entityManager.persist(customerAddressEntity);
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
     }
 
+    //Marks the address as deleted, provided it belongs to the customer and is still active. Returns the number of addresses changed.
+    public int deactivateAddress(String uuid, Integer customerId) {
+        return entityManager.createNamedQuery("deactivateCustomerAddress").setParameter("uuid", uuid).setParameter("customerId", customerId).executeUpdate();
+    }
 
-    public StateEntity getStateByUuid(String uuid) {
-        try {
-            return entityManager.createNamedQuery("stateByUuid" , StateEntity.class).setParameter("uuid", uuid).getSingleResult();
-        } catch (NoResultException nre){
-            return null;
-        }
+    //Deletes up to batchSize deleted addresses that no order or restaurant refers to. Their CUSTOMER_ADDRESS rows go with them
+    //through ON DELETE CASCADE. Rows locked by another transaction are skipped and picked up by a later run.
+    public int purgeInactiveAddresses(int batchSize) {
+        return entityManager.createNativeQuery("delete from address where id in (select a.id from address a where a.active = 0 " +
+                "and not exists (select 1 from orders o where o.address_id = a.id) " +
+                "and not exists (select 1 from restaurant r where r.address_id = a.id) " +
+                "order by a.id limit :batchSize for update skip locked)").setParameter("batchSize", batchSize).executeUpdate();
     }
 
+
     public AddressEntity getAddressByUuid(String uuid) {
         try {
             return entityManager.createNamedQuery("addressByUuid" , AddressEntity.class).setParameter("uuid", uuid).getSingleResult();
@@ -46,51 +63,30 @@ public class AddressDao {
         }
     }
 
-    public CustomerAuthEntity getCustomerByAccessToken(String accessToken) {
+    //Returns the active address with the given uuid, linked to the customer it belongs to, whichever customer that is.
+    public CustomerAddressEntity getCustomerAddressByAddressUuid(String uuid) {
         try {
-            return entityManager.createNamedQuery("customerByAccessToken" , CustomerAuthEntity.class).setParameter("accessToken", accessToken).getSingleResult();
+            return entityManager.createNamedQuery("customerAddressByAddressUuid" , CustomerAddressEntity.class).setParameter("uuid", uuid).getSingleResult();
         } catch (NoResultException nre){
             return null;
         }
     }
 
-    public TypedQuery<StateEntity> getAllStates() {
-        try {
-            return entityManager.createNamedQuery("allStates" , StateEntity.class);
-        } catch (NullPointerException nre) {
-            return null;
-        }
+    //Returns the distinct pincodes of the addresses that have no coordinates yet.
+    public List<String> getUnlocatedPincodes() {
+        return entityManager.createNamedQuery("unlocatedAddressPincodes" , String.class).getResultList();
     }
 
-    public CustomerAddressEntity getCustomerAddress(CustomerEntity customerId) {
-        try {
-            return entityManager.createNamedQuery("getCustomerAddress" , CustomerAddressEntity.class).setParameter("customerId" , customerId).getSingleResult();
-        } catch (NullPointerException nre) {
-            return null;
-        }
+    //Sets the coordinates of every address of the pincode that has none. Returns the number of addresses changed.
+    public int locateAddresses(String pincode, double latitude, double longitude) {
+        return entityManager.createNamedQuery("locateAddressesByPincode").setParameter("pincode", pincode)
+                .setParameter("latitude", latitude).setParameter("longitude", longitude).executeUpdate();
     }
 
-    public TypedQuery<AddressEntity> getAllSavedAddresses() {
-        try {
-            return entityManager.createNamedQuery("allSavedAddresses" , AddressEntity.class);
-        } catch (NullPointerException nre) {
-            return null;
-        }
-    }
-
-    public TypedQuery<CustomerAddressEntity> allCustomerAddress() {
-        try {
-            return entityManager.createNamedQuery("getAllCustomerAddress" , CustomerAddressEntity.class);
-        } catch (NullPointerException nre) {
-            return null;
-        }
-    }
-
-    public StateEntity getStatesByAddress(String uuid) {
-        try {
-            return entityManager.createNamedQuery("stateByUuid" , StateEntity.class).setParameter("uuid" , uuid).getSingleResult();
-        } catch (NullPointerException nre) {
-            return null;
-        }
+    //Loads up to maxResults addresses of a customer that come after the given CUSTOMER_ADDRESS id, together with their states,
+    //in a single statement. The (customer_id, id) index serves the seek, so the cost does not grow with the page number.
+    public List<CustomerAddressEntity> getCustomerAddressPage(Integer customerId, Integer afterId, int maxResults) {
+        return entityManager.createNamedQuery("customerAddressPageByCustomerId" , CustomerAddressEntity.class).setParameter("customerId" , customerId)
+                .setParameter("afterId" , afterId).setMaxResults(maxResults).getResultList();
     }
 }
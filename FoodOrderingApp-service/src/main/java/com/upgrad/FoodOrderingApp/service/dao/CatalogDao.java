@@ -0,0 +1,54 @@
+package com.upgrad.FoodOrderingApp.service.dao;
+
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * CatalogDao reads the restaurants, categories and items, and the links between them, in full for the CatalogCache.
+ * The links are read as pairs of ids rather than as entities, so that building the catalog costs one statement per table.
+ */
+@Repository
+public class CatalogDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    //Restaurants come with their address and state.
+    public List<RestaurantEntity> getAllRestaurantsOrderedByName() {
+        return entityManager.createNamedQuery("allRestaurantsOrderedByName" , RestaurantEntity.class).getResultList();
+    }
+
+    public List<CategoryEntity> getAllCategoriesOrderedByName() {
+        return entityManager.createNamedQuery("allCategoriesOrderedByName" , CategoryEntity.class).getResultList();
+    }
+
+    public List<ItemEntity> getAllItemsOrderedByName() {
+        return entityManager.createNamedQuery("allItemsOrderedByName" , ItemEntity.class).getResultList();
+    }
+
+    //Rows of restaurant id and category id.
+    public List<Object[]> getRestaurantCategoryIds() {
+        return entityManager.createNamedQuery("allRestaurantCategoryIds" , Object[].class).getResultList();
+    }
+
+    //Rows of restaurant id and item id.
+    public List<Object[]> getRestaurantItemIds() {
+        return entityManager.createNamedQuery("allRestaurantItemIds" , Object[].class).getResultList();
+    }
+
+    //Rows of category id and item id.
+    public List<Object[]> getCategoryItemIds() {
+        return entityManager.createNamedQuery("allCategoryItemIds" , Object[].class).getResultList();
+    }
+
+    //Rows of restaurant id, item id and the number of order lines of that item in orders from that restaurant.
+    public List<Object[]> getItemOrderCounts() {
+        return entityManager.createNamedQuery("itemOrderCountsByRestaurant" , Object[].class).getResultList();
+    }
+}
@@ -0,0 +1,84 @@
+package com.upgrad.FoodOrderingApp.service.dao;
+
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * CustomerAuthPartitionDao manages the daily partitions of CUSTOMER_AUTH. Partitions are named CUSTOMER_AUTH_PYYYYMMDD
+ * and hold the rows whose login_at falls on that day. CUSTOMER_AUTH_DEFAULT holds the rows of every other day.
+ */
+@Repository
+public class CustomerAuthPartitionDao {
+
+    private static final String PARTITION_PREFIX = "customer_auth_p";
+
+    private static final String DEFAULT_PARTITION = "customer_auth_default";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + PARTITION_SUFFIX.format(day);
+    }
+
+    //Returns null for partitions that do not follow the daily naming, such as the default partition.
+    public static LocalDate partitionDay(String partitionName) {
+        if (!partitionName.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partitionName.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<String> getPartitionNames() {
+        return entityManager.createNativeQuery("select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid " +
+                "join pg_class p on p.oid = i.inhparent where p.relname = 'customer_auth' order by c.relname").getResultList();
+    }
+
+    //A partition cannot be created for a day that already has rows in the default partition, so the default partition is
+    //then detached, the partition created and the rows moved into it before the default partition is attached again.
+    //Creating a partition locks the whole table anyway, and taking the lock first keeps new rows of the day out meanwhile.
+    public void createPartition(LocalDate day) {
+        final String dayRows = "login_at >= '" + day + "' and login_at < '" + day.plusDays(1) + "'";
+        entityManager.createNativeQuery("lock table customer_auth in access exclusive mode").executeUpdate();
+        final boolean inDefault = !entityManager.createNativeQuery("select 1 from " + DEFAULT_PARTITION + " where " + dayRows + " limit 1")
+                .getResultList().isEmpty();
+
+        if (inDefault) {
+            entityManager.createNativeQuery("alter table customer_auth detach partition " + DEFAULT_PARTITION).executeUpdate();
+        }
+        entityManager.createNativeQuery("create table if not exists " + partitionName(day) + " partition of customer_auth for values from ('"
+                + day + "') to ('" + day.plusDays(1) + "')").executeUpdate();
+        if (inDefault) {
+            entityManager.createNativeQuery("insert into customer_auth select * from " + DEFAULT_PARTITION + " where " + dayRows).executeUpdate();
+            entityManager.createNativeQuery("delete from " + DEFAULT_PARTITION + " where " + dayRows).executeUpdate();
+            entityManager.createNativeQuery("alter table customer_auth attach partition " + DEFAULT_PARTITION + " default").executeUpdate();
+        }
+    }
+
+    //Detaching first takes the rows out of every query plan before the files are removed.
+    public void dropPartition(LocalDate day) {
+        final String partitionName = partitionName(day);
+        entityManager.createNativeQuery("alter table customer_auth detach partition " + partitionName).executeUpdate();
+        entityManager.createNativeQuery("drop table " + partitionName).executeUpdate();
+    }
+
+    //The default partition is never dropped, so the rows in it that logged in before the given time are deleted instead.
+    public int purgeDefaultPartition(LocalDateTime loginBefore) {
+        return entityManager.createNativeQuery("delete from " + DEFAULT_PARTITION + " where login_at < :loginBefore")
+                .setParameter("loginBefore", Timestamp.valueOf(loginBefore)).executeUpdate();
+    }
+}
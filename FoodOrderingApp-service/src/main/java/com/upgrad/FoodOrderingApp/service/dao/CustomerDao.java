@@ -1,4 +1,5 @@
 package com.upgrad.FoodOrderingApp.service.dao;
+import com.upgrad.FoodOrderingApp.service.common.AccessTokenDigest;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerAuthEntity;
 import com.upgrad.FoodOrderingApp.service.entity.CustomerEntity;
 import com.upgrad.FoodOrderingApp.service.exception.SignUpRestrictedException;
@@ -9,6 +10,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import java.time.ZonedDateTime;
+import java.util.List;
 
 /**
  * CustomerDao class provides the database access for all the endpoints in  CustomerController.
@@ -38,14 +40,31 @@ public class CustomerDao {
         }
     }
 
-    public CustomerAuthEntity getCustomerByAccessToken(String accessToken) {
+    //CUSTOMER_AUTH is partitioned on login_at, so the loginAfter bound keeps the lookups to the partitions of live sessions.
+    public CustomerAuthEntity getCustomerByAccessToken(String accessToken, ZonedDateTime loginAfter) {
         try {
-            return entityManager.createNamedQuery("customerByAccessToken" , CustomerAuthEntity.class).setParameter("accessToken", accessToken).getSingleResult();
+            return entityManager.createNamedQuery("customerByAccessToken" , CustomerAuthEntity.class).setParameter("accessTokenDigest", AccessTokenDigest.of(accessToken))
+                    .setParameter("loginAfter", loginAfter).getSingleResult();
         } catch (NoResultException nre){
             return null;
         }
     }
 
+    public CustomerAuthEntity getCustomerAuthByUuid(String uuid, ZonedDateTime loginAfter) {
+        try {
+            return entityManager.createNamedQuery("customerAuthByUuid" , CustomerAuthEntity.class).setParameter("uuid", uuid)
+                    .setParameter("loginAfter", loginAfter).getSingleResult();
+        } catch (NoResultException nre){
+            return null;
+        }
+    }
+
+    //Returns [uuid, logoutAt, expiresAt] rows of the sessions that were logged out but have not expired yet.
+    public List<Object[]> getRevokedCustomerAuths(ZonedDateTime now, ZonedDateTime loginAfter) {
+        return entityManager.createNamedQuery("revokedCustomerAuths" , Object[].class).setParameter("now" , now)
+                .setParameter("loginAfter" , loginAfter).getResultList();
+    }
+
     public CustomerEntity getCustomerById(CustomerAuthEntity customerId) {
         try {
             return entityManager.createNamedQuery("customerByCustomerId" , CustomerEntity.class).setParameter("customerId" , customerId).getSingleResult();
@@ -54,9 +73,23 @@ public class CustomerDao {
         }
     }
 
+    public CustomerEntity findCustomerById(Integer id) {
+        return entityManager.find(CustomerEntity.class, id);
+    }
+
+    //Returns an uninitialized proxy, which is enough to set a foreign key without loading the CUSTOMER row.
+    public CustomerEntity getCustomerReference(Integer id) {
+        return entityManager.getReference(CustomerEntity.class, id);
+    }
+
     public CustomerEntity changePassword(CustomerEntity customerEntity) {
-        entityManager.merge(customerEntity);
-        return customerEntity;
+        return entityManager.merge(customerEntity);
+    }
+
+    //Replaces the hash only while it is still the one that was verified, so a password changed in between is kept.
+    public int rehashPassword(Integer id, String oldPassword, String salt, String password) {
+        return entityManager.createNamedQuery("rehashCustomerPassword").setParameter("id" , id).setParameter("oldPassword" , oldPassword)
+                .setParameter("salt" , salt).setParameter("password" , password).executeUpdate();
     }
 
     public CustomerAuthEntity createCustomerAuth(CustomerAuthEntity userAuthEntity) {
@@ -0,0 +1,37 @@
+package com.upgrad.FoodOrderingApp.service.dao;
+
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.CouponEntity;
+import com.upgrad.FoodOrderingApp.service.entity.PaymentEntity;
+import com.upgrad.FoodOrderingApp.service.entity.StateEntity;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * ReferenceDataDao reads the small lookup tables (STATE, PAYMENT, CATEGORY and COUPON) in full for the ReferenceDataCache.
+ */
+@Repository
+public class ReferenceDataDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<StateEntity> getAllStates() {
+        return entityManager.createNamedQuery("allStates" , StateEntity.class).getResultList();
+    }
+
+    public List<PaymentEntity> getAllPaymentMethods() {
+        return entityManager.createNamedQuery("allPaymentMethods" , PaymentEntity.class).getResultList();
+    }
+
+    public List<CategoryEntity> getAllCategoriesOrderedByName() {
+        return entityManager.createNamedQuery("allCategoriesOrderedByName" , CategoryEntity.class).getResultList();
+    }
+
+    public List<CouponEntity> getAllCoupons() {
+        return entityManager.createNamedQuery("allCoupons" , CouponEntity.class).getResultList();
+    }
+}
@@ -0,0 +1,51 @@
+package com.upgrad.FoodOrderingApp.service.dao;
+
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.NoResultException;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+@Repository
+public class RestaurantDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    //Returns the restaurant with its address and state.
+    public RestaurantEntity getRestaurantById(Integer id) {
+        try {
+            return entityManager.createNamedQuery("restaurantById" , RestaurantEntity.class).setParameter("id" , id).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    //Returns the restaurant with its address and state.
+    public RestaurantEntity getRestaurantByUuid(String uuid) {
+        try {
+            return entityManager.createNamedQuery("restaurantByUuid" , RestaurantEntity.class).setParameter("uuid" , uuid).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
+    //Returns the categories of the restaurant in name order.
+    public List<CategoryEntity> getCategoriesByRestaurantId(Integer restaurantId) {
+        return entityManager.createNamedQuery("categoriesByRestaurantId" , CategoryEntity.class).setParameter("restaurantId" , restaurantId).getResultList();
+    }
+
+    //Rows of category id and item, for every item the restaurant serves and every category the item is in, in item name order.
+    public List<Object[]> getCategoryItemsByRestaurantId(Integer restaurantId) {
+        return entityManager.createNamedQuery("categoryItemsByRestaurantId" , Object[].class).setParameter("restaurantId" , restaurantId).getResultList();
+    }
+
+    //Adds a number of ratings with the given sum to the average in a single statement, so concurrent updates of a restaurant are not lost.
+    public int addRestaurantRatings(Integer id, Long ratingCount, Double ratingSum) {
+        return entityManager.createNamedQuery("updateRestaurantRating").setParameter("id" , id)
+                .setParameter("ratingCount" , ratingCount.intValue()).setParameter("ratingSum" , ratingSum).executeUpdate();
+    }
+}
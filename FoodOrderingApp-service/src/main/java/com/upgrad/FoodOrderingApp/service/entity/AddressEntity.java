@@ -12,14 +12,18 @@ import java.io.Serializable;
 @Table(name = "address" , schema = "public")
 @NamedQueries({
         @NamedQuery(name = "addressByUuid", query = " select a from AddressEntity a where a.uuid = :uuid"),
-        @NamedQuery(name = "allSavedAddresses", query = "select a from AddressEntity a ")
+        @NamedQuery(name = "deactivateCustomerAddress", query = "update AddressEntity a set a.active = 0 where a.uuid = :uuid and a.active = 1 and a.id in (select c.addressId.id from CustomerAddressEntity c where c.customerId.id = :customerId)"),
+        @NamedQuery(name = "unlocatedAddressPincodes", query = "select distinct a.pincode from AddressEntity a where a.latitude is null and a.pincode is not null order by a.pincode"),
+        @NamedQuery(name = "locateAddressesByPincode", query = "update AddressEntity a set a.latitude = :latitude, a.longitude = :longitude where a.pincode = :pincode and a.latitude is null")
 
 })
 public class AddressEntity implements Serializable{
 
+    //Ids are taken from the sequence 50 at a time, so that inserts can be sent to the database in JDBC batches.
     @Id
     @Column(name = "ID")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenceGenerator(name = "addressIdGenerator", sequenceName = "address_id_seq", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "addressIdGenerator")
     private Integer id;
 
     @Column(name = "UUID")
@@ -51,6 +55,13 @@ public class AddressEntity implements Serializable{
     @Column(name = "active")
     private Integer active;
 
+    //Approximate centre of the pincode, or null while the pincode has no known centre.
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
     public Integer getId() {
         return id;
     }
@@ -114,4 +125,20 @@ public class AddressEntity implements Serializable{
     public void setActive(Integer active) {
         this.active = active;
     }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
 }
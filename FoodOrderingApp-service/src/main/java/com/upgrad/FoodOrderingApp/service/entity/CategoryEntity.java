@@ -7,6 +7,9 @@ import java.io.Serializable;
 
 @Entity
 @Table(name = "category" ,schema = "public")
+@NamedQueries({
+        @NamedQuery(name = "allCategoriesOrderedByName" , query = "select c from CategoryEntity c order by c.categoryName")
+})
 public class CategoryEntity implements Serializable {
 
     @Id
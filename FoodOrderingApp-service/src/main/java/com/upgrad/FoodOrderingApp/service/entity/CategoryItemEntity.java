@@ -9,6 +9,9 @@ import java.io.Serializable;
 
 @Entity
 @Table(name = "category_item" , schema = "public")
+@NamedQueries({
+        @NamedQuery(name = "allCategoryItemIds" , query = "select ci.categoryId.id, ci.itemId.id from CategoryItemEntity ci")
+})
 public class CategoryItemEntity implements Serializable{
 
     @Id
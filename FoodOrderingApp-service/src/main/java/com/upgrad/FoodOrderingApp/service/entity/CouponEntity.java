@@ -7,6 +7,9 @@ import java.io.Serializable;
 
 @Entity
 @Table(name = "coupon" , schema = "public")
+@NamedQueries({
+        @NamedQuery(name = "allCoupons" , query = "select c from CouponEntity c")
+})
 public class CouponEntity implements Serializable{
 
     @Id
@@ -27,6 +30,15 @@ public class CouponEntity implements Serializable{
     @NotNull
     private Integer percent;
 
+    public CouponEntity() {
+    }
+
+    public CouponEntity(String uuid, String couponName, Integer percent) {
+        this.uuid = uuid;
+        this.couponName = couponName;
+        this.percent = percent;
+    }
+
     public Integer getId() {
         return id;
     }
@@ -11,15 +11,17 @@ import java.io.Serializable;
 @Table(name = "customer_address" , schema = "public")
 @NamedQueries(
         {
-                @NamedQuery(name = "getCustomerAddress" , query = "select c from CustomerAddressEntity c where c.customerId = :customerId"),
-                @NamedQuery(name = "getAllCustomerAddress" , query = "select c from CustomerAddressEntity c ")
+                @NamedQuery(name = "customerAddressPageByCustomerId" , query = "select c from CustomerAddressEntity c join fetch c.addressId a left join fetch a.stateId where c.customerId.id = :customerId and c.id > :afterId and a.active = 1 order by c.id"),
+                @NamedQuery(name = "customerAddressByAddressUuid" , query = "select c from CustomerAddressEntity c join fetch c.addressId a where a.uuid = :uuid and a.active = 1")
         }
 )
 public class CustomerAddressEntity implements Serializable{
 
+    //Ids are taken from the sequence 50 at a time, so that inserts can be sent to the database in JDBC batches.
     @Id
     @Column(name = "ID")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenceGenerator(name = "customerAddressIdGenerator", sequenceName = "customer_address_id_seq", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customerAddressIdGenerator")
     private Integer id;
 
     @ManyToOne
@@ -1,5 +1,6 @@
 package com.upgrad.FoodOrderingApp.service.entity;
 
+import com.upgrad.FoodOrderingApp.service.common.AccessTokenDigest;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 import org.springframework.data.jpa.repository.Query;
@@ -13,7 +14,9 @@ import java.time.ZonedDateTime;
 @Entity
 @Table(name = "customer_auth" , schema = "public")
 @NamedQueries({
-        @NamedQuery(name = "customerByAccessToken" , query = "select c from CustomerAuthEntity c where c.accessToken = :accessToken"),
+        @NamedQuery(name = "customerByAccessToken" , query = "select c from CustomerAuthEntity c where c.accessTokenDigest = :accessTokenDigest and c.loginAt > :loginAfter"),
+        @NamedQuery(name = "customerAuthByUuid" , query = "select c from CustomerAuthEntity c where c.uuid = :uuid and c.loginAt > :loginAfter"),
+        @NamedQuery(name = "revokedCustomerAuths" , query = "select c.uuid, c.logoutAt, c.expiresAt from CustomerAuthEntity c where c.logoutAt is not null and c.expiresAt > :now and c.loginAt > :loginAfter"),
 })
 public class CustomerAuthEntity implements Serializable {
     @Id
@@ -36,7 +39,13 @@ public class CustomerAuthEntity implements Serializable {
     @Size(max = 500)
     private String accessToken;
 
+    //SHA-256 of the access-token, kept in step with it by setAccessToken. Token lookups go through the index on this column.
+    @Column(name = "access_token_digest")
+    @Size(max = 64)
+    private String accessTokenDigest;
+
     @Column(name = "login_at")
+    @NotNull
     private ZonedDateTime loginAt;
 
     @Column(name = "logout_at")
@@ -75,6 +84,11 @@ public class CustomerAuthEntity implements Serializable {
 
     public void setAccessToken(String accessToken) {
         this.accessToken = accessToken;
+        this.accessTokenDigest = AccessTokenDigest.of(accessToken);
+    }
+
+    public String getAccessTokenDigest() {
+        return accessTokenDigest;
     }
 
     public ZonedDateTime getLoginAt() {
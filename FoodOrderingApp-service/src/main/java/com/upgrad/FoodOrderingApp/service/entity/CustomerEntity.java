@@ -11,7 +11,8 @@ import java.io.Serializable;
 @NamedQueries({
         @NamedQuery(name = "customerByContactNumber" , query = "select c from CustomerEntity c where c.contactNumber = :contactNumber"),
         @NamedQuery(name = "customerByEmail" , query = "select c from CustomerEntity c where c.email = :email"),
-        @NamedQuery(name = "customerById" , query = "select c from CustomerEntity c where c.id = :id")
+        @NamedQuery(name = "customerById" , query = "select c from CustomerEntity c where c.id = :id"),
+        @NamedQuery(name = "rehashCustomerPassword" , query = "update CustomerEntity c set c.salt = :salt, c.password = :password where c.id = :id and c.password = :oldPassword")
 })
 public class CustomerEntity implements Serializable {
 
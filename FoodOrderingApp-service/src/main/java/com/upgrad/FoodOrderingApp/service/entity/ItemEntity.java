@@ -7,6 +7,9 @@ import java.io.Serializable;
 
 @Entity
 @Table(name = "item" , schema = "public")
+@NamedQueries({
+        @NamedQuery(name = "allItemsOrderedByName" , query = "select i from ItemEntity i order by i.itemName, i.id")
+})
 public class ItemEntity implements Serializable {
 
     @Id
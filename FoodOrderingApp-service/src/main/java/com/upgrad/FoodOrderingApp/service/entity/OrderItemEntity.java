@@ -9,6 +9,9 @@ import java.io.Serializable;
 
 @Entity
 @Table(name = "order_item" , schema = "public")
+@NamedQueries({
+        @NamedQuery(name = "itemOrderCountsByRestaurant" , query = "select o.restaurantId.id, oi.itemId.id, count(oi) from OrderItemEntity oi join oi.orderId o group by o.restaurantId.id, oi.itemId.id")
+})
 public class OrderItemEntity implements Serializable {
 
     @Id
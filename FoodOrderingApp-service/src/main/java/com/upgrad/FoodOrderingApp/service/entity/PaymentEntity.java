@@ -7,6 +7,9 @@ import java.io.Serializable;
 
 @Entity
 @Table(name = "payment" , schema = "public")
+@NamedQueries({
+        @NamedQuery(name = "allPaymentMethods" , query = "select p from PaymentEntity p order by p.paymentName")
+})
 public class PaymentEntity implements Serializable{
 
     @Id
@@ -9,6 +9,10 @@ import java.io.Serializable;
 
 @Entity
 @Table(name = "restaurant_category" , schema = "public")
+@NamedQueries({
+        @NamedQuery(name = "allRestaurantCategoryIds" , query = "select rc.restaurantId.id, rc.categoryId.id from RestaurantCategoryEntity rc"),
+        @NamedQuery(name = "categoriesByRestaurantId" , query = "select c from RestaurantCategoryEntity rc join rc.categoryId c where rc.restaurantId.id = :restaurantId order by c.categoryName, c.id")
+})
 public class RestaurantCategoryEntity implements Serializable {
 
     @Id
@@ -9,6 +9,12 @@ import java.io.Serializable;
 
 @Entity
 @Table(name = "restaurant" , schema = "public")
+@NamedQueries({
+        @NamedQuery(name = "allRestaurantsOrderedByName" , query = "select r from RestaurantEntity r join fetch r.addressId a left join fetch a.stateId order by r.restaurantName, r.id"),
+        @NamedQuery(name = "restaurantByUuid" , query = "select r from RestaurantEntity r join fetch r.addressId a left join fetch a.stateId where r.uuid = :uuid"),
+        @NamedQuery(name = "restaurantById" , query = "select r from RestaurantEntity r join fetch r.addressId a left join fetch a.stateId where r.id = :id"),
+        @NamedQuery(name = "updateRestaurantRating" , query = "update RestaurantEntity r set r.customerRating = (r.customerRating * r.number0fCustomersRated + :ratingSum) / (r.number0fCustomersRated + :ratingCount), r.number0fCustomersRated = r.number0fCustomersRated + :ratingCount where r.id = :id")
+})
 public class RestaurantEntity implements Serializable{
 
     @Id
@@ -26,7 +32,7 @@ public class RestaurantEntity implements Serializable{
     @NotNull
     private String restaurantName;
 
-    @Column(name = "photot_url")
+    @Column(name = "photo_url")
     @Size(max = 255)
     private String photoUrl;
 
@@ -9,6 +9,10 @@ import java.io.Serializable;
 
 @Entity
 @Table(name = "restaurant_item" , schema = "public")
+@NamedQueries({
+        @NamedQuery(name = "allRestaurantItemIds" , query = "select ri.restaurantId.id, ri.itemId.id from RestaurantItemEntity ri"),
+        @NamedQuery(name = "categoryItemsByRestaurantId" , query = "select ci.categoryId.id, i from RestaurantItemEntity ri join ri.itemId i, CategoryItemEntity ci where ci.itemId = i and ri.restaurantId.id = :restaurantId order by i.itemName, i.id")
+})
 public class RestaurantItemEntity implements Serializable {
 
     @Id
@@ -18,7 +22,7 @@ public class RestaurantItemEntity implements Serializable {
 
     @ManyToOne
     @OnDelete(action = OnDeleteAction.CASCADE)
-    @JoinColumn(name = "item-id")
+    @JoinColumn(name = "item_id")
     @NotNull
     private ItemEntity itemId;
 
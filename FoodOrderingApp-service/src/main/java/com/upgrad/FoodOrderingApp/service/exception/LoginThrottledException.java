@@ -0,0 +1,47 @@
+package com.upgrad.FoodOrderingApp.service.exception;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+
+/**
+ * LoginThrottledException is thrown when a client has made more login attempts than allowed in the sliding window.
+ */
+public class LoginThrottledException extends Exception {
+    private final String code;
+    private final String errorMessage;
+    private final int retryAfterSeconds;
+
+    public LoginThrottledException(final String code, final String errorMessage, final int retryAfterSeconds) {
+        this.code = code;
+        this.errorMessage = errorMessage;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public void printStackTrace() {
+        super.printStackTrace();
+    }
+
+    @Override
+    public void printStackTrace(PrintStream s) {
+        super.printStackTrace(s);
+    }
+
+    @Override
+    public void printStackTrace(PrintWriter s) {
+        super.printStackTrace(s);
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.common.RestaurantSortOrder;
+import com.upgrad.FoodOrderingApp.service.common.SortDirection;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+// This class contains the test cases of the sort orders of a catalog, as kept up to date when one restaurant changes
+public class CatalogTest {
+
+    //This test case passes when a restaurant whose rating changes is moved to the same place in every order, and in both
+    //directions, as a catalog built from scratch puts it: to the front, to the end, among ties and nowhere.
+    @Test
+    public void shouldMoveAChangedRestaurantWhereARebuildPutsIt() {
+        final Random random = new Random(20);
+        final List<RestaurantEntity> restaurants = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            restaurants.add(restaurant(i, 1 + random.nextInt(9) / 2.0, random.nextInt(5)));
+        }
+        Catalog catalog = build(restaurants);
+
+        final double[] ratings = {5.0, 1.0, 3.0, 3.0, 0.5, 4.5, 2.5};
+        for (int change = 0; change < 200; change++) {
+            final int ordinal = change < 40 ? change : random.nextInt(restaurants.size());
+            final RestaurantEntity changed = copy(restaurants.get(ordinal));
+            changed.setCustomerRating(change < 40 ? ratings[change % ratings.length] : 1 + random.nextInt(9) / 2.0);
+            changed.setNumber0fCustomersRated(change % 3 == 0 ? restaurants.get(ordinal).getNumber0fCustomersRated() : random.nextInt(5));
+            restaurants.set(ordinal, changed);
+
+            catalog = catalog.withRestaurant(change + 2, changed);
+            final Catalog rebuilt = build(restaurants);
+            for (RestaurantSortOrder sortOrder : RestaurantSortOrder.values()) {
+                for (SortDirection direction : SortDirection.values()) {
+                    assertEquals(sortOrder + " " + direction + " after change " + change,
+                            names(rebuilt.getRestaurants(sortOrder, direction)), names(catalog.getRestaurants(sortOrder, direction)));
+                }
+            }
+            assertEquals(names(rebuilt.getRestaurantsByRating()), names(catalog.getRestaurantsByRating()));
+        }
+    }
+
+    //This test case passes when several restaurants changed at once, the same one more than once included, are moved to
+    //the same places in every order as a catalog built from scratch puts them.
+    @Test
+    public void shouldMoveChangedRestaurantsInOneBatchWhereARebuildPutsThem() {
+        final Random random = new Random(19);
+        final List<RestaurantEntity> restaurants = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            restaurants.add(restaurant(i, 1 + random.nextInt(9) / 2.0, random.nextInt(5)));
+        }
+        Catalog catalog = build(restaurants);
+
+        for (int batch = 0; batch < 100; batch++) {
+            final List<RestaurantEntity> changes = new ArrayList<>();
+            for (int size = 1 + random.nextInt(batch % 10 == 0 ? restaurants.size() : 8); size > 0; size--) {
+                final int ordinal = random.nextInt(restaurants.size());
+                final RestaurantEntity changed = copy(restaurants.get(ordinal));
+                changed.setCustomerRating(1 + random.nextInt(9) / 2.0);
+                changed.setNumber0fCustomersRated(random.nextInt(5));
+                restaurants.set(ordinal, changed);
+                changes.add(changed);
+            }
+
+            catalog = catalog.withRestaurants(batch + 2, changes);
+            final Catalog rebuilt = build(restaurants);
+            for (RestaurantSortOrder sortOrder : RestaurantSortOrder.values()) {
+                for (SortDirection direction : SortDirection.values()) {
+                    assertEquals(sortOrder + " " + direction + " after batch " + batch,
+                            names(rebuilt.getRestaurants(sortOrder, direction)), names(catalog.getRestaurants(sortOrder, direction)));
+                }
+            }
+            assertEquals(names(rebuilt.getRestaurantsByRating()), names(catalog.getRestaurantsByRating()));
+        }
+    }
+
+    //This test case passes when the opposite direction lists the default order last to first, ties included.
+    @Test
+    public void shouldReverseTheDefaultOrder() {
+        final List<RestaurantEntity> restaurants = new ArrayList<>();
+        restaurants.add(restaurant(0, 4.0, 10));
+        restaurants.add(restaurant(1, 5.0, 10));
+        restaurants.add(restaurant(2, 4.0, 30));
+        restaurants.add(restaurant(3, 3.0, 20));
+        final Catalog catalog = build(restaurants);
+
+        assertEquals(listOf("R001", "R000", "R002", "R003"), names(catalog.getRestaurants(RestaurantSortOrder.RATING, SortDirection.DESC)));
+        assertEquals(listOf("R003", "R002", "R000", "R001"), names(catalog.getRestaurants(RestaurantSortOrder.RATING, SortDirection.ASC)));
+        assertEquals(listOf("R002", "R003", "R000", "R001"), names(catalog.getRestaurants(RestaurantSortOrder.CUSTOMERS_RATED, SortDirection.DESC)));
+        assertEquals(listOf("R001", "R000", "R003", "R002"), names(catalog.getRestaurants(RestaurantSortOrder.CUSTOMERS_RATED, SortDirection.ASC)));
+        assertEquals(listOf("R003", "R002", "R001", "R000"), names(catalog.getRestaurants(RestaurantSortOrder.NAME, SortDirection.DESC)));
+        assertEquals(listOf("R003", "R002", "R001", "R000"), names(catalog.getRestaurants(RestaurantSortOrder.PRICE, SortDirection.DESC)));
+    }
+
+    //This test case passes when a renamed or unknown restaurant is left to a full rebuild.
+    @Test
+    public void shouldNotMoveARenamedOrUnknownRestaurant() {
+        final List<RestaurantEntity> restaurants = new ArrayList<>();
+        restaurants.add(restaurant(0, 4.0, 10));
+        final Catalog catalog = build(restaurants);
+
+        final RestaurantEntity renamed = copy(restaurants.get(0));
+        renamed.setRestaurantName("Renamed");
+        assertNull(catalog.withRestaurant(2L, renamed));
+        assertNull(catalog.withRestaurant(2L, restaurant(1, 4.0, 10)));
+        assertNull(catalog.withRestaurants(2L, listOfRestaurants(copy(restaurants.get(0)), renamed)));
+    }
+
+    private static Catalog build(final List<RestaurantEntity> restaurants) {
+        return Catalog.build(1L, restaurants, Collections.emptyList(), Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), new int[0], new double[0], 1.0, Catalog.EMPTY);
+    }
+
+    private static List<String> names(final List<RestaurantEntity> restaurants) {
+        final List<String> names = new ArrayList<>(restaurants.size());
+        for (RestaurantEntity restaurantEntity : restaurants) {
+            names.add(restaurantEntity.getRestaurantName());
+        }
+        return names;
+    }
+
+    private static List<RestaurantEntity> listOfRestaurants(final RestaurantEntity... restaurants) {
+        final List<RestaurantEntity> list = new ArrayList<>();
+        Collections.addAll(list, restaurants);
+        return list;
+    }
+
+    private static List<String> listOf(final String... names) {
+        final List<String> list = new ArrayList<>();
+        Collections.addAll(list, names);
+        return list;
+    }
+
+    //Restaurants are named in the order of their ids, so a list of them is in name order.
+    private static RestaurantEntity restaurant(final int id, final double rating, final int customersRated) {
+        final RestaurantEntity restaurantEntity = new RestaurantEntity();
+        restaurantEntity.setId(id);
+        restaurantEntity.setUuid("restaurant-" + id);
+        restaurantEntity.setRestaurantName(String.format("R%03d", id));
+        restaurantEntity.setCustomerRating(rating);
+        restaurantEntity.setAveragePriceForTwo(100 * (id % 7));
+        restaurantEntity.setNumber0fCustomersRated(customersRated);
+        return restaurantEntity;
+    }
+
+    private static RestaurantEntity copy(final RestaurantEntity restaurantEntity) {
+        final RestaurantEntity copy = restaurant(restaurantEntity.getId(), restaurantEntity.getCustomerRating(),
+                restaurantEntity.getNumber0fCustomersRated());
+        copy.setUuid(restaurantEntity.getUuid());
+        copy.setRestaurantName(restaurantEntity.getRestaurantName());
+        return copy;
+    }
+}
@@ -0,0 +1,82 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// This class compares the time the input validator rules take with the regular expressions they replaced.
+// It is not a test case; run it from the test classpath with its main method.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputValidatorBenchmark {
+
+    private static final Pattern EMAIL = Pattern.compile("^(.+)@(.+)$");
+
+    private static final Pattern CONTACT_NUMBER = Pattern.compile("[0-9]{10}");
+
+    private static final Pattern PINCODE = Pattern.compile("[0-9]{6}");
+
+    private static final Pattern STRONG_PASSWORD = Pattern.compile("^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[#@$%&*!^])(?=\\S+$).{8,}$");
+
+    //A signup every rule accepts, and one every rule rejects.
+    @Param({"valid", "invalid"})
+    public String input;
+
+    private final InputValidator inputValidator = new InputValidator();
+
+    private String email;
+
+    private String contactNumber;
+
+    private String pincode;
+
+    private String password;
+
+    @Setup
+    public void setUp() {
+        final boolean valid = "valid".equals(input);
+        email = valid ? "first.last@sub.example.co.in" : "first.last.sub.example.co.in";
+        contactNumber = valid ? "9090909090" : "909090909a";
+        pincode = valid ? "560038" : "56003a";
+        password = valid ? "Passw0rd#Passw0rd#" : "passw0rd#passw0rd ";
+    }
+
+    @Benchmark
+    public void patterns(final Blackhole blackhole) {
+        blackhole.consume(EMAIL.matcher(email).matches());
+        blackhole.consume(CONTACT_NUMBER.matcher(contactNumber).matches());
+        blackhole.consume(PINCODE.matcher(pincode).matches());
+        blackhole.consume(STRONG_PASSWORD.matcher(password).matches());
+    }
+
+    @Benchmark
+    public void inputValidator(final Blackhole blackhole) {
+        blackhole.consume(inputValidator.isValidEmail(email));
+        blackhole.consume(inputValidator.isValidContactNumber(contactNumber));
+        blackhole.consume(inputValidator.isValidPincode(pincode));
+        blackhole.consume(inputValidator.isStrongPassword(password));
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(InputValidatorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
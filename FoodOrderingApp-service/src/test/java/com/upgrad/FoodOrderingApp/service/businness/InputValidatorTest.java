@@ -0,0 +1,117 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+
+// This class contains the test cases of the input validator rules against the regular expressions they replaced
+public class InputValidatorTest {
+
+    private static final Pattern EMAIL = Pattern.compile("^(.+)@(.+)$");
+
+    private static final Pattern CONTACT_NUMBER = Pattern.compile("[0-9]{10}");
+
+    private static final Pattern PINCODE = Pattern.compile("[0-9]{6}");
+
+    private static final Pattern STRONG_PASSWORD = Pattern.compile("^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[#@$%&*!^])(?=\\S+$).{8,}$");
+
+    //Characters the rules treat differently: ASCII classes, every line terminator, whitespace inside and outside \s,
+    //digits and letters outside ASCII, halves of a surrogate pair and a supplementary code point.
+    private static final String[] PIECES = {
+            "a", "z", "A", "Z", "0", "9", "5", "@", "#", "$", "%", "&", "*", "!", "^", ".", "-", "_",
+            "\n", "\r", "\r\n", "\u0085", "\u2028", "\u2029",
+            " ", "\t", "\u000B", "\f", "\u00A0", "\u2007", "\u3000", "\u0000",
+            "\u0661", "\uFF10", "\u00E9", "\uFF21", "\u0131",
+            "\uD83D\uDE00", "\uD835\uDFCE", "\uD83D", "\uDE00"
+    };
+
+    private final InputValidator inputValidator = new InputValidator();
+
+    //This test case passes when the email rule agrees with its regular expression on inputs with line terminators,
+    //Unicode whitespace, supplementary code points and '@' at either end.
+    @Test
+    public void shouldValidateEmailsLikeThePattern() {
+        final List<String> inputs = Arrays.asList("", "@", "a@", "@a", "a@b", "@@", "a@@", "@a@", "a@b\n", "\na@b", "a\n@b", "a@\rb",
+                "a\r\n@b", "a@b\u0085", "a\u2028@b", "a@\u2029b", " @ ", "\u00A0@\u3000", "\uD83D\uDE00@\uD83D\uDE00", "\uD83D@\uDE00",
+                "customer@example.com", "first.last@sub.example.co.in", "a@b@c");
+
+        assertAgrees(EMAIL, inputValidator::isValidEmail, inputs);
+        assertAgreesOnRandomInputs(EMAIL, inputValidator::isValidEmail, 12);
+    }
+
+    //This test case passes when the contact number rule agrees with its regular expression, including digits outside
+    //ASCII and line terminators around the number.
+    @Test
+    public void shouldValidateContactNumbersLikeThePattern() {
+        final List<String> inputs = Arrays.asList("", "9090909090", "909090909", "90909090901", "909090909\n", "9090909090\n",
+                "\n9090909090", "90909\u06610909", "\uFF19090909090", " 9090909090", "9090909090 ", "909090909a", "+919090909090");
+
+        assertAgrees(CONTACT_NUMBER, inputValidator::isValidContactNumber, inputs);
+        assertAgreesOnRandomInputs(CONTACT_NUMBER, inputValidator::isValidContactNumber, 12);
+    }
+
+    //This test case passes when the pincode rule agrees with its regular expression, including digits outside ASCII
+    //and line terminators around the pincode.
+    @Test
+    public void shouldValidatePincodesLikeThePattern() {
+        final List<String> inputs = Arrays.asList("", "560038", "56003", "5600381", "560038\n", "\r560038", "56\u0660038", "\uFF15\uFF16\uFF10\uFF10\uFF13\uFF18",
+                " 560038", "56003a");
+
+        assertAgrees(PINCODE, inputValidator::isValidPincode, inputs);
+        assertAgreesOnRandomInputs(PINCODE, inputValidator::isValidPincode, 8);
+    }
+
+    //This test case passes when the password rule agrees with its regular expression on the length in code points,
+    //whitespace inside and outside \s, line terminators and each required class of character.
+    @Test
+    public void shouldValidatePasswordsLikeThePattern() {
+        final List<String> inputs = Arrays.asList("", "Passw0rd#", "Pass0rd#", "Pas0rd#", "passw0rd#", "PASSW0RD#", "Password#", "Passw0rdd",
+                "Pass 0rd#", "Pass\t0rd#", "Pass\u000B0rd#", "Pass\f0rd#", "Passw0rd#\n", "\nPassw0rd#", "Pass\r0rd#", "Pass\u00850rd#",
+                "Pass\u20280rd#", "Pass\u20290rd#", "Pass\u00A00rd#", "Pass\u30000rd#", "Pa0#\uD83D\uDE00\uD83D\uDE00\uD83D\uDE00",
+                "Pa0#\uD83D\uDE00\uD83D\uDE00\uD83D\uDE00\uD83D\uDE00", "Pa0#\uD83D\uDE00\uD83D\uDE00\uD83D", "Pa0#\uDE00\uD83D\uDE00\uD83D",
+                "P\u00E90#abcd", "\uFF21a0#abcd", "Aa\u0661#abcd", "Aa0#\u0000bcd", "Aa0^bcde", "Aa0!bcde", "Aa0?bcde");
+
+        assertAgrees(STRONG_PASSWORD, inputValidator::isStrongPassword, inputs);
+        assertAgreesOnRandomInputs(STRONG_PASSWORD, inputValidator::isStrongPassword, 12);
+    }
+
+    private static void assertAgrees(final Pattern pattern, final Predicate<String> rule, final List<String> inputs) {
+        for (String input : inputs) {
+            assertEquals(describe(input), pattern.matcher(input).matches(), rule.test(input));
+        }
+    }
+
+    private static void assertAgreesOnRandomInputs(final Pattern pattern, final Predicate<String> rule, final int maxPieces) {
+        final Random random = new Random(8);
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            input.setLength(0);
+            for (int pieces = random.nextInt(maxPieces + 1); pieces > 0; pieces--) {
+                //Mostly digits and letters, so that enough inputs come close to matching.
+                input.append(random.nextInt(3) == 0 ? PIECES[random.nextInt(PIECES.length)] : PIECES[random.nextInt(7)]);
+            }
+            final String value = input.toString();
+            assertEquals(describe(value), pattern.matcher(value).matches(), rule.test(value));
+        }
+    }
+
+    //The input with every character outside printable ASCII escaped, so a failure shows what was checked.
+    private static String describe(final String input) {
+        final StringBuilder described = new StringBuilder("\"");
+        for (int i = 0; i < input.length(); i++) {
+            final char c = input.charAt(i);
+            if (c >= ' ' && c < 0x7F) {
+                described.append(c);
+            } else {
+                described.append(String.format("\\u%04X", (int) c));
+            }
+        }
+        return described.append('"').toString();
+    }
+}
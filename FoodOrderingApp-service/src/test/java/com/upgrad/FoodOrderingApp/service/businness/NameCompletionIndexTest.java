@@ -0,0 +1,122 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+// This class contains the test cases of the index the search box completes restaurant and item names with
+public class NameCompletionIndexTest {
+
+    //This test case passes when every word of a name completes it, in any case, best weight first.
+    @Test
+    public void shouldCompleteAnyWordBestWeightFirst() {
+        final String[] names = {"Pizza Hut", "Hot Pizza", "Pizzeria", "Dosa Plaza", "pizza-express"};
+        final NameCompletionIndex index = new NameCompletionIndex(names, new int[]{3, 1, 4, 0, 2});
+
+        assertArrayEquals(new int[]{1, 4, 0, 2}, index.complete("piz", 10));
+        assertArrayEquals(new int[]{1, 0}, index.complete("h", 10));
+        assertArrayEquals(new int[]{4}, index.complete("express", 10));
+        assertArrayEquals(new int[]{1, 4}, index.complete("pizza", 2));
+        assertArrayEquals(new int[]{1, 4, 0}, index.complete("pizza", 3));
+        assertArrayEquals(new int[0], index.complete("izza", 10));
+        assertArrayEquals(new int[0], index.complete("pizzas", 10));
+        assertArrayEquals(new int[0], index.complete("piz", 0));
+    }
+
+    //This test case passes when a name with several words starting with the text is returned once.
+    @Test
+    public void shouldReturnANameOnceForSeveralMatchingWords() {
+        final NameCompletionIndex index = new NameCompletionIndex(new String[]{"Bun Butter Bread", "Burger Barn"}, new int[]{0, 1});
+
+        assertArrayEquals(new int[]{0, 1}, index.complete("b", 10));
+        assertArrayEquals(new int[]{0, 1}, index.complete("bu", 2));
+    }
+
+    //This test case passes when the prefix ranges at the first and the last key, and past either end, complete correctly.
+    @Test
+    public void shouldCompletePrefixesAtTheEndsOfTheKeys() {
+        final NameCompletionIndex index = new NameCompletionIndex(new String[]{"aa", "ab", "zy", "zz"}, new int[]{3, 2, 1, 0});
+
+        assertArrayEquals(new int[]{1, 0}, index.complete("a", 10));
+        assertArrayEquals(new int[]{0}, index.complete("aa", 10));
+        assertArrayEquals(new int[]{3, 2}, index.complete("z", 10));
+        assertArrayEquals(new int[]{3}, index.complete("zz", 10));
+        assertArrayEquals(new int[0], index.complete("0", 10));
+        assertArrayEquals(new int[0], index.complete("zzz", 10));
+        assertArrayEquals(new int[]{3, 2, 1, 0}, index.complete("", 10));
+    }
+
+    //This test case passes when nothing is completed from an index of no names.
+    @Test
+    public void shouldCompleteNothingWithoutNames() {
+        final NameCompletionIndex index = new NameCompletionIndex(new String[0], new int[0]);
+
+        assertArrayEquals(new int[0], index.complete("a", 10));
+        assertArrayEquals(new int[0], index.complete("", 10));
+    }
+
+    //This test case passes when the index completes the same names as looking through every word of every name, for
+    //key counts that do not fill the segment tree and for prefix ranges of every length.
+    @Test
+    public void shouldCompleteTheSameNamesAsAScan() {
+        final Random random = new Random(18);
+        for (int size : new int[]{1, 2, 3, 7, 64, 65, 300}) {
+            final String[] names = new String[size];
+            for (int i = 0; i < size; i++) {
+                names[i] = randomName(random);
+            }
+            final List<Integer> byWeight = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                byWeight.add(i);
+            }
+            Collections.shuffle(byWeight, random);
+            final int[] order = byWeight.stream().mapToInt(Integer::intValue).toArray();
+            final NameCompletionIndex index = new NameCompletionIndex(names, order);
+
+            for (int i = 0; i < 200; i++) {
+                final String name = names[random.nextInt(size)].toLowerCase(Locale.ROOT);
+                final String prefix = name.substring(0, random.nextInt(name.length() + 1)).trim();
+                final int limit = 1 + random.nextInt(8);
+                assertArrayEquals(size + " names, " + prefix + ", " + limit, scan(names, order, prefix, limit), index.complete(prefix, limit));
+            }
+        }
+    }
+
+    //Names with a word starting with the prefix, best weight first, up to the limit.
+    private static int[] scan(final String[] names, final int[] byWeight, final String prefix, final int limit) {
+        final List<Integer> found = new ArrayList<>();
+        for (int ordinal : byWeight) {
+            final String name = names[ordinal].toLowerCase(Locale.ROOT);
+            for (int at = 0; at < name.length() && found.size() < limit; at++) {
+                if (Character.isLetterOrDigit(name.charAt(at)) && (at == 0 || !Character.isLetterOrDigit(name.charAt(at - 1)))
+                        && name.startsWith(prefix, at)) {
+                    found.add(ordinal);
+                    break;
+                }
+            }
+        }
+        return found.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    //Words from a small alphabet, so that many keys share a prefix.
+    private static String randomName(final Random random) {
+        final List<String> words = new ArrayList<>();
+        final int wordCount = 1 + random.nextInt(3);
+        for (int i = 0; i < wordCount; i++) {
+            final StringBuilder word = new StringBuilder();
+            final int length = 1 + random.nextInt(5);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ((random.nextBoolean() ? 'a' : 'A') + random.nextInt(4)));
+            }
+            words.add(word.toString());
+        }
+        return String.join(Arrays.asList(" ", "-", " & ").get(random.nextInt(3)), words);
+    }
+}
@@ -0,0 +1,300 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.common.ItemType;
+import com.upgrad.FoodOrderingApp.service.entity.CategoryEntity;
+import com.upgrad.FoodOrderingApp.service.entity.ItemEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+// This class contains the test cases of the bitset index the restaurants are filtered and counted by facet with
+public class RestaurantFacetIndexTest {
+
+    private static final int[] PRICE_BAND_BOUNDS = {300, 600};
+
+    private static final double[] RATING_FLOORS = {2.0, 3.0, 4.0};
+
+    //This test case passes when no restaurant past the last one is found, whether the last bitset word is partly or
+    //wholly used.
+    @Test
+    public void shouldMaskTheBitsPastTheLastRestaurant() {
+        for (int size : new int[]{0, 1, 63, 64, 65, 127, 128, 130}) {
+            final RestaurantEntity[] restaurants = new RestaurantEntity[size];
+            final int[][] itemsOfRestaurant = new int[size][];
+            for (int i = 0; i < size; i++) {
+                restaurants[i] = restaurant(i, 100, 3.0);
+                itemsOfRestaurant[i] = new int[0];
+            }
+            final RestaurantFacetIndex index = new RestaurantFacetIndex(restaurants, new int[0][], new ItemEntity[0], itemsOfRestaurant,
+                    PRICE_BAND_BOUNDS, RATING_FLOORS);
+            final int[] all = IntStream.range(0, size).toArray();
+
+            assertArrayEquals("size " + size, all, RestaurantFacetIndex.ordinals(index.and()));
+            assertArrayEquals("size " + size, all, RestaurantFacetIndex.ordinals(index.and(null, null)));
+            assertArrayEquals("size " + size, all, RestaurantFacetIndex.ordinals(index.and(index.priceBands(Collections.singletonList(0)))));
+            assertArrayEquals("size " + size, new int[0], RestaurantFacetIndex.ordinals(index.and(index.priceBands(Collections.singletonList(1)))));
+            assertEquals("size " + size, size, index.countPriceBand(index.and(), 0));
+        }
+    }
+
+    //This test case passes when the restaurants filtered, and the counts of every value of every facet with the other
+    //facets applied, are the same as found by checking every restaurant.
+    @Test
+    public void shouldFilterAndCountLikeAScan() {
+        assertFiltersAndCountsLikeAScan(false);
+    }
+
+    //This test case passes when the restaurants filtered, their order and the counts of every facet go by the ratings
+    //with the pending ratings merged in, including ratings that move a restaurant across the minimum rating.
+    @Test
+    public void shouldFilterAndCountWithPendingRatingsMergedIn() {
+        assertFiltersAndCountsLikeAScan(true);
+    }
+
+    private static void assertFiltersAndCountsLikeAScan(final boolean withPendingRatings) {
+        final Random random = new Random(21);
+        final List<CategoryEntity> categories = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            final CategoryEntity categoryEntity = new CategoryEntity();
+            categoryEntity.setId(100 + i);
+            categoryEntity.setUuid("category-" + i);
+            categoryEntity.setCategoryName("C" + i);
+            categories.add(categoryEntity);
+        }
+        final List<ItemEntity> items = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            final ItemEntity itemEntity = new ItemEntity();
+            itemEntity.setId(200 + i);
+            itemEntity.setUuid("item-" + i);
+            itemEntity.setItemName(String.format("I%02d", i));
+            itemEntity.setPrice(100);
+            itemEntity.setType(i % 3 == 0 ? ItemType.NON_VEG.getValue() : ItemType.VEG.getValue());
+            items.add(itemEntity);
+        }
+        //Not a multiple of 64, so the last bitset word is partly used.
+        final List<RestaurantEntity> restaurants = new ArrayList<>();
+        final List<Object[]> restaurantCategories = new ArrayList<>();
+        final List<Object[]> restaurantItems = new ArrayList<>();
+        final List<Set<Integer>> categoriesOf = new ArrayList<>();
+        final List<Set<ItemType>> itemTypesOf = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            restaurants.add(restaurant(i, 100 * random.nextInt(10), 1 + random.nextInt(9) / 2.0));
+            final Set<Integer> restaurantCategorySet = new HashSet<>();
+            for (int j = random.nextInt(3); j > 0; j--) {
+                final int category = random.nextInt(categories.size());
+                restaurantCategorySet.add(category);
+                restaurantCategories.add(new Object[]{i, 100 + category});
+            }
+            final Set<ItemType> restaurantItemTypes = new HashSet<>();
+            for (int j = random.nextInt(3); j > 0; j--) {
+                final int item = random.nextInt(items.size());
+                restaurantItemTypes.add(ItemType.fromValue(items.get(item).getType()));
+                restaurantItems.add(new Object[]{i, 200 + item});
+            }
+            categoriesOf.add(restaurantCategorySet);
+            itemTypesOf.add(restaurantItemTypes);
+        }
+        final Catalog catalog = Catalog.build(1L, restaurants, categories, items, restaurantCategories, restaurantItems,
+                Collections.emptyList(), Collections.emptyList(), PRICE_BAND_BOUNDS, RATING_FLOORS, 1.0, Catalog.EMPTY);
+
+        //The restaurants as they are to be returned: with the pending ratings of some of them merged in.
+        final Map<Integer, RestaurantEntity> merged = new HashMap<>();
+        final List<Integer> pendingRestaurantIds = new ArrayList<>();
+        if (withPendingRatings) {
+            for (int i = 0; i < restaurants.size(); i += 1 + random.nextInt(8)) {
+                merged.put(i, restaurant(i, restaurants.get(i).getAveragePriceForTwo(), 1 + random.nextInt(17) / 4.0));
+                pendingRestaurantIds.add(i);
+            }
+            //Pending ratings already written, and a restaurant new since the catalog was built.
+            pendingRestaurantIds.add(restaurants.size() - 1 - merged.size() % 2);
+            pendingRestaurantIds.add(restaurants.size());
+        }
+        final List<RestaurantEntity> rated = new ArrayList<>();
+        for (RestaurantEntity restaurantEntity : restaurants) {
+            rated.add(merged.getOrDefault(restaurantEntity.getId(), restaurantEntity));
+        }
+
+        for (int run = 0; run < 300; run++) {
+            final List<String> categoryUuids = new ArrayList<>();
+            for (int j = random.nextInt(3); j > 0; j--) {
+                categoryUuids.add(random.nextInt(8) == 0 ? "unknown" : "category-" + random.nextInt(categories.size()));
+            }
+            final List<ItemType> itemTypes = new ArrayList<>();
+            for (ItemType itemType : ItemType.values()) {
+                if (random.nextInt(3) == 0) {
+                    itemTypes.add(itemType);
+                }
+            }
+            final List<Integer> priceBands = new ArrayList<>();
+            for (int j = random.nextInt(3); j > 0; j--) {
+                priceBands.add(random.nextInt(4));
+            }
+            final Double minRating = random.nextBoolean() ? null : 1 + random.nextInt(9) / 2.0;
+            final RestaurantFilter restaurantFilter = new RestaurantFilter(categoryUuids, itemTypes, priceBands, minRating);
+            final RestaurantFacets facets = withPendingRatings
+                    ? catalog.filterRestaurants(restaurantFilter, pendingRestaurantIds, r -> merged.getOrDefault(r.getId(), r))
+                    : catalog.filterRestaurants(restaurantFilter);
+
+            final Filter filter = new Filter(categoryUuids, itemTypes, priceBands, minRating, rated, categoriesOf, itemTypesOf);
+            final String message = categoryUuids + " " + itemTypes + " " + priceBands + " " + minRating;
+
+            final List<Integer> matching = new ArrayList<>();
+            for (int i = 0; i < restaurants.size(); i++) {
+                if (filter.byCategory(i) && filter.byItemType(i) && filter.byPriceBand(i) && filter.byRating(i)) {
+                    matching.add(i);
+                }
+            }
+            matching.sort(Comparator.<Integer>comparingDouble(i -> rated.get(i).getCustomerRating()).reversed().thenComparing(i -> i));
+            final List<String> expectedNames = new ArrayList<>();
+            for (int i : matching) {
+                expectedNames.add(rated.get(i).getRestaurantName() + " " + rated.get(i).getCustomerRating());
+            }
+            final List<String> names = new ArrayList<>();
+            for (RestaurantEntity restaurantEntity : facets.getRestaurants()) {
+                names.add(restaurantEntity.getRestaurantName() + " " + restaurantEntity.getCustomerRating());
+            }
+            assertEquals(message, expectedNames, names);
+
+            final Map<String, Integer> categoryCounts = new LinkedHashMap<>();
+            for (int category = 0; category < categories.size(); category++) {
+                int count = 0;
+                for (int i = 0; i < restaurants.size(); i++) {
+                    if (categoriesOf.get(i).contains(category) && filter.byItemType(i) && filter.byPriceBand(i) && filter.byRating(i)) {
+                        count++;
+                    }
+                }
+                if (count > 0) {
+                    categoryCounts.put(categories.get(category).getUuid(), count);
+                }
+            }
+            final Map<String, Integer> actualCategoryCounts = new LinkedHashMap<>();
+            for (Map.Entry<CategoryEntity, Integer> entry : facets.getCategoryCounts().entrySet()) {
+                actualCategoryCounts.put(entry.getKey().getUuid(), entry.getValue());
+            }
+            assertEquals(message, categoryCounts, actualCategoryCounts);
+
+            final Map<ItemType, Integer> itemTypeCounts = new LinkedHashMap<>();
+            for (ItemType itemType : ItemType.values()) {
+                int count = 0;
+                for (int i = 0; i < restaurants.size(); i++) {
+                    if (itemTypesOf.get(i).contains(itemType) && filter.byCategory(i) && filter.byPriceBand(i) && filter.byRating(i)) {
+                        count++;
+                    }
+                }
+                if (count > 0) {
+                    itemTypeCounts.put(itemType, count);
+                }
+            }
+            assertEquals(message, itemTypeCounts, new LinkedHashMap<>(facets.getItemTypeCounts()));
+
+            final List<Integer> priceBandCounts = new ArrayList<>();
+            for (int band = 0; band <= PRICE_BAND_BOUNDS.length; band++) {
+                int count = 0;
+                for (int i = 0; i < restaurants.size(); i++) {
+                    if (band(restaurants.get(i)) == band && filter.byCategory(i) && filter.byItemType(i) && filter.byRating(i)) {
+                        count++;
+                    }
+                }
+                priceBandCounts.add(count);
+            }
+            final List<Integer> actualPriceBandCounts = new ArrayList<>();
+            for (Map.Entry<PriceBand, Integer> entry : facets.getPriceBandCounts().entrySet()) {
+                assertEquals(actualPriceBandCounts.size(), entry.getKey().getIndex());
+                actualPriceBandCounts.add(entry.getValue());
+            }
+            assertEquals(message, priceBandCounts, actualPriceBandCounts);
+
+            final Map<Double, Integer> ratingCounts = new LinkedHashMap<>();
+            for (double floor : RATING_FLOORS) {
+                int count = 0;
+                for (int i = 0; i < restaurants.size(); i++) {
+                    if (rated.get(i).getCustomerRating() >= floor && filter.byCategory(i) && filter.byItemType(i) && filter.byPriceBand(i)) {
+                        count++;
+                    }
+                }
+                ratingCounts.put(floor, count);
+            }
+            assertEquals(message, ratingCounts, facets.getRatingCounts());
+        }
+    }
+
+    private static int band(final RestaurantEntity restaurantEntity) {
+        int band = 0;
+        while (band < PRICE_BAND_BOUNDS.length && restaurantEntity.getAveragePriceForTwo() >= PRICE_BAND_BOUNDS[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    //Restaurants are named in the order of their ids, so a list of them is in name order.
+    private static RestaurantEntity restaurant(final int id, final int price, final double rating) {
+        final RestaurantEntity restaurantEntity = new RestaurantEntity();
+        restaurantEntity.setId(id);
+        restaurantEntity.setUuid("restaurant-" + id);
+        restaurantEntity.setRestaurantName(String.format("R%03d", id));
+        restaurantEntity.setCustomerRating(rating);
+        restaurantEntity.setAveragePriceForTwo(price);
+        restaurantEntity.setNumber0fCustomersRated(10);
+        return restaurantEntity;
+    }
+
+    //Each facet of a filter, checked on one restaurant at a time.
+    private static final class Filter {
+
+        private final Set<Integer> categories = new HashSet<>();
+        private final boolean filtersCategories;
+        private final List<ItemType> itemTypes;
+        private final List<Integer> priceBands;
+        private final Double minRating;
+        private final List<RestaurantEntity> restaurants;
+        private final List<Set<Integer>> categoriesOf;
+        private final List<Set<ItemType>> itemTypesOf;
+
+        private Filter(final List<String> categoryUuids, final List<ItemType> itemTypes, final List<Integer> priceBands,
+                       final Double minRating, final List<RestaurantEntity> restaurants, final List<Set<Integer>> categoriesOf,
+                       final List<Set<ItemType>> itemTypesOf) {
+            for (String uuid : categoryUuids) {
+                if (uuid.startsWith("category-")) {
+                    categories.add(Integer.parseInt(uuid.substring("category-".length())));
+                }
+            }
+            this.filtersCategories = !categoryUuids.isEmpty();
+            this.itemTypes = itemTypes;
+            this.priceBands = priceBands;
+            this.minRating = minRating;
+            this.restaurants = restaurants;
+            this.categoriesOf = categoriesOf;
+            this.itemTypesOf = itemTypesOf;
+        }
+
+        boolean byCategory(final int restaurant) {
+            return !filtersCategories || categoriesOf.get(restaurant).stream().anyMatch(categories::contains);
+        }
+
+        boolean byItemType(final int restaurant) {
+            return itemTypes.isEmpty() || itemTypes.stream().anyMatch(itemTypesOf.get(restaurant)::contains);
+        }
+
+        boolean byPriceBand(final int restaurant) {
+            return priceBands.isEmpty() || priceBands.contains(band(restaurants.get(restaurant)));
+        }
+
+        boolean byRating(final int restaurant) {
+            return minRating == null || restaurants.get(restaurant).getCustomerRating() >= minRating;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.AddressEntity;
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+// This class contains the test cases of the grid index the restaurants nearest to a point are found with
+public class RestaurantGeoIndexTest {
+
+    //This test case passes when a restaurant just across the edge of the cell of the point is found before a farther one
+    //in the cell itself.
+    @Test
+    public void shouldFindANearerRestaurantAcrossTheCellEdge() {
+        final RestaurantEntity[] restaurants = {
+                restaurant(12.31, 77.51),
+                restaurant(12.39, 77.59),
+                restaurant(12.401, 77.55),
+                restaurant(null, null)
+        };
+        final RestaurantGeoIndex index = new RestaurantGeoIndex(restaurants, 0.1);
+
+        assertArrayEquals(new int[]{2, 1, 0}, index.nearest(12.399, 77.55, 10, 100));
+        assertArrayEquals(new int[]{2}, index.nearest(12.399, 77.55, 1, 100));
+        assertArrayEquals(new int[]{2, 1}, index.nearest(12.399, 77.55, 10, 6));
+        assertArrayEquals(new int[0], index.nearest(12.399, 77.55, 0, 100));
+        assertEquals(3, index.getLocatedCount());
+        assertEquals(Double.NaN, index.distanceKm(3, 12.399, 77.55), 0);
+    }
+
+    //This test case passes when restaurants at the same place are returned in ascending order of ordinal.
+    @Test
+    public void shouldOrderRestaurantsAtTheSameDistanceByOrdinal() {
+        final RestaurantEntity[] restaurants = {
+                restaurant(12.35, 77.55),
+                restaurant(12.3, 77.5),
+                restaurant(12.35, 77.55),
+                restaurant(12.3, 77.5)
+        };
+        final RestaurantGeoIndex index = new RestaurantGeoIndex(restaurants, 0.1);
+
+        assertArrayEquals(new int[]{0, 2, 1, 3}, index.nearest(12.35, 77.55, 10, 100));
+        assertArrayEquals(new int[]{1, 3}, index.nearest(12.3, 77.5, 2, 100));
+    }
+
+    //This test case passes when the index finds the same restaurants as measuring the distance to every restaurant, for
+    //points inside cells, on their edges and corners, in empty areas many rings away, and for limits and distances that
+    //take every ring there is.
+    @Test
+    public void shouldFindTheSameRestaurantsAsAScanInACity() {
+        final Random random = new Random(22);
+        final double cellDegrees = 0.1;
+        final RestaurantEntity[] restaurants = new RestaurantEntity[400];
+        for (int i = 0; i < restaurants.length; i++) {
+            if (i % 10 == 0) {
+                restaurants[i] = restaurant(null, null);
+            } else if (i % 10 == 1) {
+                //On the edges and corners of cells.
+                restaurants[i] = restaurant(latitudeEdge(1020 + random.nextInt(15), cellDegrees), longitudeEdge(2570 + random.nextInt(15), cellDegrees));
+            } else {
+                restaurants[i] = restaurant(12 + random.nextDouble() * 1.5, 77 + random.nextDouble() * 1.5);
+            }
+        }
+        final RestaurantGeoIndex index = new RestaurantGeoIndex(restaurants, cellDegrees);
+
+        final List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            points.add(new double[]{12 + random.nextDouble() * 1.5, 77 + random.nextDouble() * 1.5});
+            points.add(new double[]{latitudeEdge(1020 + random.nextInt(15), cellDegrees), 77 + random.nextDouble() * 1.5});
+            points.add(new double[]{latitudeEdge(1020 + random.nextInt(15), cellDegrees), longitudeEdge(2570 + random.nextInt(15), cellDegrees)});
+        }
+        //Outside the area with restaurants, so the search goes through empty rings first.
+        points.add(new double[]{10.0, 75.0});
+        points.add(new double[]{14.05, 79.3});
+
+        assertSameAsScan(index, restaurants, points, random);
+    }
+
+    //This test case passes when the index finds the same restaurants as a scan over restaurants spread from pole to pole,
+    //including points at the poles and at the edges of the grid. Longitudes stay within 85 degrees of the prime meridian,
+    //as the cells do not wrap around the 180th meridian.
+    @Test
+    public void shouldFindTheSameRestaurantsAsAScanFromPoleToPole() {
+        final Random random = new Random(23);
+        final double cellDegrees = 5;
+        final RestaurantEntity[] restaurants = new RestaurantEntity[300];
+        for (int i = 0; i < restaurants.length; i++) {
+            restaurants[i] = i % 5 == 0 ? restaurant(latitudeEdge(1 + random.nextInt(35), cellDegrees), longitudeEdge(19 + random.nextInt(35), cellDegrees))
+                    : restaurant(-89 + random.nextDouble() * 178, -85 + random.nextDouble() * 170);
+        }
+        final RestaurantGeoIndex index = new RestaurantGeoIndex(restaurants, cellDegrees);
+
+        final List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            points.add(new double[]{-89 + random.nextDouble() * 178, -85 + random.nextDouble() * 170});
+            points.add(new double[]{latitudeEdge(1 + random.nextInt(35), cellDegrees), longitudeEdge(19 + random.nextInt(35), cellDegrees)});
+        }
+        points.add(new double[]{90, 0});
+        points.add(new double[]{-90, 0});
+        points.add(new double[]{89.9, 85});
+        points.add(new double[]{0, -85});
+
+        assertSameAsScan(index, restaurants, points, random);
+    }
+
+    private static void assertSameAsScan(final RestaurantGeoIndex index, final RestaurantEntity[] restaurants, final List<double[]> points,
+                                         final Random random) {
+        final int[] limits = {1, 3, 10, restaurants.length + 1};
+        final double[] maxDistancesKm = {0.5, 5, 50, 20000, Double.MAX_VALUE};
+        for (double[] point : points) {
+            final int limit = limits[random.nextInt(limits.length)];
+            final double maxDistanceKm = maxDistancesKm[random.nextInt(maxDistancesKm.length)];
+            assertArrayEquals(point[0] + ", " + point[1] + ", " + limit + ", " + maxDistanceKm,
+                    scan(index, restaurants, point[0], point[1], limit, maxDistanceKm), index.nearest(point[0], point[1], limit, maxDistanceKm));
+        }
+    }
+
+    //Located restaurants within the distance, nearest first and then by ordinal, up to the limit.
+    private static int[] scan(final RestaurantGeoIndex index, final RestaurantEntity[] restaurants, final double latitude,
+                              final double longitude, final int limit, final double maxDistanceKm) {
+        final List<Integer> found = new ArrayList<>();
+        for (int ordinal = 0; ordinal < restaurants.length; ordinal++) {
+            if (restaurants[ordinal].getAddressId().getLatitude() != null && index.distanceKm(ordinal, latitude, longitude) <= maxDistanceKm) {
+                found.add(ordinal);
+            }
+        }
+        found.sort(Comparator.<Integer>comparingDouble(ordinal -> index.distanceKm(ordinal, latitude, longitude)).thenComparing(ordinal -> ordinal));
+        return found.stream().limit(limit).mapToInt(Integer::intValue).toArray();
+    }
+
+    //Latitude of the southern edge of the row of cells, computed the way the index computes the edges of cells.
+    private static double latitudeEdge(final int row, final double cellDegrees) {
+        return row * cellDegrees - 90;
+    }
+
+    //Longitude of the western edge of the column of cells, computed the way the index computes the edges of cells.
+    private static double longitudeEdge(final int column, final double cellDegrees) {
+        return column * cellDegrees - 180;
+    }
+
+    private static RestaurantEntity restaurant(final Double latitude, final Double longitude) {
+        final AddressEntity addressEntity = new AddressEntity();
+        addressEntity.setLatitude(latitude);
+        addressEntity.setLongitude(longitude);
+        final RestaurantEntity restaurantEntity = new RestaurantEntity();
+        restaurantEntity.setAddressId(addressEntity);
+        return restaurantEntity;
+    }
+}
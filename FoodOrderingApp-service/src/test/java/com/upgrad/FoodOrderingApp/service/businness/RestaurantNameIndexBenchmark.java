@@ -0,0 +1,109 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// This class compares the time the restaurant name index takes to find the names containing a text with the SQL
+// LIKE '%text%' query over the same names, in an in-memory H2 database.
+// It is not a test case; run it from the test classpath with its main method.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestaurantNameIndexBenchmark {
+
+    private static final int RESTAURANTS = 100000;
+
+    private static final String[] WORDS = {"pizza", "palace", "tandoori", "nights", "curry", "house", "dosa", "corner",
+            "burger", "king", "biryani", "point", "sushi", "garden", "noodle", "bar", "spice", "kitchen", "cafe", "grill"};
+
+    //A text in many names, one in a few, one in none, and one shorter than a trigram, which the index scans for.
+    @Param({"pizza", "tandoori nights 42", "zzz", "ca"})
+    public String fragment;
+
+    private RestaurantNameIndex restaurantNameIndex;
+
+    private Connection connection;
+
+    private PreparedStatement likeQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        final Random random = new Random(17);
+        final String[] names = new String[RESTAURANTS];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = capitalize(WORDS[random.nextInt(WORDS.length)]) + " " + capitalize(WORDS[random.nextInt(WORDS.length)])
+                    + " " + random.nextInt(1000);
+        }
+        restaurantNameIndex = new RestaurantNameIndex(names);
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:restaurant_names");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table restaurant (id integer primary key, restaurant_name varchar(50) not null)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("insert into restaurant (id, restaurant_name) values (?, ?)")) {
+            for (int i = 0; i < names.length; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, names[i]);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        likeQuery = connection.prepareStatement("select id from restaurant where lower(restaurant_name) like ? order by id");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int[] nameIndex() {
+        return restaurantNameIndex.find(fragment.toLowerCase(Locale.ROOT));
+    }
+
+    @Benchmark
+    public void sqlLike(final Blackhole blackhole) throws SQLException {
+        likeQuery.setString(1, "%" + fragment.toLowerCase(Locale.ROOT) + "%");
+        try (ResultSet resultSet = likeQuery.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getInt(1));
+            }
+        }
+    }
+
+    private static String capitalize(final String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RestaurantNameIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
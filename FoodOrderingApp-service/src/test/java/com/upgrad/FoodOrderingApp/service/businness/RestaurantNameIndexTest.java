@@ -0,0 +1,123 @@
+package com.upgrad.FoodOrderingApp.service.businness;
+
+import com.upgrad.FoodOrderingApp.service.entity.RestaurantEntity;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+// This class contains the test cases of the trigram index the restaurants are searched by name with
+public class RestaurantNameIndexTest {
+
+    //This test case passes when the index finds the same names as looking through every name, for fragments shorter than
+    //a trigram, with repeated trigrams, with trigrams found in no name and with trigrams found in another order.
+    @Test
+    public void shouldFindTheSameNamesAsAScan() {
+        final Random random = new Random(17);
+        final String[] names = new String[500];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = randomName(random);
+        }
+        names[0] = "Aaaa Bbbb";
+        names[1] = "bcd abc";
+        names[2] = "ABCD";
+        final RestaurantNameIndex index = new RestaurantNameIndex(names);
+
+        final List<String> fragments = new ArrayList<>(Arrays.asList("", "a", "ab", "aaa", "aaaa", "aaaaa", "abcd", "bcd ab",
+                "zzzz", "a b", " ", "bbb"));
+        for (int i = 0; i < 500; i++) {
+            final String name = names[random.nextInt(names.length)].toLowerCase(Locale.ROOT);
+            final int from = random.nextInt(name.length());
+            fragments.add(name.substring(from, Math.min(name.length(), from + 1 + random.nextInt(6))));
+            fragments.add(randomName(random).toLowerCase(Locale.ROOT).substring(0, 3));
+        }
+
+        for (String fragment : fragments) {
+            assertArrayEquals(fragment, scan(names, fragment), index.find(fragment));
+        }
+    }
+
+    //This test case passes when a name holding every trigram of the text, but not the text itself, is not found.
+    @Test
+    public void shouldCheckCandidatesAgainstTheWholeText() {
+        final RestaurantNameIndex index = new RestaurantNameIndex(new String[]{"bcd abc", "xabcdx", "abc bcd"});
+
+        assertArrayEquals(new int[]{1}, index.find("abcd"));
+    }
+
+    //This test case passes when a match is graded exact, prefix, later word or inside the name.
+    @Test
+    public void shouldGradeTheMatch() {
+        final RestaurantNameIndex index = new RestaurantNameIndex(new String[]{"Pizza", "Pizza Hut", "Hot Pizza", "Pizzeria", "Sopizza"});
+
+        assertEquals(RestaurantNameIndex.MATCH_EXACT, index.matchQuality(0, "pizza"));
+        assertEquals(RestaurantNameIndex.MATCH_PREFIX, index.matchQuality(1, "pizza"));
+        assertEquals(RestaurantNameIndex.MATCH_WORD, index.matchQuality(2, "pizza"));
+        assertEquals(RestaurantNameIndex.MATCH_PREFIX, index.matchQuality(3, "pizz"));
+        assertEquals(RestaurantNameIndex.MATCH_INSIDE, index.matchQuality(4, "pizza"));
+        assertEquals(RestaurantNameIndex.MATCH_WORD, index.matchQuality(2, "p"));
+    }
+
+    //This test case passes when the restaurants found are ranked by match, then highest rating first.
+    @Test
+    public void shouldRankMatchesByQualityThenRating() {
+        final List<RestaurantEntity> restaurants = new ArrayList<>();
+        restaurants.add(restaurant(1, "Hot Pizza", 3.0));
+        restaurants.add(restaurant(2, "Pizza", 2.0));
+        restaurants.add(restaurant(3, "Pizza Hut", 4.0));
+        restaurants.add(restaurant(4, "Pizza Palace", 4.5));
+        restaurants.add(restaurant(5, "Sopizza", 5.0));
+        restaurants.add(restaurant(6, "Thin Pizza", 4.8));
+        restaurants.add(restaurant(7, "Tomato", 5.0));
+        final Catalog catalog = Catalog.build(1L, restaurants, Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList(),
+                new int[0], new double[0], 1.0, Catalog.EMPTY);
+
+        final List<String> found = new ArrayList<>();
+        for (RestaurantEntity restaurantEntity : catalog.getRestaurantsByName("PIZZA")) {
+            found.add(restaurantEntity.getRestaurantName());
+        }
+
+        assertEquals(Arrays.asList("Pizza", "Pizza Palace", "Pizza Hut", "Thin Pizza", "Hot Pizza", "Sopizza"), found);
+    }
+
+    private static int[] scan(final String[] names, final String fragment) {
+        final List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].toLowerCase(Locale.ROOT).contains(fragment)) {
+                matches.add(i);
+            }
+        }
+        return matches.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    //Names from a small alphabet, so that trigrams are shared by many names.
+    private static String randomName(final Random random) {
+        final StringBuilder name = new StringBuilder();
+        final int length = 3 + random.nextInt(12);
+        for (int i = 0; i < length; i++) {
+            final int letter = random.nextInt(7);
+            name.append(letter == 6 && i > 0 ? ' ' : (char) ((random.nextBoolean() ? 'a' : 'A') + letter));
+        }
+        return name.toString();
+    }
+
+    private static RestaurantEntity restaurant(final int id, final String name, final double rating) {
+        final RestaurantEntity restaurantEntity = new RestaurantEntity();
+        restaurantEntity.setId(id);
+        restaurantEntity.setUuid(UUID.randomUUID().toString());
+        restaurantEntity.setRestaurantName(name);
+        restaurantEntity.setCustomerRating(rating);
+        restaurantEntity.setAveragePriceForTwo(500);
+        restaurantEntity.setNumber0fCustomersRated(10);
+        return restaurantEntity;
+    }
+}
@@ -0,0 +1,138 @@
+package com.upgrad.FoodOrderingApp.service.dao;
+
+import com.upgrad.FoodOrderingApp.service.entity.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+// This class checks that the details of a restaurant that is not in the catalog are read in three statements
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class RestaurantDaoTest {
+
+    @Configuration
+    @EntityScan(basePackageClasses = RestaurantEntity.class)
+    @Import(RestaurantDao.class)
+    static class Config {
+    }
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private RestaurantDao restaurantDao;
+
+    private RestaurantEntity restaurant;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        StateEntity state = new StateEntity();
+        state.setUuid(UUID.randomUUID().toString());
+        state.setStateName("Karnataka");
+        testEntityManager.persist(state);
+
+        AddressEntity address = new AddressEntity();
+        address.setUuid(UUID.randomUUID().toString());
+        address.setFlatBuilNumber("12");
+        address.setLocality("Indiranagar");
+        address.setCity("Bangalore");
+        address.setPincode("560038");
+        address.setActive(1);
+        address.setStateId(state);
+        testEntityManager.persist(address);
+
+        restaurant = new RestaurantEntity();
+        restaurant.setUuid(UUID.randomUUID().toString());
+        restaurant.setRestaurantName("Dosa Corner");
+        restaurant.setCustomerRating(4.0);
+        restaurant.setAveragePriceForTwo(300);
+        restaurant.setNumber0fCustomersRated(10);
+        restaurant.setAddressId(address);
+        testEntityManager.persist(restaurant);
+
+        List<CategoryEntity> categories = new ArrayList<>();
+        for (String categoryName : new String[]{"Snacks", "Breakfast", "Drinks"}) {
+            CategoryEntity category = new CategoryEntity();
+            category.setUuid(UUID.randomUUID().toString());
+            category.setCategoryName(categoryName);
+            testEntityManager.persist(category);
+            categories.add(category);
+
+            RestaurantCategoryEntity restaurantCategory = new RestaurantCategoryEntity();
+            restaurantCategory.setRestaurantId(restaurant);
+            restaurantCategory.setCategoryId(category);
+            testEntityManager.persist(restaurantCategory);
+        }
+
+        //Five items over the three categories, the last one in two of them.
+        String[] itemNames = {"Masala Dosa", "Idli", "Vada", "Filter Coffee", "Lassi"};
+        int[][] itemCategories = {{0, 1}, {1}, {0}, {2}, {1, 2}};
+        for (int i = 0; i < itemNames.length; i++) {
+            ItemEntity item = new ItemEntity();
+            item.setUuid(UUID.randomUUID().toString());
+            item.setItemName(itemNames[i]);
+            item.setPrice(50 + i * 10);
+            item.setType("0");
+            testEntityManager.persist(item);
+
+            RestaurantItemEntity restaurantItem = new RestaurantItemEntity();
+            restaurantItem.setRestaurantId(restaurant);
+            restaurantItem.setItemId(item);
+            testEntityManager.persist(restaurantItem);
+
+            for (int categoryIndex : itemCategories[i]) {
+                CategoryItemEntity categoryItem = new CategoryItemEntity();
+                categoryItem.setCategoryId(categories.get(categoryIndex));
+                categoryItem.setItemId(item);
+                testEntityManager.persist(categoryItem);
+            }
+        }
+
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        statistics = testEntityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    //This test case passes when the restaurant, its categories and its items are read in three statements, with nothing
+    //left to load lazily while the response is built.
+    @Test
+    public void shouldReadRestaurantDetailsInThreeStatements() {
+        RestaurantEntity restaurantEntity = restaurantDao.getRestaurantByUuid(restaurant.getUuid());
+        List<CategoryEntity> categories = restaurantDao.getCategoriesByRestaurantId(restaurantEntity.getId());
+        List<Object[]> categoryItems = restaurantDao.getCategoryItemsByRestaurantId(restaurantEntity.getId());
+
+        //Everything the details response reads.
+        assertEquals("Karnataka", restaurantEntity.getAddressId().getStateId().getStateName());
+        assertEquals("Indiranagar", restaurantEntity.getAddressId().getLocality());
+        assertEquals(3, categories.size());
+        assertEquals("Breakfast", categories.get(0).getCategoryName());
+        assertEquals(7, categoryItems.size());
+        for (Object[] row : categoryItems) {
+            ItemEntity item = (ItemEntity) row[1];
+            item.getItemName();
+            item.getPrice();
+            item.getType();
+        }
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+}